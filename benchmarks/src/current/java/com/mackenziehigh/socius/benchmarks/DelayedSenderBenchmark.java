@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.socius.DelayedSender;
+import com.mackenziehigh.socius.Processor;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks a <code>DelayedSender</code> backed directly by the executor
+ * versus one backed by a timing-wheel.
+ *
+ * <p>
+ * Before measurement, a configurable number of long-delay sends are scheduled,
+ * which will not expire during the trial, in order to simulate
+ * the timeouts of many in-flight requests. The executor-backed sender
+ * pays O(log N) per send in that case, whereas the wheel should not.
+ * </p>
+ */
+public class DelayedSenderBenchmark
+        extends AbstractBenchmark
+{
+    /**
+     * This is the resolution of the timing-wheel.
+     */
+    private static final Duration RESOLUTION = Duration.ofMillis(1);
+
+    /**
+     * This is the delay of each of the measured sends.
+     */
+    private static final Duration DELAY = Duration.ofMillis(1);
+
+    /**
+     * Whether the sender is backed by the executor or a timing-wheel.
+     */
+    @Param (
+            {
+                "EXECUTOR", "WHEEL"
+            })
+    public String mode;
+
+    /**
+     * This is the number of sends that will remain pending throughout the trial.
+     */
+    @Param (
+            {
+                "0", "100000"
+            })
+    public int outstanding;
+
+    private final Object message = new Object();
+
+    private ScheduledExecutorService service;
+
+    private DelayedSender sender;
+
+    private Processor<Object> counter;
+
+    @Override
+    protected void setup ()
+    {
+        service = Executors.newSingleThreadScheduledExecutor();
+        sender = "WHEEL".equals(mode)
+                ? DelayedSender.newTimingWheelSender(service, RESOLUTION)
+                : DelayedSender.newDelayedSender(service);
+        counter = newCounter();
+
+        final Processor<Object> blackhole = Processor.fromConsumerScript(stage, (Object msg) -> msg.hashCode());
+
+        for (int i = 0; i < outstanding; i++)
+        {
+            sender.send(blackhole.dataIn(), message, Duration.ofHours(1));
+        }
+    }
+
+    @TearDown (Level.Trial)
+    public void teardownService ()
+    {
+        service.shutdownNow();
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.Throughput)
+    @OutputTimeUnit (TimeUnit.SECONDS)
+    @OperationsPerInvocation (BATCH)
+    public void throughput ()
+    {
+        for (int i = 0; i < BATCH; i++)
+        {
+            sender.send(counter.dataIn(), message, DELAY);
+        }
+
+        await(BATCH);
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.SampleTime)
+    @OutputTimeUnit (TimeUnit.MICROSECONDS)
+    public void latency ()
+    {
+        sender.send(counter.dataIn(), message, DELAY);
+        await(1);
+    }
+}
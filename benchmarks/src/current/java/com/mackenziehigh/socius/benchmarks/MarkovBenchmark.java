@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.socius.Markov;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks a <code>Markov</code> generator, which performs
+ * a batch of transitions per tick, over a fully-connected chain.
+ */
+public class MarkovBenchmark
+        extends AbstractBenchmark
+{
+    /**
+     * This is the number of states in the chain.
+     * Each state has a transition to every state.
+     */
+    @Param (
+            {
+                "4", "64"
+            })
+    public int states;
+
+    private final Instant tick = Instant.now();
+
+    private Markov<Integer> markov;
+
+    @Override
+    protected void setup ()
+    {
+        final Markov.Builder<Integer> builder = Markov.<Integer>newMarkov(stage).withTransitionsPerTick(BATCH);
+
+        for (int i = 0; i < states; i++)
+        {
+            for (int k = 0; k < states; k++)
+            {
+                builder.withTransition(i, k, 1 + k);
+            }
+        }
+
+        markov = builder.withSeed(states).build();
+        markov.dataOut().connect(this.<Integer>newCounter().dataIn());
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.Throughput)
+    @OutputTimeUnit (TimeUnit.SECONDS)
+    @OperationsPerInvocation (BATCH)
+    public void throughput ()
+    {
+        markov.accept(tick);
+        await(BATCH);
+    }
+}
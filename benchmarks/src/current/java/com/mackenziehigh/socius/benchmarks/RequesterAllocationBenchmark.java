@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.socius.DelayedSender;
+import com.mackenziehigh.socius.Processor;
+import com.mackenziehigh.socius.Requester;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the garbage-collection pressure of a <code>Requester</code>.
+ *
+ * <p>
+ * The interesting result is <code>gc.alloc.rate.norm</code>,
+ * which is the number of bytes allocated per request/reply round-trip.
+ * The keys are drawn from a small preallocated set, so that boxing
+ * does not contribute to the result. This benchmark requires the current API;
+ * therefore, in order to compare against an older release, run
+ * <code>RequesterBenchmark</code> against each release with the GC profiler (<code>-prof gc</code>).
+ * </p>
+ *
+ * <p>
+ * The requester is run with both kinds of <code>DelayedSender</code>,
+ * since every request schedules a timeout, which allocates.
+ * </p>
+ */
+public class RequesterAllocationBenchmark
+        extends AbstractBenchmark
+{
+    /**
+     * Whether the timeouts are scheduled via the executor or via a timing-wheel.
+     */
+    @Param (
+            {
+                "EXECUTOR", "WHEEL"
+            })
+    public String sender;
+
+    private final Long[] keys = new Long[BATCH];
+
+    private ScheduledExecutorService service;
+
+    private Requester<Long, Long, Long, Long> requester;
+
+    @Override
+    protected void setup ()
+    {
+        for (int i = 0; i < keys.length; i++)
+        {
+            keys[i] = (long) i;
+        }
+
+        service = Executors.newSingleThreadScheduledExecutor();
+
+        final DelayedSender delayedSender = "WHEEL".equals(sender)
+                ? DelayedSender.newTimingWheelSender(service, Duration.ofMillis(10))
+                : DelayedSender.newDelayedSender(service);
+
+        requester = Requester.<Long, Long, Long, Long>newRequester(stage)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .withCorrelator((request, reply) -> reply)
+                .withTimeout(Duration.ofMinutes(1))
+                .withTries(1)
+                .withDelayedSender(delayedSender)
+                .build();
+
+        final Processor<Long> echo = Processor.fromIdentityScript(stage);
+        requester.requestOut().connect(echo.dataIn());
+        echo.dataOut().connect(requester.replyIn());
+        requester.resultOut().connect(this.<Long>newCounter().dataIn());
+    }
+
+    @TearDown (Level.Trial)
+    public void teardownService ()
+    {
+        service.shutdownNow();
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.AverageTime)
+    @OutputTimeUnit (TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation (BATCH)
+    public void roundTrip ()
+    {
+        /**
+         * Every key is unique within the batch and the batch
+         * completes before the next one begins; therefore,
+         * no request is dropped as a duplicate.
+         */
+        for (int i = 0; i < BATCH; i++)
+        {
+            requester.requestIn().send(keys[i]);
+        }
+
+        await(BATCH);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.socius.Processor;
+import com.mackenziehigh.socius.Requester;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks a sharded <code>Requester</code> whose requests are immediately echoed back as replies.
+ *
+ * <p>
+ * The timeout is long enough that no retries occur; therefore,
+ * the measured cost is that of the correlation itself.
+ * Each request carries a unique key, since the requester drops
+ * requests whose keys are already pending. Boxing the keys allocates,
+ * which is included in the allocations reported for this benchmark.
+ * </p>
+ *
+ * <p>
+ * The requester is run with a single engine and with multiple engines (shards),
+ * so that the scaling of correlation across threads can be observed.
+ * </p>
+ */
+public class RequesterShardBenchmark
+        extends AbstractBenchmark
+{
+    /**
+     * This is the number of engines that the correlation-keys are partitioned into.
+     */
+    @Param (
+            {
+                "1", "4"
+            })
+    public int shards;
+
+    private Requester<Long, Long, Long, Long> requester;
+
+    private long sequence = 0;
+
+    @Override
+    protected void setup ()
+    {
+        requester = Requester.<Long, Long, Long, Long>newRequester(stage)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .withCorrelator((request, reply) -> reply)
+                .withTimeout(Duration.ofMinutes(1))
+                .withTries(1)
+                .withShards(shards)
+                .build();
+
+        final Processor<Long> echo = Processor.fromIdentityScript(stage);
+        requester.requestOut().connect(echo.dataIn());
+        echo.dataOut().connect(requester.replyIn());
+        requester.resultOut().connect(this.<Long>newCounter().dataIn());
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.Throughput)
+    @OutputTimeUnit (TimeUnit.SECONDS)
+    @OperationsPerInvocation (BATCH)
+    public void throughput ()
+    {
+        for (int i = 0; i < BATCH; i++)
+        {
+            requester.requestIn().send(sequence++);
+        }
+
+        await(BATCH);
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.SampleTime)
+    @OutputTimeUnit (TimeUnit.MICROSECONDS)
+    public void latency ()
+    {
+        requester.requestIn().send(sequence++);
+        await(1);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.socius.Router;
+import com.mackenziehigh.socius.Router.Publisher;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks a <code>Router</code> delivering batches of messages from one publisher to several subscribers.
+ *
+ * <p>
+ * Compare the results to those of <code>RouterBenchmark</code>, which sends the same messages one at a time.
+ * </p>
+ */
+public class RouterBatchBenchmark
+        extends AbstractBenchmark
+{
+    /**
+     * This is the number of subscribers interested in the published key.
+     */
+    @Param (
+            {
+                "1", "8"
+            })
+    public int subscribers;
+
+    private final Object message = new Object();
+
+    private final List<Object> batch = Collections.nCopies(BATCH, message);
+
+    private Publisher<String, Object> publisher;
+
+    @Override
+    protected void setup ()
+    {
+        final Router<String, Object> router = Router.newRouter(stage);
+
+        publisher = router.newPublisher("K");
+
+        for (int i = 0; i < subscribers; i++)
+        {
+            router.newSubscriber("K").dataOut().connect(newCounter().dataIn());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.Throughput)
+    @OutputTimeUnit (TimeUnit.SECONDS)
+    @OperationsPerInvocation (BATCH)
+    public void throughput ()
+    {
+        publisher.batchIn().send(batch);
+        await(BATCH * subscribers);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.socius.Processor;
+import com.mackenziehigh.socius.Router;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks multiple publishers sending through a <code>Router</code> concurrently,
+ * in each of the synchronization modes that the router supports.
+ *
+ * <p>
+ * Each publisher thread sends to its own routing-key, which has its own subscriber.
+ * Thus, the publishers only contend with one another, if the synchronization mode forces them to.
+ * </p>
+ */
+public class RouterSynchronizationBenchmark
+        extends AbstractBenchmark
+{
+    /**
+     * This is the number of publisher threads.
+     */
+    public static final int PUBLISHERS = 4;
+
+    /**
+     * This is the synchronization mode of the router.
+     *
+     * <ul>
+     * <li>NONE - The router is not synchronized.</li>
+     * <li>GLOBAL - The router is synchronized via <code>synchronize()</code>.</li>
+     * <li>PER_KEY - The router is synchronized via <code>synchronizePerKey()</code>.</li>
+     * </ul>
+     */
+    @Param (
+            {
+                "NONE", "GLOBAL", "PER_KEY"
+            })
+    public String mode;
+
+    private final Object message = new Object();
+
+    private final AtomicInteger publisherCount = new AtomicInteger();
+
+    private Router<Integer, Object> router;
+
+    @Override
+    protected void setup ()
+    {
+        router = Router.newRouter(stage);
+
+        if ("GLOBAL".equals(mode))
+        {
+            router.synchronize();
+        }
+        else if ("PER_KEY".equals(mode))
+        {
+            router.synchronizePerKey(PUBLISHERS);
+        }
+    }
+
+    /**
+     * The per-thread state of a single publisher.
+     */
+    @State (Scope.Thread)
+    public static class PublisherState
+    {
+        private Integer key;
+
+        private final AtomicLong received = new AtomicLong();
+
+        private long expected = 0;
+
+        @Setup (Level.Trial)
+        public void setup (final RouterSynchronizationBenchmark benchmark)
+        {
+            key = benchmark.publisherCount.getAndIncrement();
+            final Processor<Object> counter = Processor.fromConsumerScript(benchmark.stage, (Object x) -> received.incrementAndGet());
+            benchmark.router.newSubscriber(key).dataOut().connect(counter.dataIn());
+        }
+
+        private void await (final long count)
+        {
+            expected += count;
+
+            while (received.get() < expected)
+            {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads (PUBLISHERS)
+    @BenchmarkMode (Mode.Throughput)
+    @OutputTimeUnit (TimeUnit.SECONDS)
+    @OperationsPerInvocation (BATCH)
+    public void throughput (final PublisherState publisher)
+    {
+        for (int i = 0; i < BATCH; i++)
+        {
+            router.send(publisher.key, message);
+        }
+
+        publisher.await(BATCH);
+    }
+}
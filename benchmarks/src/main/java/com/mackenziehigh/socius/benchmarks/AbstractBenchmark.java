@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.cascade.Cascade;
+import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.socius.Processor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Provides the stage and the delivery bookkeeping shared by the benchmarks.
+ *
+ * <p>
+ * Actors deliver messages asynchronously; therefore, a benchmark cannot
+ * simply time the call that sends a message. Instead, every benchmark connects
+ * its outputs to a counting actor, sends its messages, and then spins until
+ * the counter shows that all of the messages have arrived.
+ * Thus, the measured time covers the full hop(s) through the component.
+ * </p>
+ *
+ * <p>
+ * Each benchmark is run on a single-threaded stage and on a multi-threaded stage.
+ * The former measures the raw cost of the component, whereas the latter
+ * also includes the cost of handing messages between threads.
+ * </p>
+ */
+@State (Scope.Benchmark)
+public abstract class AbstractBenchmark
+{
+    /**
+     * This is the number of messages sent per throughput invocation.
+     */
+    public static final int BATCH = 1_000;
+
+    /**
+     * This is the number of threads that will power the stage.
+     */
+    @Param (
+            {
+                "1", "4"
+            })
+    public int threads;
+
+    /**
+     * This stage powers the actors under test.
+     */
+    protected Stage stage;
+
+    /**
+     * This service provides the threads that power the stage.
+     */
+    private ExecutorService service;
+
+    /**
+     * This is the number of messages that have reached a counting actor.
+     */
+    private final AtomicLong received = new AtomicLong();
+
+    /**
+     * This is the number of messages that should have reached
+     * a counting actor, once the current invocation completes.
+     */
+    private long expected = 0;
+
+    /**
+     * The stage will use daemon threads that are named after this class,
+     * so that a misbehaving benchmark cannot prevent the fork from exiting.
+     */
+    private final ThreadFactory factory = (Runnable task) ->
+    {
+        final Thread thread = new Thread(task);
+        thread.setName(AbstractBenchmark.class.getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    /**
+     * Implement this method in order to create the actors under test.
+     *
+     * @throws Exception if something goes unexpectedly wrong.
+     */
+    protected abstract void setup ()
+            throws Exception;
+
+    @Setup (Level.Trial)
+    public final void setupStage ()
+            throws Exception
+    {
+        service = Executors.newFixedThreadPool(threads, factory);
+        stage = Cascade.newStage(service);
+        setup();
+    }
+
+    @TearDown (Level.Trial)
+    public final void teardownStage ()
+    {
+        stage.close();
+        service.shutdownNow();
+    }
+
+    /**
+     * Create an actor that counts the messages that it receives.
+     *
+     * @param <T> is the type of the incoming messages.
+     * @return the new counting actor.
+     */
+    protected final <T> Processor<T> newCounter ()
+    {
+        return Processor.fromConsumerScript(stage, (T message) -> received.incrementAndGet());
+    }
+
+    /**
+     * Wait for the given number of additional messages to reach the counting actors.
+     *
+     * <p>
+     * This method spins, rather than blocks, since parking the benchmark
+     * thread would add wake-up latency that is unrelated to the component.
+     * </p>
+     *
+     * @param count is the number of messages that were just sent.
+     */
+    protected final void await (final long count)
+    {
+        expected += count;
+
+        while (received.get() < expected)
+        {
+            Thread.onSpinWait();
+        }
+    }
+}
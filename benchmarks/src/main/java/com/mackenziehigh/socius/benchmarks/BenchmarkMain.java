@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks.
+ *
+ * <p>
+ * Standard JMH command-line options may be passed in order to select benchmarks, etc.
+ * The allocation profiler is always enabled, so that the results include
+ * the number of bytes allocated per message (<code>gc.alloc.rate.norm</code>).
+ * </p>
+ *
+ * <p>
+ * The results are written, in JSON format, to a file named after the version
+ * of Socius under test (<code>socius-core-VERSION.json</code>), so that the results
+ * of different releases can be compared side-by-side using standard JMH tooling.
+ * </p>
+ */
+public final class BenchmarkMain
+{
+    public static void main (final String[] args)
+            throws RunnerException,
+                   CommandLineOptionException,
+                   IOException
+    {
+        final Options cli = new CommandLineOptions(args);
+
+        final Options options = new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(String.format("socius-core-%s.json", version()))
+                .build();
+
+        new Runner(options).run();
+    }
+
+    private static String version ()
+            throws IOException
+    {
+        try (InputStream in = BenchmarkMain.class.getResourceAsStream("/benchmarks.properties"))
+        {
+            final Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty("socius.version", "unknown");
+        }
+    }
+}
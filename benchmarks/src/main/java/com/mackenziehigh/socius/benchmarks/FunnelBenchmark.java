@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
+import com.mackenziehigh.socius.Funnel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks a <code>Funnel</code> that merges several inputs into one output.
+ */
+public class FunnelBenchmark
+        extends AbstractBenchmark
+{
+    /**
+     * This is the number of inputs that the messages are spread across.
+     */
+    @Param (
+            {
+                "1", "8"
+            })
+    public int width;
+
+    private final Object message = new Object();
+
+    private Input<Object>[] inputs;
+
+    @Override
+    @SuppressWarnings ("unchecked")
+    protected void setup ()
+    {
+        final Funnel<Object> funnel = Funnel.newFunnel(stage);
+        funnel.dataOut().connect(newCounter().dataIn());
+
+        inputs = new Input[width];
+
+        for (int i = 0; i < width; i++)
+        {
+            inputs[i] = funnel.dataIn(i);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.Throughput)
+    @OutputTimeUnit (TimeUnit.SECONDS)
+    @OperationsPerInvocation (BATCH)
+    public void throughput ()
+    {
+        for (int i = 0; i < BATCH; i++)
+        {
+            inputs[i % width].send(message);
+        }
+
+        await(BATCH);
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.SampleTime)
+    @OutputTimeUnit (TimeUnit.MICROSECONDS)
+    public void latency ()
+    {
+        inputs[0].send(message);
+        await(1);
+    }
+}
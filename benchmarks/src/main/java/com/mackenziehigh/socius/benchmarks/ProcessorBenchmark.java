@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.socius.Processor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Benchmarks a single identity <code>Processor</code>.
+ *
+ * <p>
+ * This is the cost of one actor hop, which is the baseline
+ * that the other component benchmarks should be compared against.
+ * </p>
+ */
+public class ProcessorBenchmark
+        extends AbstractBenchmark
+{
+    private final Object message = new Object();
+
+    private Processor<Object> processor;
+
+    @Override
+    protected void setup ()
+    {
+        processor = Processor.fromIdentityScript(stage);
+        processor.dataOut().connect(newCounter().dataIn());
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.Throughput)
+    @OutputTimeUnit (TimeUnit.SECONDS)
+    @OperationsPerInvocation (BATCH)
+    public void throughput ()
+    {
+        for (int i = 0; i < BATCH; i++)
+        {
+            processor.accept(message);
+        }
+
+        await(BATCH);
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.SampleTime)
+    @OutputTimeUnit (TimeUnit.MICROSECONDS)
+    public void latency ()
+    {
+        processor.accept(message);
+        await(1);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius.benchmarks;
+
+import com.mackenziehigh.socius.WeightBalancer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks a <code>WeightBalancer</code> spreading messages across its outputs.
+ */
+public class WeightBalancerBenchmark
+        extends AbstractBenchmark
+{
+    /**
+     * This is the number of outputs that the messages are balanced across.
+     */
+    @Param (
+            {
+                "2", "16"
+            })
+    public int arity;
+
+    private final Object message = new Object();
+
+    private WeightBalancer<Object> balancer;
+
+    @Override
+    protected void setup ()
+    {
+        balancer = WeightBalancer.newWeightBalancer(stage, arity, x -> 1);
+
+        for (int i = 0; i < arity; i++)
+        {
+            balancer.dataOut(i).connect(newCounter().dataIn());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.Throughput)
+    @OutputTimeUnit (TimeUnit.SECONDS)
+    @OperationsPerInvocation (BATCH)
+    public void throughput ()
+    {
+        for (int i = 0; i < BATCH; i++)
+        {
+            balancer.accept(message);
+        }
+
+        await(BATCH);
+    }
+
+    @Benchmark
+    @BenchmarkMode (Mode.SampleTime)
+    @OutputTimeUnit (TimeUnit.MICROSECONDS)
+    public void latency ()
+    {
+        balancer.accept(message);
+        await(1);
+    }
+}
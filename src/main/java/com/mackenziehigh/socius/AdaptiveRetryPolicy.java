@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A retry-policy whose timeouts track the observed round-trip latency.
+ *
+ * <p>
+ * The latencies are recorded in a <code>LatencyWindow</code>, which periodically
+ * recomputes the percentile over only the recent latencies, so that the timeouts
+ * follow changes in the latency, rather than being outweighed by old history.
+ * </p>
+ *
+ * <p>
+ * When an initial send times-out, the timeout itself is recorded as the latency,
+ * since the true latency is at least that long. Otherwise, the timeouts
+ * could never lengthen, when the downstream slowed down beyond the current timeout.
+ * </p>
+ */
+final class AdaptiveRetryPolicy
+        implements RetryPolicy
+{
+    private final LatencyWindow latencies;
+
+    private final double factor;
+
+    private final double multiplier;
+
+    private final long minimumNanos;
+
+    private final long maximumNanos;
+
+    /**
+     * This is the timeout of the initial send, based on the most recent percentile.
+     */
+    private volatile long baseNanos;
+
+    public AdaptiveRetryPolicy (final double percentile,
+                                final double factor,
+                                final double multiplier,
+                                final Duration initial,
+                                final Duration minimum,
+                                final Duration maximum)
+    {
+        Objects.requireNonNull(initial, "initial");
+        Objects.requireNonNull(minimum, "minimum");
+        Objects.requireNonNull(maximum, "maximum");
+
+        if (factor <= 0 || Double.isNaN(factor))
+        {
+            throw new IllegalArgumentException("factor <= 0");
+        }
+        else if (multiplier < 1 || Double.isNaN(multiplier))
+        {
+            throw new IllegalArgumentException("multiplier < 1");
+        }
+        else if (minimum.isNegative() || minimum.isZero())
+        {
+            throw new IllegalArgumentException("minimum <= 0");
+        }
+        else if (maximum.compareTo(minimum) < 0)
+        {
+            throw new IllegalArgumentException("maximum < minimum");
+        }
+
+        this.latencies = new LatencyWindow(percentile);
+        this.factor = factor;
+        this.multiplier = multiplier;
+        this.minimumNanos = minimum.toNanos();
+        this.maximumNanos = maximum.toNanos();
+        this.baseNanos = clamp(initial.toNanos());
+    }
+
+    @Override
+    public Duration timeout (final int attempt)
+    {
+        return Duration.ofNanos(backoff(baseNanos, multiplier, attempt, maximumNanos));
+    }
+
+    @Override
+    public void onRoundTrip (final long latencyNanos)
+    {
+        record(latencyNanos);
+    }
+
+    @Override
+    public void onTimeout (final long timeoutNanos)
+    {
+        record(timeoutNanos);
+    }
+
+    private void record (final long latencyNanos)
+    {
+        if (latencies.record(latencyNanos))
+        {
+            final long observed = latencies.percentileNanos();
+            baseNanos = clamp((long) Math.min(Long.MAX_VALUE, observed * factor));
+        }
+    }
+
+    private long clamp (final long nanos)
+    {
+        return Math.max(minimumNanos, Math.min(maximumNanos, nanos));
+    }
+
+    /**
+     * Compute an exponentially increasing timeout.
+     *
+     * @param initialNanos is the timeout of the initial send.
+     * @param multiplier is how much the timeout increases after each retry.
+     * @param attempt is one for the initial send, two for the first retry, etc.
+     * @param maximumNanos is the longest that the timeout can be.
+     * @return the timeout of the given attempt in nanoseconds.
+     */
+    static long backoff (final long initialNanos,
+                         final double multiplier,
+                         final int attempt,
+                         final long maximumNanos)
+    {
+        final double nanos = initialNanos * Math.pow(multiplier, Math.max(0, attempt - 1));
+        return nanos >= maximumNanos ? maximumNanos : Math.max(1, (long) nanos);
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * Groups incoming messages into batches.
+ *
+ * <p>
+ * A batch is sent, when any of the following conditions is met:
+ * (1) the batch contains the maximum number of messages,
+ * (2) the total weight of the messages in the batch reaches the maximum weight,
+ * (3) the oldest message in the batch has lingered for the maximum duration.
+ * The messages in each batch are in the order that they were received.
+ * </p>
+ *
+ * <p>
+ * The batches are mutable lists, which can be recycled, once they are no
+ * longer needed, by sending them to the recycle-input, which avoids allocating
+ * a new list for every batch. For example, connect the recycle-output
+ * of an <code>Unbatcher</code> to the recycle-input of the batcher.
+ * Once recycled, a batch must no longer be used by the sender thereof.
+ * </p>
+ *
+ * @param <T> is the type of the messages being batched.
+ */
+public final class Batcher<T>
+        implements Pipeline<T, List<T>>
+{
+    /**
+     * This message is sent to the engine, whenever the linger-timer expires.
+     */
+    private static final Object FLUSH = new Object();
+
+    /**
+     * This actor handles both the incoming messages and the linger-timer,
+     * which is why the type of this actor is not simply the type of the messages.
+     */
+    private final Processor<Object> engine;
+
+    /**
+     * Provides the data-output connector.
+     */
+    private final Processor<List<T>> dataOut;
+
+    /**
+     * Provides the recycle-input connector.
+     */
+    private final Processor<List<T>> recycleIn;
+
+    /**
+     * These are recycled batches that are available for reuse.
+     * The recycle-input actor is the only producer.
+     * The engine is the only consumer.
+     */
+    private final RingBuffer<List<T>> pool;
+
+    /**
+     * This is the maximum number of messages per batch.
+     */
+    private final int maxSize;
+
+    /**
+     * This is the maximum total weight of the messages in a batch.
+     */
+    private final long maxWeight;
+
+    /**
+     * This function determines the weight of each incoming message, if any.
+     */
+    private final ToIntFunction<T> scale;
+
+    /**
+     * This is the maximum duration that a message can wait in a batch,
+     * or zero, if messages can wait indefinitely.
+     */
+    private final long maxLingerNanos;
+
+    /**
+     * This object is used to schedule the linger-timer.
+     */
+    private final DelayedSender delayedSender;
+
+    /**
+     * This is the batch that is currently being filled, if any.
+     * This field is only accessed by the engine.
+     */
+    private List<T> batch;
+
+    /**
+     * This is the total weight of the messages in the current batch.
+     * This field is only accessed by the engine.
+     */
+    private long weight;
+
+    /**
+     * This is when the first message in the current batch was received.
+     * This field is only accessed by the engine.
+     */
+    private long firstNanos;
+
+    /**
+     * This flag is true, while the linger-timer is scheduled.
+     * At most one linger-timer is ever scheduled at a time.
+     * This field is only accessed by the engine.
+     */
+    private boolean lingering = false;
+
+    private Batcher (final Builder<T> builder)
+    {
+        this.engine = Processor.fromConsumerScript(builder.stage, this::onMessage);
+        this.dataOut = Processor.fromIdentityScript(builder.stage);
+        this.recycleIn = Processor.fromConsumerScript(builder.stage, this::onRecycle);
+        this.pool = new RingBuffer<>(builder.poolSize);
+        this.maxSize = builder.maxSize;
+        this.maxWeight = builder.maxWeight;
+        this.scale = builder.scale;
+        this.maxLingerNanos = builder.maxLinger == null ? 0 : builder.maxLinger.toNanos();
+        this.delayedSender = builder.delayedSender != null ? builder.delayedSender : DelayedSender.newDelayedSender();
+    }
+
+    @SuppressWarnings ("unchecked")
+    private void onMessage (final Object message)
+    {
+        if (message == FLUSH)
+        {
+            onLingerExpired();
+            return;
+        }
+
+        if (batch == null)
+        {
+            batch = acquire();
+        }
+
+        if (batch.isEmpty() && maxLingerNanos > 0)
+        {
+            firstNanos = System.nanoTime();
+
+            if (lingering == false)
+            {
+                lingering = true;
+                delayedSender.send(engine.dataIn(), FLUSH, Duration.ofNanos(maxLingerNanos));
+            }
+        }
+
+        final T item = (T) message;
+        batch.add(item);
+        weight += scale == null ? 0 : scale.applyAsInt(item);
+
+        if (batch.size() >= maxSize || weight >= maxWeight)
+        {
+            flush();
+        }
+    }
+
+    private void onLingerExpired ()
+    {
+        lingering = false;
+
+        if (batch == null || batch.isEmpty())
+        {
+            /**
+             * The batch was already sent, due to reaching its maximum size or weight,
+             * and no messages have arrived since then.
+             */
+            return;
+        }
+
+        /**
+         * Rather than cancelling the linger-timer, whenever a batch is sent early,
+         * the timer simply expires and then is rescheduled based on the first
+         * message in the current batch. Thus, at most one timer is pending,
+         * and a stale timer can never cause a batch to be sent too early.
+         */
+        final long elapsed = System.nanoTime() - firstNanos;
+
+        if (elapsed >= maxLingerNanos)
+        {
+            flush();
+        }
+        else
+        {
+            lingering = true;
+            delayedSender.send(engine.dataIn(), FLUSH, Duration.ofNanos(maxLingerNanos - elapsed));
+        }
+    }
+
+    private void flush ()
+    {
+        final List<T> full = batch;
+        batch = null;
+        weight = 0;
+        dataOut.accept(full);
+    }
+
+    private List<T> acquire ()
+    {
+        final List<T> recycled = pool.poll();
+        return recycled != null ? recycled : new ArrayList<>(Math.min(maxSize, 1024));
+    }
+
+    private void onRecycle (final List<T> message)
+    {
+        /**
+         * Only lists that are known to be mutable can be reused.
+         * If the pool is full, then the list will simply be garbage-collected.
+         */
+        if (message instanceof ArrayList)
+        {
+            message.clear();
+            pool.offer(message);
+        }
+    }
+
+    /**
+     * Get the number of recycled batches that are available for reuse.
+     *
+     * @return the number of pooled batches.
+     */
+    public int pooledBatchCount ()
+    {
+        return pool.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings ("unchecked")
+    public Input<T> dataIn ()
+    {
+        return (Input<T>) (Input) engine.dataIn();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Output<List<T>> dataOut ()
+    {
+        return dataOut.dataOut();
+    }
+
+    /**
+     * Send batches, which are no longer needed, to this input,
+     * so that they can be reused, rather than allocating new batches.
+     *
+     * @return the recycle-input.
+     */
+    public Input<List<T>> recycleIn ()
+    {
+        return recycleIn.dataIn();
+    }
+
+    /**
+     * Factory Method.
+     *
+     * @param <T> is the type of the messages being batched.
+     * @param stage will be used to create private actors.
+     * @return a new builder that can build the desired object.
+     */
+    public static <T> Builder<T> newBatcher (final Stage stage)
+    {
+        return new Builder<>(stage);
+    }
+
+    /**
+     * Builder.
+     *
+     * @param <T> is the type of the messages being batched.
+     */
+    public static final class Builder<T>
+    {
+        private final Stage stage;
+
+        private int maxSize = Integer.MAX_VALUE;
+
+        private long maxWeight = Long.MAX_VALUE;
+
+        private ToIntFunction<T> scale;
+
+        private Duration maxLinger;
+
+        private int poolSize = 16;
+
+        private DelayedSender delayedSender;
+
+        private Builder (final Stage stage)
+        {
+            this.stage = Objects.requireNonNull(stage, "stage");
+        }
+
+        /**
+         * Specify the maximum number of messages per batch.
+         *
+         * @param limit is the maximum size of a batch.
+         * @return this.
+         */
+        public Builder<T> withMaxSize (final int limit)
+        {
+            if (limit < 1)
+            {
+                throw new IllegalArgumentException("limit < 1");
+            }
+            else
+            {
+                this.maxSize = limit;
+                return this;
+            }
+        }
+
+        /**
+         * Specify the maximum total weight of the messages in a batch.
+         *
+         * <p>
+         * A batch is sent, once its weight reaches or exceeds the limit.
+         * For example, the weight of a message may be its size in bytes.
+         * </p>
+         *
+         * @param limit is the maximum weight of a batch.
+         * @param scale assigns weights to each of the incoming messages.
+         * @return this.
+         */
+        public Builder<T> withMaxWeight (final long limit,
+                                         final ToIntFunction<T> scale)
+        {
+            if (limit < 1)
+            {
+                throw new IllegalArgumentException("limit < 1");
+            }
+            else
+            {
+                this.maxWeight = limit;
+                this.scale = Objects.requireNonNull(scale, "scale");
+                return this;
+            }
+        }
+
+        /**
+         * Specify the maximum duration that a message can wait in a batch,
+         * before the batch is sent, even if the batch is not full.
+         *
+         * @param limit is the maximum linger time.
+         * @return this.
+         */
+        public Builder<T> withMaxLinger (final Duration limit)
+        {
+            Objects.requireNonNull(limit, "limit");
+
+            if (limit.isNegative() || limit.isZero())
+            {
+                throw new IllegalArgumentException("limit <= 0");
+            }
+            else
+            {
+                this.maxLinger = limit;
+                return this;
+            }
+        }
+
+        /**
+         * Specify the maximum number of recycled batches to retain for reuse.
+         *
+         * @param limit is the minimum capacity of the pool,
+         * which will be rounded up to the next power-of-two.
+         * @return this.
+         */
+        public Builder<T> withPoolSize (final int limit)
+        {
+            if (limit < 1)
+            {
+                throw new IllegalArgumentException("limit < 1");
+            }
+            else
+            {
+                this.poolSize = limit;
+                return this;
+            }
+        }
+
+        /**
+         * Provide the object that will be used to schedule the linger-timer.
+         *
+         * @param sender will be used to generate callbacks.
+         * @return this.
+         */
+        public Builder<T> withDelayedSender (final DelayedSender sender)
+        {
+            this.delayedSender = Objects.requireNonNull(sender, "sender");
+            return this;
+        }
+
+        /**
+         * Build.
+         *
+         * @return the new object.
+         * @throws IllegalStateException if no maximum size, weight, or linger was specified.
+         */
+        public Batcher<T> build ()
+        {
+            if (maxSize == Integer.MAX_VALUE && scale == null && maxLinger == null)
+            {
+                throw new IllegalStateException("No Flush Condition");
+            }
+
+            return new Batcher<>(this);
+        }
+    }
+}
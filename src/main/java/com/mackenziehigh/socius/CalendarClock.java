@@ -0,0 +1,379 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A clock that sends ticks at the times specified by a cron-like calendar schedule.
+ *
+ * <p>
+ * The schedule consists of five fields, namely
+ * (minute, hour, day-of-month, month, day-of-week).
+ * For example, <code>"*&#47;15 9-17 * * 1-5"</code> ticks every
+ * fifteen minutes during business hours on weekdays.
+ * Each tick is the exact scheduled time, which is always at the top of a minute.
+ * </p>
+ *
+ * <p>
+ * A calendar clock does not have a thread of its own. Rather, each tick is scheduled,
+ * as a one-shot task, on a shared executor, which is the default-executor,
+ * unless another executor is specified. Thus, any number of
+ * calendar clocks can share the same executor.
+ * If the executor wakes the clock slightly early, due to the
+ * wall-clock being adjusted, then the clock simply goes back to sleep.
+ * </p>
+ */
+public final class CalendarClock
+        implements Source<Instant>
+{
+    /**
+     * Effectively, this is the clock (time source) itself.
+     */
+    private final ScheduledExecutorService service;
+
+    /**
+     * This decides when the ticks occur.
+     */
+    private final CronSchedule schedule;
+
+    /**
+     * This is the time-zone that the schedule is interpreted in.
+     */
+    private final ZoneId zone;
+
+    /**
+     * This flag will become true, when start() is called.
+     */
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * This flag will become true, when stop() is called.
+     */
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    /**
+     * This is the number of clock ticks that have been transmitted.
+     */
+    private final AtomicLong tickCount = new AtomicLong();
+
+    /**
+     * This actor provides the output connector.
+     */
+    private final Processor<Instant> procClockOut;
+
+    /**
+     * This lock protects the start() and stop() methods and rescheduling.
+     * This lock never blocks the actors themselves.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * This is when the clock is scheduled to tick next.
+     */
+    private volatile Instant time;
+
+    /**
+     * This is the scheduled task that will send the next tick, if any.
+     */
+    private volatile Future<?> future;
+
+    private CalendarClock (final Builder builder)
+    {
+        this.schedule = builder.schedule;
+        this.zone = builder.zone;
+        this.service = builder.service != null ? builder.service : DefaultExecutor.instance().service();
+        this.procClockOut = Processor.fromIdentityScript(builder.stage);
+    }
+
+    /**
+     * Get the schedule that decides when this clock ticks.
+     *
+     * @return the textual schedule.
+     */
+    public String schedule ()
+    {
+        return schedule.toString();
+    }
+
+    /**
+     * Get the time-zone that the schedule is interpreted in.
+     *
+     * @return the time-zone.
+     */
+    public ZoneId zone ()
+    {
+        return zone;
+    }
+
+    /**
+     * Get the number of ticks that have been transmitted.
+     *
+     * @return the number of ticks, thus far.
+     */
+    public long tickCount ()
+    {
+        return tickCount.get();
+    }
+
+    /**
+     * Determine whether this clock is using the default executor.
+     *
+     * @return true, if this clock is using the default executor.
+     */
+    public boolean isUsingDefaultExecutor ()
+    {
+        return service.equals(DefaultExecutor.instance().service());
+    }
+
+    /**
+     * Determine whether this clock is sending ticks.
+     *
+     * @return true, if the clock was started, but not yet stopped.
+     */
+    public boolean isTicking ()
+    {
+        return future != null;
+    }
+
+    /**
+     * Get the next time that the clock is scheduled to tick.
+     *
+     * <p>
+     * Empty is returned, if the clock is not running.
+     * </p>
+     *
+     * @return the upcoming tick.
+     */
+    public Optional<Instant> scheduledTick ()
+    {
+        return Optional.ofNullable(time);
+    }
+
+    /**
+     * Compute when the clock would tick next, after the given time.
+     *
+     * @param after is the time to search from.
+     * @return the first tick strictly after the given time.
+     */
+    public Instant nextTickAfter (final Instant after)
+    {
+        Objects.requireNonNull(after, "after");
+        return schedule.next(after.atZone(zone)).toInstant();
+    }
+
+    /**
+     * This output will transmit ticks from the clock.
+     *
+     * @return the clock output.
+     */
+    @Override
+    public Output<Instant> dataOut ()
+    {
+        return procClockOut.dataOut();
+    }
+
+    /**
+     * Call this method to cause the clock to start ticking.
+     *
+     * <p>
+     * This method is a no-op, if the clock was already started.
+     * </p>
+     *
+     * @return this.
+     */
+    public CalendarClock start ()
+    {
+        synchronized (lock)
+        {
+            if (started.compareAndSet(false, true))
+            {
+                schedule(nextTickAfter(Instant.now()));
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Schedule the next tick, unless the clock was stopped.
+     * The caller must hold the lock.
+     */
+    private void schedule (final Instant next)
+    {
+        if (stopped.get() == false)
+        {
+            time = next;
+            final long delay = Math.max(0, Duration.between(Instant.now(), next).toNanos());
+            future = service.schedule(this::onWake, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void onWake ()
+    {
+        synchronized (lock)
+        {
+            final Instant scheduled = time;
+
+            if (stopped.get() || scheduled == null)
+            {
+                return;
+            }
+            else if (Instant.now().isBefore(scheduled))
+            {
+                /**
+                 * The executor measures delays using a monotonic clock,
+                 * whereas the schedule is based on the wall-clock,
+                 * which may have been adjusted in the meantime.
+                 */
+                schedule(scheduled);
+            }
+            else
+            {
+                tickCount.incrementAndGet();
+                procClockOut.accept(scheduled);
+
+                /**
+                 * If the wall-clock jumped forward, or the system was suspended,
+                 * then skip the ticks that were missed in the meantime,
+                 * rather than sending them all at once, per cron convention.
+                 */
+                final Instant now = Instant.now();
+                schedule(nextTickAfter(now.isAfter(scheduled) ? now : scheduled));
+            }
+        }
+    }
+
+    /**
+     * Call this method to cause the clock to stop ticking.
+     *
+     * <p>
+     * This method is a no-op, if the clock was already stopped.
+     * </p>
+     *
+     * @return this.
+     */
+    public CalendarClock stop ()
+    {
+        synchronized (lock)
+        {
+            if (stopped.compareAndSet(false, true) && future != null)
+            {
+                final boolean interrupt = false;
+                future.cancel(interrupt);
+            }
+
+            future = null;
+            time = null;
+        }
+
+        return this;
+    }
+
+    /**
+     * Factory Method.
+     *
+     * @param stage will be used to create private actors.
+     * @return a builder that can be used to create a clock.
+     */
+    public static Builder newCalendarClock (final Stage stage)
+    {
+        return new Builder(stage);
+    }
+
+    /**
+     * Builder.
+     */
+    public static final class Builder
+    {
+        private final Stage stage;
+
+        private CronSchedule schedule;
+
+        private ZoneId zone = ZoneOffset.UTC;
+
+        private ScheduledExecutorService service;
+
+        private Builder (final Stage stage)
+        {
+            this.stage = Objects.requireNonNull(stage, "stage");
+        }
+
+        /**
+         * Specify when the clock ticks.
+         *
+         * @param expression is a cron-like schedule.
+         * @return this.
+         * @throws IllegalArgumentException if the schedule is malformed.
+         */
+        public Builder withSchedule (final String expression)
+        {
+            this.schedule = CronSchedule.parse(expression);
+            return this;
+        }
+
+        /**
+         * Specify the time-zone that the schedule is interpreted in.
+         *
+         * <p>
+         * By default, the schedule is interpreted in UTC.
+         * </p>
+         *
+         * @param zone is the time-zone of the schedule.
+         * @return this.
+         */
+        public Builder withZone (final ZoneId zone)
+        {
+            this.zone = Objects.requireNonNull(zone, "zone");
+            return this;
+        }
+
+        /**
+         * Specify the executor that powers the clock.
+         *
+         * @param service will power the clock.
+         * @return this.
+         */
+        public Builder poweredBy (final ScheduledExecutorService service)
+        {
+            this.service = Objects.requireNonNull(service, "service");
+            return this;
+        }
+
+        /**
+         * Build the clock.
+         *
+         * @return the new clock.
+         */
+        public CalendarClock build ()
+        {
+            Objects.requireNonNull(schedule, "schedule");
+            return new CalendarClock(this);
+        }
+    }
+}
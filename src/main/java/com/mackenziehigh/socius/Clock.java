@@ -37,10 +37,142 @@ import java.util.concurrent.atomic.AtomicLong;
  * For a more in-depth discussion of fixed-rate versus fixed-delay,
  * see the documentation for the <code>ScheduledExecutorService</code> itself.
  * </p>
+ *
+ * <p>
+ * By default, if ticks are missed, due to the executor being busy
+ * or due to a garbage-collection pause, then all of the missed ticks
+ * are sent in a burst, as soon as possible, per the executor.
+ * At high frequencies, such a burst can flood the downstream actors.
+ * Alternatively, a missed-tick policy can be specified, in which case the clock
+ * schedules each tick individually, based on a monotonic time source.
+ * Each tick is scheduled relative to when the clock started,
+ * rather than relative to the previous tick; therefore, lateness does not accumulate (drift).
+ * The tick-output then provides (Tick) objects, which carry the monotonic time
+ * and the number of missed ticks, if any, without reading the wall-clock.
+ * </p>
+ *
+ * <p>
+ * <b>Performance Note:</b> When a missed-tick policy is specified, each tick is
+ * only sent to the outputs that have been obtained, via <code>dataOut()</code>
+ * or <code>tickOut()</code>, since an output that was never obtained
+ * cannot be connected to anything. Thus, a clock whose only consumer
+ * uses the tick-output allocates one (Tick) and performs one send per tick,
+ * rather than also allocating an (Instant) and performing a second send.
+ * </p>
+ *
+ * <p>
+ * Alternatively, a clock can be powered by a <code>TickScheduler</code>,
+ * in which case all of the clocks that have the same period share a single periodic task.
+ * </p>
  */
 public final class Clock
         implements Source<Instant>
 {
+    /**
+     * Specifies what happens to ticks that were missed,
+     * because the clock could not send them on time.
+     */
+    public enum MissedTickPolicy
+    {
+        /**
+         * Send a single tick, which carries the number of missed ticks.
+         */
+        COALESCE,
+
+        /**
+         * Send a single tick and discard the missed ticks.
+         */
+        SKIP,
+
+        /**
+         * Send the missed ticks in a burst, up to the maximum burst size,
+         * and discard any missed ticks beyond that.
+         */
+        CATCH_UP
+    }
+
+    /**
+     * A single tick of a clock.
+     */
+    public static final class Tick
+    {
+        private final long sequenceNumber;
+
+        private final long scheduledNanos;
+
+        private final long nanoTime;
+
+        private final long missed;
+
+        private Tick (final long sequenceNumber,
+                      final long scheduledNanos,
+                      final long nanoTime,
+                      final long missed)
+        {
+            this.sequenceNumber = sequenceNumber;
+            this.scheduledNanos = scheduledNanos;
+            this.nanoTime = nanoTime;
+            this.missed = missed;
+        }
+
+        /**
+         * Get the index of this tick in the schedule of the clock,
+         * which starts at zero and increases by one per period.
+         *
+         * <p>
+         * Sequence numbers are skipped, when ticks are missed.
+         * </p>
+         *
+         * @return the sequence-number of this tick.
+         */
+        public long sequenceNumber ()
+        {
+            return sequenceNumber;
+        }
+
+        /**
+         * Get the time at which this tick was scheduled to occur,
+         * per <code>System.nanoTime()</code>.
+         *
+         * @return the scheduled monotonic time.
+         */
+        public long scheduledNanos ()
+        {
+            return scheduledNanos;
+        }
+
+        /**
+         * Get the time at which this tick actually occurred,
+         * per <code>System.nanoTime()</code>.
+         *
+         * @return the actual monotonic time.
+         */
+        public long nanoTime ()
+        {
+            return nanoTime;
+        }
+
+        /**
+         * Get the number of ticks that were missed immediately before this tick,
+         * if the missed-tick policy is <code>COALESCE</code>.
+         *
+         * @return the number of ticks that this tick stands in for, minus one.
+         */
+        public long missed ()
+        {
+            return missed;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString ()
+        {
+            return String.format("Tick(%d, missed = %d)", sequenceNumber, missed);
+        }
+    }
+
     /**
      * Effectively, this is the clock (time source) itself.
      */
@@ -71,11 +203,63 @@ public final class Clock
      */
     private final AtomicLong tickCount = new AtomicLong();
 
+    /**
+     * This is the number of ticks that were discarded, or coalesced, because they were missed.
+     */
+    private final AtomicLong missedTickCount = new AtomicLong();
+
     /**
      * This actor provides the output connector.
      */
     private final Processor<Instant> procClockOut;
 
+    /**
+     * This actor provides the tick-output connector.
+     */
+    private final Processor<Tick> procTickOut;
+
+    /**
+     * This flag will become true, when dataOut() is called,
+     * since the output cannot be connected until then.
+     */
+    private volatile boolean sendingInstants = false;
+
+    /**
+     * This flag will become true, when tickOut() is called,
+     * since the output cannot be connected until then.
+     */
+    private volatile boolean sendingTicks = false;
+
+    /**
+     * This is what happens to missed ticks, or null, if the ticks
+     * are simply scheduled at a fixed-rate by the executor.
+     */
+    private final MissedTickPolicy policy;
+
+    /**
+     * This is the maximum number of ticks to send at once,
+     * if the missed-tick policy is <code>CATCH_UP</code>.
+     */
+    private final int maxBurst;
+
+    /**
+     * This is when the first tick is scheduled, per <code>System.nanoTime()</code>.
+     */
+    private volatile long originNanos;
+
+    /**
+     * This is the wall-clock time corresponding to the origin,
+     * which is read once, when the clock starts.
+     */
+    private volatile Instant originInstant;
+
+    /**
+     * This is the sequence-number of the next tick to send.
+     * This field is only accessed by the scheduled task,
+     * each run of which happens-before the next run.
+     */
+    private long nextSequenceNumber = 0;
+
     /**
      * This lock protects the start() and stop() methods.
      * This lock never blocks the actors themselves.
@@ -87,13 +271,36 @@ public final class Clock
      */
     private volatile Future<?> future;
 
+    /**
+     * This is the shared scheduler that powers this clock, if any.
+     */
+    private final TickScheduler scheduler;
+
+    /**
+     * This is the subscription to the shared scheduler, while ticking, if any.
+     */
+    private volatile TickScheduler.Subscription subscription;
+
     private Clock (final Builder builder)
     {
         this.delay = builder.delay;
         this.period = builder.period;
-        this.service = builder.service != null ? builder.service : DefaultExecutor.instance().service();
+        this.scheduler = builder.scheduler;
+
+        if (scheduler != null)
+        {
+            this.service = scheduler.service();
+        }
+        else
+        {
+            this.service = builder.service != null ? builder.service : DefaultExecutor.instance().service();
+        }
+
         final Stage stage = Cascade.newStage(service);
         this.procClockOut = Processor.fromIdentityScript(stage);
+        this.procTickOut = Processor.fromIdentityScript(stage);
+        this.policy = builder.policy;
+        this.maxBurst = builder.maxBurst;
     }
 
     /**
@@ -126,6 +333,26 @@ public final class Clock
         return tickCount.get();
     }
 
+    /**
+     * Get the number of ticks that were not sent, because they were missed.
+     *
+     * @return the number of missed ticks, thus far.
+     */
+    public long missedTickCount ()
+    {
+        return missedTickCount.get();
+    }
+
+    /**
+     * Get the missed-tick policy of this clock, if any.
+     *
+     * @return the policy, or null, if missed ticks are sent in an unbounded burst.
+     */
+    public MissedTickPolicy missedTickPolicy ()
+    {
+        return policy;
+    }
+
     /**
      * Determine whether this clock is using the default executor.
      *
@@ -143,7 +370,17 @@ public final class Clock
      */
     public boolean isTicking ()
     {
-        return future != null;
+        return future != null || subscription != null;
+    }
+
+    /**
+     * Determine whether this clock is powered by a shared tick-scheduler.
+     *
+     * @return true, if the clock shares a periodic task with other clocks.
+     */
+    public boolean isUsingTickScheduler ()
+    {
+        return scheduler != null;
     }
 
     /**
@@ -154,9 +391,33 @@ public final class Clock
     @Override
     public Output<Instant> dataOut ()
     {
+        sendingInstants = true;
         return procClockOut.dataOut();
     }
 
+    /**
+     * This output will transmit ticks, which carry monotonic times, from the clock.
+     *
+     * <p>
+     * This output is only available, if a missed-tick policy was specified.
+     * If this is the only output that is used, then this output is cheaper
+     * than <code>dataOut()</code>, since the wall-clock is never read.
+     * </p>
+     *
+     * @return the tick output.
+     * @throws IllegalStateException if no missed-tick policy was specified.
+     */
+    public Output<Tick> tickOut ()
+    {
+        if (policy == null)
+        {
+            throw new IllegalStateException("no missed-tick policy");
+        }
+
+        sendingTicks = true;
+        return procTickOut.dataOut();
+    }
+
     /**
      * Call this method to cause the clock to start ticking.
      *
@@ -170,13 +431,27 @@ public final class Clock
     {
         synchronized (lock)
         {
-            if (started.compareAndSet(false, true))
+            if (started.compareAndSet(false, true) == false)
+            {
+                return this;
+            }
+            else if (scheduler != null)
+            {
+                subscription = scheduler.subscribe(period, delay, this::onSharedTick);
+            }
+            else if (policy == null)
             {
                 future = service.scheduleAtFixedRate(this::onTick,
                                                      delay.toNanos(),
                                                      period.toNanos(),
                                                      TimeUnit.NANOSECONDS);
             }
+            else
+            {
+                originInstant = Instant.now().plus(delay);
+                originNanos = System.nanoTime() + delay.toNanos();
+                future = service.schedule(this::onWake, delay.toNanos(), TimeUnit.NANOSECONDS);
+            }
         }
 
         return this;
@@ -188,6 +463,112 @@ public final class Clock
         procClockOut.dataIn().send(Instant.now());
     }
 
+    private void onSharedTick (final Instant time)
+    {
+        tickCount.incrementAndGet();
+        procClockOut.accept(time);
+    }
+
+    private void onWake ()
+    {
+        if (stopped.get())
+        {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        advance(now);
+
+        /**
+         * Schedule the next tick relative to the origin, rather than relative to now,
+         * so that the lateness of this tick does not delay all of the following ticks.
+         */
+        final long delayNanos = Math.max(0, scheduledNanos(nextSequenceNumber) - now);
+
+        synchronized (lock)
+        {
+            if (stopped.get() == false)
+            {
+                future = service.schedule(this::onWake, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Send the ticks that are due at the given time, per the missed-tick policy.
+     *
+     * @param now is the current monotonic time.
+     */
+    void advance (final long now)
+    {
+        final long periodNanos = Math.max(1, period.toNanos());
+        final long elapsed = now - originNanos;
+
+        /**
+         * This is the number of ticks that should have been sent by now.
+         */
+        final long due = elapsed < 0 ? 0 : elapsed / periodNanos + 1;
+        final long pending = due - nextSequenceNumber;
+
+        if (pending <= 0)
+        {
+            return;
+        }
+
+        final long missed = pending - 1;
+
+        if (policy == MissedTickPolicy.CATCH_UP)
+        {
+            final long burst = Math.min(pending, maxBurst);
+            final long skipped = pending - burst;
+            missedTickCount.addAndGet(skipped);
+            nextSequenceNumber += skipped;
+
+            for (long i = 0; i < burst; i++)
+            {
+                sendTick(nextSequenceNumber++, now, 0);
+            }
+        }
+        else
+        {
+            missedTickCount.addAndGet(missed);
+            nextSequenceNumber = due;
+            sendTick(due - 1, now, policy == MissedTickPolicy.COALESCE ? missed : 0);
+        }
+    }
+
+    private void sendTick (final long sequenceNumber,
+                           final long now,
+                           final long missed)
+    {
+        tickCount.incrementAndGet();
+
+        if (sendingTicks)
+        {
+            procTickOut.accept(new Tick(sequenceNumber, scheduledNanos(sequenceNumber), now, missed));
+        }
+
+        if (sendingInstants)
+        {
+            procClockOut.accept(originInstant.plusNanos(now - originNanos));
+        }
+    }
+
+    private long scheduledNanos (final long sequenceNumber)
+    {
+        return originNanos + sequenceNumber * period.toNanos();
+    }
+
+    /**
+     * Get the monotonic time at which the first tick is scheduled.
+     *
+     * @return the origin of the schedule.
+     */
+    long originNanos ()
+    {
+        return originNanos;
+    }
+
     /**
      * Call this method to cause the clock to stop ticking.
      *
@@ -205,7 +586,12 @@ public final class Clock
             {
                 throw new IllegalStateException("Not Started Yet");
             }
-            else if (stopped.compareAndSet(false, true))
+            else if (stopped.compareAndSet(false, true) && subscription != null)
+            {
+                subscription.cancel();
+                subscription = null;
+            }
+            else if (stopped.get() && future != null)
             {
                 final boolean interrupt = false;
                 future.cancel(interrupt);
@@ -238,6 +624,12 @@ public final class Clock
 
         private Duration period = Duration.ofSeconds(1);
 
+        private MissedTickPolicy policy;
+
+        private int maxBurst = Integer.MAX_VALUE;
+
+        private TickScheduler scheduler;
+
         private Builder ()
         {
             // Pass.
@@ -267,6 +659,43 @@ public final class Clock
             return this;
         }
 
+        /**
+         * Specify what happens to ticks that were missed.
+         *
+         * <p>
+         * By default, missed ticks are sent in an unbounded burst.
+         * </p>
+         *
+         * @param policy decides what happens to missed ticks.
+         * @return this.
+         */
+        public Builder withMissedTickPolicy (final MissedTickPolicy policy)
+        {
+            this.policy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+
+        /**
+         * Specify the maximum number of ticks to send at once, when catching up,
+         * which also sets the missed-tick policy to <code>CATCH_UP</code>.
+         *
+         * @param limit is the maximum burst size.
+         * @return this.
+         */
+        public Builder withMaxBurst (final int limit)
+        {
+            if (limit < 1)
+            {
+                throw new IllegalArgumentException("limit < 1");
+            }
+            else
+            {
+                this.policy = MissedTickPolicy.CATCH_UP;
+                this.maxBurst = limit;
+                return this;
+            }
+        }
+
         /**
          * Specify the executor that powers the clock.
          *
@@ -279,13 +708,39 @@ public final class Clock
             return this;
         }
 
+        /**
+         * Specify the shared scheduler that powers the clock,
+         * which overrides any executor specified via <code>poweredBy()</code>.
+         *
+         * <p>
+         * The first tick is sent once the initial delay has elapsed, as usual.
+         * However, subsequent ticks are aligned with the periodic task that
+         * the clock shares with other clocks; therefore, the interval between
+         * the first and second tick may be shorter than one period.
+         * </p>
+         *
+         * @param scheduler will power the clock.
+         * @return this.
+         */
+        public Builder poweredBy (final TickScheduler scheduler)
+        {
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+            return this;
+        }
+
         /**
          * Build the clock.
          *
          * @return the new clock.
+         * @throws IllegalStateException if both a missed-tick policy and a tick-scheduler were specified.
          */
         public Clock build ()
         {
+            if (policy != null && scheduler != null)
+            {
+                throw new IllegalStateException("Missed Tick Policy Requires Executor");
+            }
+
             return new Clock(this);
         }
     }
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A sink that stores incoming messages in a bounded buffer,
+ * from which the messages can be retrieved by other threads.
+ *
+ * <p>
+ * The buffer is a lock-free ring buffer, which is allocated once, upon construction.
+ * Thus, neither storing nor retrieving messages requires locking or allocation.
+ * Messages are retrieved in the order that they were received.
+ * </p>
+ *
+ * <p>
+ * When the buffer is full, the overflow-policy determines what happens.
+ * Any messages that are dropped will be forwarded to the dropped-output.
+ * </p>
+ *
+ * @param <T> is the type of the incoming messages.
+ */
+public final class CollectionSink<T>
+        implements Sink<T>
+{
+    /**
+     * Specifies what happens, when a message arrives and the buffer is full.
+     */
+    public enum OverflowPolicy
+    {
+        /**
+         * Remove the oldest message from the buffer in order to make room.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Drop the incoming message.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Block the thread that is powering the sink,
+         * until a consumer removes a message from the buffer.
+         */
+        BLOCK
+    }
+
+    /**
+     * This is the maximum amount of time that a blocked producer
+     * will wait, before checking whether the buffer still is full.
+     */
+    private static final long BLOCK_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Provides the data-input connector.
+     */
+    private final Processor<T> dataIn;
+
+    /**
+     * Provides the dropped-output connector.
+     */
+    private final Processor<T> droppedOut;
+
+    /**
+     * This is where the messages are stored.
+     * The data-input actor is the only producer.
+     */
+    private final RingBuffer<T> buffer;
+
+    private final OverflowPolicy policy;
+
+    /**
+     * This is the thread that is currently blocked waiting
+     * for room in the buffer, if any.
+     */
+    private volatile Thread blockedProducer;
+
+    private CollectionSink (final Builder<T> builder)
+    {
+        this.dataIn = Processor.fromConsumerScript(builder.stage, this::onMessage);
+        this.droppedOut = Processor.fromIdentityScript(builder.stage);
+        this.buffer = new RingBuffer<>(builder.capacity);
+        this.policy = builder.policy;
+    }
+
+    private void onMessage (final T message)
+    {
+        if (buffer.offer(message))
+        {
+            return;
+        }
+        else if (policy == OverflowPolicy.DROP_NEWEST)
+        {
+            droppedOut.accept(message);
+        }
+        else if (policy == OverflowPolicy.DROP_OLDEST)
+        {
+            final T evicted = buffer.overwrite(message);
+
+            if (evicted != null)
+            {
+                droppedOut.accept(evicted);
+            }
+        }
+        else
+        {
+            block(message);
+        }
+    }
+
+    private void block (final T message)
+    {
+        /**
+         * The producer registers itself before re-checking the buffer,
+         * so that a consumer, which removes a message after the re-check,
+         * will see the registration and wake the producer. The wait is bounded,
+         * regardless, so a missed wake-up only delays the producer briefly.
+         */
+        blockedProducer = Thread.currentThread();
+
+        try
+        {
+            while (buffer.offer(message) == false)
+            {
+                LockSupport.parkNanos(this, BLOCK_PERIOD_NANOS);
+            }
+        }
+        finally
+        {
+            blockedProducer = null;
+        }
+    }
+
+    private void wakeProducer ()
+    {
+        final Thread producer = blockedProducer;
+
+        if (producer != null)
+        {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Input<T> dataIn ()
+    {
+        return dataIn.dataIn();
+    }
+
+    /**
+     * Messages that are dropped, due to the buffer being full, will be sent here.
+     *
+     * @return the dropped-output.
+     */
+    public Output<T> droppedOut ()
+    {
+        return droppedOut.dataOut();
+    }
+
+    /**
+     * Get the maximum number of messages that can be stored herein.
+     *
+     * @return the capacity of the buffer.
+     */
+    public int capacity ()
+    {
+        return buffer.capacity();
+    }
+
+    /**
+     * Get the number of messages that are currently stored herein.
+     *
+     * @return the number of stored messages.
+     */
+    public int size ()
+    {
+        return buffer.size();
+    }
+
+    /**
+     * Determine whether any messages are currently stored herein.
+     *
+     * @return true, if no messages are stored.
+     */
+    public boolean isEmpty ()
+    {
+        return buffer.isEmpty();
+    }
+
+    /**
+     * Remove the oldest message from the buffer, if any.
+     *
+     * @return the oldest message, or null, if the buffer is empty.
+     */
+    public T poll ()
+    {
+        final T message = buffer.poll();
+
+        if (message != null)
+        {
+            wakeProducer();
+        }
+
+        return message;
+    }
+
+    /**
+     * Remove all of the messages from the buffer.
+     *
+     * @param sink will receive the messages, oldest first.
+     * @return the number of messages that were removed.
+     */
+    public int drainTo (final Collection<? super T> sink)
+    {
+        return drainTo(sink, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Remove up to the given number of messages from the buffer.
+     *
+     * @param sink will receive the messages, oldest first.
+     * @param limit is the maximum number of messages to remove.
+     * @return the number of messages that were removed.
+     */
+    public int drainTo (final Collection<? super T> sink,
+                        final int limit)
+    {
+        Objects.requireNonNull(sink, "sink");
+
+        if (limit < 0)
+        {
+            throw new IllegalArgumentException("limit < 0");
+        }
+
+        final int count = buffer.drain(sink::add, limit);
+
+        if (count > 0)
+        {
+            wakeProducer();
+        }
+
+        return count;
+    }
+
+    /**
+     * Factory Method.
+     *
+     * @param <T> is the type of the incoming messages.
+     * @param stage will be used to create private actors.
+     * @return a new builder that can build the desired object.
+     */
+    public static <T> Builder<T> newCollectionSink (final Stage stage)
+    {
+        return new Builder<>(stage);
+    }
+
+    /**
+     * Builder.
+     *
+     * @param <T> is the type of the incoming messages.
+     */
+    public static final class Builder<T>
+    {
+        private final Stage stage;
+
+        private int capacity = 1024;
+
+        private OverflowPolicy policy = OverflowPolicy.DROP_NEWEST;
+
+        private Builder (final Stage stage)
+        {
+            this.stage = Objects.requireNonNull(stage, "stage");
+        }
+
+        /**
+         * Specify the capacity of the buffer.
+         *
+         * @param capacity is the minimum capacity of the buffer,
+         * which will be rounded up to the next power-of-two.
+         * @return this.
+         */
+        public Builder<T> withCapacity (final int capacity)
+        {
+            if (capacity < 1)
+            {
+                throw new IllegalArgumentException("capacity < 1");
+            }
+            else if (capacity > (1 << 30))
+            {
+                throw new IllegalArgumentException("capacity > 2^30");
+            }
+            else
+            {
+                this.capacity = capacity;
+                return this;
+            }
+        }
+
+        /**
+         * Specify what happens, when a message arrives and the buffer is full.
+         *
+         * <p>
+         * By default, the incoming message is dropped.
+         * </p>
+         *
+         * @param policy will be applied, whenever the buffer is full.
+         * @return this.
+         */
+        public Builder<T> withOverflowPolicy (final OverflowPolicy policy)
+        {
+            this.policy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+
+        /**
+         * Build.
+         *
+         * @return the new object.
+         */
+        public CollectionSink<T> build ()
+        {
+            return new CollectionSink<>(this);
+        }
+    }
+}
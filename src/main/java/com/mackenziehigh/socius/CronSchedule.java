@@ -0,0 +1,253 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * A parsed cron-like calendar schedule.
+ *
+ * <p>
+ * A schedule consists of five whitespace-separated fields, namely
+ * (minute, hour, day-of-month, month, day-of-week), in that order.
+ * Each field is either an asterisk, which matches every value,
+ * or a comma-separated list of values and ranges (A-B),
+ * either of which may be followed by a step (/N).
+ * Days-of-week are numbered from zero (Sunday) to six (Saturday),
+ * or seven, which is also Sunday.
+ * If both the day-of-month and the day-of-week are restricted,
+ * then a day matches, if either field matches, per cron convention.
+ * </p>
+ *
+ * <p>
+ * Times are matched against the local date-time of the time-zone.
+ * When the clocks are set back (daylight-saving time ends), a local time that
+ * occurs twice only matches at the first occurrence, per cron convention,
+ * unless the schedule matches every hour, in which case both occurrences match,
+ * since they are an hour apart in real time. When the clocks are set forward,
+ * the local times that do not exist are never matched.
+ * </p>
+ *
+ * <p>
+ * Each field is stored as a bit-mask; therefore, matching
+ * a candidate time against the schedule is constant-time.
+ * </p>
+ */
+final class CronSchedule
+{
+    /**
+     * This is how far into the future to search for the next matching time,
+     * which prevents impossible schedules (February 31st) from looping forever.
+     */
+    private static final int MAX_YEARS = 8;
+
+    private final String expression;
+
+    private final long minutes;
+
+    private final long hours;
+
+    private final long daysOfMonth;
+
+    private final long months;
+
+    private final long daysOfWeek;
+
+    private final boolean domRestricted;
+
+    private final boolean dowRestricted;
+
+    private final boolean everyHour;
+
+    private CronSchedule (final String expression)
+    {
+        this.expression = expression;
+
+        final String[] fields = expression.trim().split("\\s+");
+
+        if (fields.length != 5)
+        {
+            throw new IllegalArgumentException("Invalid Cron Expression: " + expression);
+        }
+
+        this.minutes = parseField(expression, fields[0], 0, 59);
+        this.hours = parseField(expression, fields[1], 0, 23);
+        this.daysOfMonth = parseField(expression, fields[2], 1, 31);
+        this.months = parseField(expression, fields[3], 1, 12);
+
+        /**
+         * Seven is an alias for Sunday (zero).
+         */
+        final long dow = parseField(expression, fields[4], 0, 7);
+        this.daysOfWeek = (dow | (dow >>> 7)) & 0x7F;
+
+        this.domRestricted = fields[2].equals("*") == false;
+        this.dowRestricted = fields[4].equals("*") == false;
+        this.everyHour = hours == (1L << 24) - 1;
+    }
+
+    private static long parseField (final String expression,
+                                    final String field,
+                                    final int min,
+                                    final int max)
+    {
+        long mask = 0;
+
+        for (String part : field.split(",", -1))
+        {
+            final int slash = part.indexOf('/');
+            final String range = slash < 0 ? part : part.substring(0, slash);
+            final int step = slash < 0 ? 1 : parseNumber(expression, part.substring(slash + 1), 1, max);
+
+            final int low;
+            final int high;
+
+            if (range.equals("*"))
+            {
+                low = min;
+                high = max;
+            }
+            else if (range.indexOf('-') > 0)
+            {
+                low = parseNumber(expression, range.substring(0, range.indexOf('-')), min, max);
+                high = parseNumber(expression, range.substring(range.indexOf('-') + 1), low, max);
+            }
+            else
+            {
+                low = parseNumber(expression, range, min, max);
+                high = slash < 0 ? low : max;
+            }
+
+            for (int i = low; i <= high; i += step)
+            {
+                mask |= 1L << i;
+            }
+        }
+
+        return mask;
+    }
+
+    private static int parseNumber (final String expression,
+                                    final String text,
+                                    final int min,
+                                    final int max)
+    {
+        if (text.matches("[0-9]{1,2}") == false)
+        {
+            throw new IllegalArgumentException("Invalid Cron Expression: " + expression);
+        }
+
+        final int value = Integer.parseInt(text);
+
+        if (value < min || value > max)
+        {
+            throw new IllegalArgumentException("Invalid Cron Expression: " + expression);
+        }
+
+        return value;
+    }
+
+    /**
+     * Parse a schedule.
+     *
+     * @param expression is the textual schedule.
+     * @return the parsed schedule.
+     * @throws IllegalArgumentException if the expression is malformed.
+     */
+    public static CronSchedule parse (final String expression)
+    {
+        Objects.requireNonNull(expression, "expression");
+        return new CronSchedule(expression);
+    }
+
+    /**
+     * Find the first time that matches this schedule strictly after the given time.
+     *
+     * <p>
+     * Rather than testing every minute, each non-matching field skips
+     * directly to the start of the next month, day, hour, or minute.
+     * </p>
+     *
+     * @param after is the time to search from.
+     * @return the next matching time, which is always at the top of a minute.
+     * @throws IllegalStateException if no time matches within the foreseeable future.
+     */
+    public ZonedDateTime next (final ZonedDateTime after)
+    {
+        final ZonedDateTime limit = after.plusYears(MAX_YEARS);
+        ZonedDateTime time = after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+
+        while (time.isBefore(limit))
+        {
+            if ((months & (1L << time.getMonthValue())) == 0)
+            {
+                time = time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).plusMonths(1);
+            }
+            else if (matchesDay(time) == false)
+            {
+                time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            }
+            else if ((hours & (1L << time.getHour())) == 0)
+            {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            }
+            else if ((minutes & (1L << time.getMinute())) == 0)
+            {
+                time = time.plusMinutes(1);
+            }
+            else if (everyHour == false && time.equals(time.withEarlierOffsetAtOverlap()) == false)
+            {
+                /**
+                 * This is the second occurrence of a local time that occurs twice.
+                 * The first occurrence either already matched or preceded the search.
+                 */
+                time = time.plusMinutes(1);
+            }
+            else
+            {
+                return time;
+            }
+        }
+
+        throw new IllegalStateException("No Matching Time: " + expression);
+    }
+
+    private boolean matchesDay (final ZonedDateTime time)
+    {
+        final boolean dom = (daysOfMonth & (1L << time.getDayOfMonth())) != 0;
+        final boolean dow = (daysOfWeek & (1L << (time.getDayOfWeek().getValue() % 7))) != 0;
+
+        if (domRestricted && dowRestricted)
+        {
+            return dom || dow;
+        }
+        else
+        {
+            return dom && dow;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString ()
+    {
+        return expression;
+    }
+}
@@ -15,10 +15,32 @@
  */
 package com.mackenziehigh.socius;
 
+import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Provides the default <code>ScheduledExecutorService</code>.
@@ -29,21 +51,89 @@ import java.util.concurrent.ScheduledExecutorService;
  * </p>
  *
  * <p>
+ * Cancelled tasks are removed from the queue of this executor immediately,
+ * so that cancelled timeouts do not accumulate therein.
+ * </p>
+ *
+ * <p>
  * Obtain this executor lazily in order to avoid allocating unnecessary resources.
  * </p>
  *
  * <p>
  * The number of threads can be set at startup via the <code>com.mackenziehigh.socius.DefaultExecutor.threadCount</code> system property.
+ * The threading model can be set at startup via the <code>com.mackenziehigh.socius.DefaultExecutor.mode</code> system property.
+ * The prefix of the thread names can be set at startup via the <code>com.mackenziehigh.socius.DefaultExecutor.threadName</code> system property.
+ * </p>
+ *
+ * <p>
+ * Except in the <code>SCHEDULED</code> mode, timed tasks are scheduled on a dedicated timer thread,
+ * which only ever runs the (near instant) timed tasks themselves, whereas all other tasks,
+ * such as actors powered by this executor, run on separate worker threads.
+ * Thus, busy workers cannot delay the timer, nor can the timer delay the workers.
+ * </p>
+ *
+ * <p>
+ * Instrumentation can be enabled at startup via the <code>com.mackenziehigh.socius.DefaultExecutor.metrics</code> system property.
+ * Once enabled, snapshots of the executor statistics can be obtained via <code>metrics()</code>,
+ * or can be sent periodically into an actor graph via a <code>Monitor</code>.
  * </p>
  */
 public final class DefaultExecutor
 {
+    /**
+     * Specifies the threading model of the executor.
+     */
+    public enum Mode
+    {
+        /**
+         * A single <code>ScheduledThreadPoolExecutor</code> runs both the timed tasks and all other tasks.
+         * This is the default mode.
+         */
+        SCHEDULED,
+
+        /**
+         * A fixed-size pool of worker threads plus a dedicated timer thread.
+         */
+        FIXED,
+
+        /**
+         * A work-stealing <code>ForkJoinPool</code>, in asynchronous (FIFO) mode,
+         * plus a dedicated timer thread.
+         */
+        FORK_JOIN,
+
+        /**
+         * A new virtual thread per task, if supported by the JVM,
+         * plus a dedicated timer thread. On older JVMs, which do not support virtual threads,
+         * an unbounded pool of cached platform threads is used instead.
+         */
+        VIRTUAL
+    }
+
     /**
      * This is the name of the property that can be used
      * to specify the number of threads to allocate.
      */
     public static final String PROPERTY_NAME = String.format("%s.threadCount", DefaultExecutor.class.getName());
 
+    /**
+     * This is the name of the property that can be used
+     * to specify the threading model, which is one of the <code>Mode</code> constants.
+     */
+    public static final String MODE_PROPERTY_NAME = String.format("%s.mode", DefaultExecutor.class.getName());
+
+    /**
+     * This is the name of the property that can be used
+     * to specify the prefix of the names of the threads.
+     */
+    public static final String THREAD_NAME_PROPERTY_NAME = String.format("%s.threadName", DefaultExecutor.class.getName());
+
+    /**
+     * This is the name of the property that can be used
+     * to enable instrumentation, if the property is <code>true</code>.
+     */
+    public static final String METRICS_PROPERTY_NAME = String.format("%s.metrics", DefaultExecutor.class.getName());
+
     private static volatile DefaultExecutor instance;
 
     private volatile ScheduledExecutorService service;
@@ -52,8 +142,22 @@ public final class DefaultExecutor
 
     private final String threadCountText;
 
+    private final Mode mode;
+
+    private final String threadName;
+
     /**
-     * Sole Constructor.
+     * This object records statistics, if instrumentation is enabled; otherwise, null.
+     */
+    private final Recorder recorder;
+
+    /**
+     * This is the executor that runs the timed tasks, once the service is created.
+     */
+    private volatile ScheduledThreadPoolExecutor timer;
+
+    /**
+     * Constructor.
      *
      * <p>
      * This constructor is only exposed for unit-testing purposes.
@@ -62,8 +166,62 @@ public final class DefaultExecutor
      * @param threadCountText is the number of threads to allocate.
      */
     DefaultExecutor (final String threadCountText)
+    {
+        this(threadCountText, "", "");
+    }
+
+    /**
+     * Constructor.
+     *
+     * <p>
+     * This constructor is only exposed for unit-testing purposes.
+     * </p>
+     *
+     * @param threadCountText is the number of threads to allocate.
+     * @param modeText is the name of the threading model.
+     * @param threadName is the prefix of the names of the threads.
+     */
+    DefaultExecutor (final String threadCountText,
+                     final String modeText,
+                     final String threadName)
+    {
+        this(threadCountText, modeText, threadName, "");
+    }
+
+    /**
+     * Constructor.
+     *
+     * <p>
+     * This constructor is only exposed for unit-testing purposes.
+     * </p>
+     *
+     * @param threadCountText is the number of threads to allocate.
+     * @param modeText is the name of the threading model.
+     * @param threadName is the prefix of the names of the threads.
+     * @param metricsText is true, if instrumentation is enabled.
+     */
+    DefaultExecutor (final String threadCountText,
+                     final String modeText,
+                     final String threadName,
+                     final String metricsText)
     {
         this.threadCountText = Objects.requireNonNull(threadCountText, "threadCountText");
+        this.mode = parseMode(Objects.requireNonNull(modeText, "modeText"));
+        this.threadName = Objects.requireNonNull(threadName, "threadName").isBlank() ? "socius" : threadName.trim();
+        this.recorder = Boolean.parseBoolean(Objects.requireNonNull(metricsText, "metricsText").trim()) ? new Recorder() : null;
+    }
+
+    private static Mode parseMode (final String text)
+    {
+        for (Mode value : Mode.values())
+        {
+            if (value.name().equals(text.trim().toUpperCase(Locale.ROOT)))
+            {
+                return value;
+            }
+        }
+
+        return Mode.SCHEDULED;
     }
 
     /**
@@ -75,8 +233,14 @@ public final class DefaultExecutor
     {
         synchronized (DefaultExecutor.class)
         {
-            final String threadCountProperty = System.getProperty(PROPERTY_NAME, "");
-            instance = instance == null ? new DefaultExecutor(threadCountProperty) : instance;
+            if (instance == null)
+            {
+                final String threadCountProperty = System.getProperty(PROPERTY_NAME, "");
+                final String modeProperty = System.getProperty(MODE_PROPERTY_NAME, "");
+                final String threadNameProperty = System.getProperty(THREAD_NAME_PROPERTY_NAME, "");
+                final String metricsProperty = System.getProperty(METRICS_PROPERTY_NAME, "");
+                instance = new DefaultExecutor(threadCountProperty, modeProperty, threadNameProperty, metricsProperty);
+            }
         }
 
         return instance;
@@ -85,6 +249,12 @@ public final class DefaultExecutor
     /**
      * Get the number of threads allocated for use by the executor, if any.
      *
+     * <p>
+     * The number excludes the dedicated timer thread, if any.
+     * In the <code>VIRTUAL</code> mode, the number of threads is unbounded;
+     * therefore, the result is always empty.
+     * </p>
+     *
      * @return the number of threads in the default-executor.
      */
     public OptionalInt threadCount ()
@@ -92,6 +262,81 @@ public final class DefaultExecutor
         return threadCount;
     }
 
+    /**
+     * Get the threading model of the executor.
+     *
+     * @return the mode.
+     */
+    public Mode mode ()
+    {
+        return mode;
+    }
+
+    /**
+     * Get the prefix of the names of the threads of the executor.
+     *
+     * @return the thread-name prefix.
+     */
+    public String threadName ()
+    {
+        return threadName;
+    }
+
+    /**
+     * Determine whether statistics are being recorded.
+     *
+     * @return true, if instrumentation was enabled at startup.
+     */
+    public boolean isMetricsEnabled ()
+    {
+        return recorder != null;
+    }
+
+    /**
+     * Get a snapshot of the statistics regarding the executor.
+     *
+     * <p>
+     * The snapshot is not atomic relative to concurrently executing tasks.
+     * Rather, each count is accurate as of the moment it was read.
+     * </p>
+     *
+     * @return the current statistics, or empty, if instrumentation is not enabled.
+     */
+    public Optional<Metrics> metrics ()
+    {
+        return recorder == null ? Optional.empty() : Optional.of(recorder.snapshot(timer, threadCount));
+    }
+
+    /**
+     * Create a source that will periodically send snapshots of the statistics.
+     *
+     * <p>
+     * The monitor is powered by this executor.
+     * Thus, if the executor is saturated, then the snapshots will be delayed,
+     * which is itself an indication of saturation.
+     * </p>
+     *
+     * @param stage will be used to create private actors.
+     * @param period is the amount of time between snapshots.
+     * @return the new monitor, which must be started in order to send snapshots.
+     * @throws IllegalStateException if instrumentation is not enabled.
+     */
+    public Monitor newMonitor (final Stage stage,
+                               final Duration period)
+    {
+        Objects.requireNonNull(stage, "stage");
+        Objects.requireNonNull(period, "period");
+
+        if (recorder == null)
+        {
+            throw new IllegalStateException("Metrics Disabled");
+        }
+        else
+        {
+            return new Monitor(this, stage, period);
+        }
+    }
+
     final ScheduledExecutorService service ()
     {
         synchronized (this)
@@ -99,8 +344,8 @@ public final class DefaultExecutor
             if (service == null)
             {
                 final int count = threadCountText.matches("[1-9][0-9]{0,5}") ? Integer.parseInt(threadCountText) : 1;
-                threadCount = OptionalInt.of(count);
-                final ScheduledExecutorService ses = Executors.newScheduledThreadPool(count);
+                threadCount = mode == Mode.VIRTUAL ? OptionalInt.empty() : OptionalInt.of(count);
+                final ScheduledExecutorService ses = newService(count);
                 final Thread hook = new Thread(() -> ses.shutdown());
                 Runtime.getRuntime().addShutdownHook(hook);
                 service = ses;
@@ -109,4 +354,465 @@ public final class DefaultExecutor
 
         return service;
     }
+
+    private ScheduledExecutorService newService (final int count)
+    {
+        if (mode == Mode.SCHEDULED)
+        {
+            timer = newScheduledPool(count, newThreadFactory(threadName + "-"));
+
+            /**
+             * The pool is only wrapped, if necessary for instrumentation.
+             */
+            return recorder == null ? timer : new SplitExecutor(timer, timer, recorder);
+        }
+
+        timer = newScheduledPool(1, newThreadFactory(threadName + "-timer-"));
+
+        if (mode == Mode.FIXED)
+        {
+            return new SplitExecutor(timer, Executors.newFixedThreadPool(count, newThreadFactory(threadName + "-worker-")), recorder);
+        }
+        else if (mode == Mode.FORK_JOIN)
+        {
+            return new SplitExecutor(timer, newForkJoinPool(count), recorder);
+        }
+        else
+        {
+            return new SplitExecutor(timer, newVirtualExecutor(), recorder);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor newScheduledPool (final int count,
+                                                                 final ThreadFactory factory)
+    {
+        final ScheduledThreadPoolExecutor ses = new ScheduledThreadPoolExecutor(count, factory);
+        ses.setRemoveOnCancelPolicy(true);
+        return ses;
+    }
+
+    private ForkJoinPool newForkJoinPool (final int count)
+    {
+        final AtomicInteger counter = new AtomicInteger();
+
+        final ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool ->
+        {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadName + "-worker-" + counter.incrementAndGet());
+            return thread;
+        };
+
+        /**
+         * Asynchronous mode processes locally queued tasks in FIFO order,
+         * which suits actors, since their tasks are never joined.
+         */
+        return new ForkJoinPool(count, factory, null, true);
+    }
+
+    private ExecutorService newVirtualExecutor ()
+    {
+        /**
+         * Virtual threads are not available on the Java release that this library targets;
+         * therefore, they are looked up at runtime, rather than referenced directly.
+         */
+        try
+        {
+            final MethodType type = MethodType.methodType(ExecutorService.class);
+            final MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", type);
+            return (ExecutorService) factory.invoke();
+        }
+        catch (Throwable ex)
+        {
+            return Executors.newCachedThreadPool(newThreadFactory(threadName + "-worker-"));
+        }
+    }
+
+    private static ThreadFactory newThreadFactory (final String prefix)
+    {
+        final AtomicInteger counter = new AtomicInteger();
+
+        return (Runnable task) ->
+        {
+            final Thread thread = new Thread(task);
+            thread.setName(prefix + counter.incrementAndGet());
+            return thread;
+        };
+    }
+
+    /**
+     * A <code>ScheduledExecutorService</code> that runs timed tasks on a timer
+     * and runs all other tasks on a separate worker executor,
+     * which may be the same as the timer, if only instrumentation is needed.
+     */
+    private static final class SplitExecutor
+            extends AbstractExecutorService
+            implements ScheduledExecutorService
+    {
+        private final ScheduledExecutorService timer;
+
+        private final ExecutorService workers;
+
+        private final Recorder recorder;
+
+        private SplitExecutor (final ScheduledExecutorService timer,
+                               final ExecutorService workers,
+                               final Recorder recorder)
+        {
+            this.timer = timer;
+            this.workers = workers;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public void execute (final Runnable task)
+        {
+            if (recorder == null)
+            {
+                workers.execute(task);
+            }
+            else
+            {
+                /**
+                 * The wrapper is the only per-task allocation,
+                 * which only occurs while instrumentation is enabled.
+                 */
+                final long enqueued = System.nanoTime();
+                recorder.submitted.increment();
+                workers.execute(() -> recorder.run(task, enqueued));
+            }
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule (final Runnable task,
+                                            final long delay,
+                                            final TimeUnit unit)
+        {
+            return timer.schedule(task, delay, unit);
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule (final Callable<V> task,
+                                                final long delay,
+                                                final TimeUnit unit)
+        {
+            return timer.schedule(task, delay, unit);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate (final Runnable task,
+                                                       final long initialDelay,
+                                                       final long period,
+                                                       final TimeUnit unit)
+        {
+            return timer.scheduleAtFixedRate(task, initialDelay, period, unit);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay (final Runnable task,
+                                                          final long initialDelay,
+                                                          final long delay,
+                                                          final TimeUnit unit)
+        {
+            return timer.scheduleWithFixedDelay(task, initialDelay, delay, unit);
+        }
+
+        @Override
+        public void shutdown ()
+        {
+            timer.shutdown();
+            workers.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow ()
+        {
+            final List<Runnable> pending = new ArrayList<>(timer.shutdownNow());
+            pending.addAll(workers.shutdownNow());
+            return pending;
+        }
+
+        @Override
+        public boolean isShutdown ()
+        {
+            return timer.isShutdown() && workers.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated ()
+        {
+            return timer.isTerminated() && workers.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination (final long timeout,
+                                         final TimeUnit unit)
+                throws InterruptedException
+        {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            return timer.awaitTermination(timeout, unit)
+                   && workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records the statistics, if instrumentation is enabled.
+     */
+    private static final class Recorder
+    {
+        /**
+         * This is the number of tasks that were submitted to the workers.
+         */
+        public final LongAdder submitted = new LongAdder();
+
+        /**
+         * This is the number of tasks that began executing.
+         */
+        public final LongAdder started = new LongAdder();
+
+        /**
+         * This is the number of tasks that finished executing.
+         */
+        public final LongAdder completed = new LongAdder();
+
+        /**
+         * This is the amount of time that tasks waited between being submitted and starting.
+         */
+        public final Histogram latency = new Histogram();
+
+        public void run (final Runnable task,
+                         final long enqueued)
+        {
+            latency.record(System.nanoTime() - enqueued);
+            started.increment();
+
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                completed.increment();
+            }
+        }
+
+        public Metrics snapshot (final ScheduledThreadPoolExecutor timer,
+                                 final OptionalInt threadCount)
+        {
+            /**
+             * Read the counts in the reverse order of being incremented,
+             * so that the differences are never negative.
+             */
+            final long completedCount = completed.sum();
+            final long startedCount = started.sum();
+            final long submittedCount = submitted.sum();
+
+            return new Metrics(Instant.now(),
+                               submittedCount,
+                               completedCount,
+                               submittedCount - startedCount,
+                               startedCount - completedCount,
+                               timer == null ? 0 : timer.getQueue().size(),
+                               threadCount,
+                               latency.snapshot());
+        }
+    }
+
+    /**
+     * An immutable snapshot of the statistics regarding the executor.
+     */
+    public static final class Metrics
+    {
+        private final Instant timestamp;
+
+        private final long submittedTaskCount;
+
+        private final long completedTaskCount;
+
+        private final long queuedTaskCount;
+
+        private final long activeTaskCount;
+
+        private final long scheduledTaskCount;
+
+        private final OptionalInt threadCount;
+
+        private final long[] latencyHistogram;
+
+        private Metrics (final Instant timestamp,
+                         final long submittedTaskCount,
+                         final long completedTaskCount,
+                         final long queuedTaskCount,
+                         final long activeTaskCount,
+                         final long scheduledTaskCount,
+                         final OptionalInt threadCount,
+                         final long[] latencyHistogram)
+        {
+            this.timestamp = timestamp;
+            this.submittedTaskCount = submittedTaskCount;
+            this.completedTaskCount = completedTaskCount;
+            this.queuedTaskCount = queuedTaskCount;
+            this.activeTaskCount = activeTaskCount;
+            this.scheduledTaskCount = scheduledTaskCount;
+            this.threadCount = threadCount;
+            this.latencyHistogram = latencyHistogram;
+        }
+
+        /**
+         * Get the time at which this snapshot was taken.
+         *
+         * @return the time of the snapshot.
+         */
+        public Instant timestamp ()
+        {
+            return timestamp;
+        }
+
+        /**
+         * Get the number of (non-timed) tasks that were submitted to the workers.
+         *
+         * @return the number of submitted tasks.
+         */
+        public long submittedTaskCount ()
+        {
+            return submittedTaskCount;
+        }
+
+        /**
+         * Get the number of (non-timed) tasks that finished executing.
+         *
+         * @return the number of completed tasks.
+         */
+        public long completedTaskCount ()
+        {
+            return completedTaskCount;
+        }
+
+        /**
+         * Get the number of (non-timed) tasks that are waiting for a worker.
+         *
+         * @return the queue depth.
+         */
+        public long queuedTaskCount ()
+        {
+            return queuedTaskCount;
+        }
+
+        /**
+         * Get the number of (non-timed) tasks that are currently executing,
+         * which is also the number of workers that are currently busy.
+         *
+         * @return the number of active tasks.
+         */
+        public long activeTaskCount ()
+        {
+            return activeTaskCount;
+        }
+
+        /**
+         * Get the number of timed tasks, such as clock ticks and delayed sends,
+         * which are waiting in the queue of the timer.
+         *
+         * <p>
+         * In the <code>SCHEDULED</code> mode, the timer and the workers are the same,
+         * so this number also includes the queued (non-timed) tasks.
+         * </p>
+         *
+         * @return the number of pending timed tasks.
+         */
+        public long scheduledTaskCount ()
+        {
+            return scheduledTaskCount;
+        }
+
+        /**
+         * Get the number of worker threads, if bounded.
+         *
+         * @return the thread count, or empty, if unbounded.
+         */
+        public OptionalInt threadCount ()
+        {
+            return threadCount;
+        }
+
+        /**
+         * Determine whether every worker was busy and tasks were waiting.
+         *
+         * @return true, if the executor was saturated.
+         */
+        public boolean isSaturated ()
+        {
+            return queuedTaskCount > 0 && threadCount.isPresent() && activeTaskCount >= threadCount.getAsInt();
+        }
+
+        /**
+         * Get a percentile of the amount of time that tasks waited,
+         * between being submitted and starting to execute.
+         *
+         * <p>
+         * The result is accurate to within 6.25%.
+         * </p>
+         *
+         * @param percentile is between zero and one hundred, inclusive.
+         * @return the latency at the given percentile,
+         * or zero, if no tasks have started.
+         */
+        public Duration latency (final double percentile)
+        {
+            return Duration.ofNanos(Histogram.percentile(latencyHistogram, percentile));
+        }
+    }
+
+    /**
+     * A source that periodically sends snapshots of the statistics regarding the executor.
+     */
+    public static final class Monitor
+            implements Source<Metrics>
+    {
+        private final Clock clock;
+
+        private final Pipeline<Instant, Metrics> procMetricsOut;
+
+        private Monitor (final DefaultExecutor executor,
+                         final Stage stage,
+                         final Duration period)
+        {
+            this.clock = Clock.newClock().withPeriod(period).poweredBy(executor.service()).build();
+            this.procMetricsOut = Pipeline.fromFunctionScript(stage, (Instant tick) -> executor.metrics().get());
+            clock.dataOut().connect(procMetricsOut.dataIn());
+        }
+
+        /**
+         * Cause the monitor to start sending snapshots.
+         *
+         * @return this.
+         */
+        public Monitor start ()
+        {
+            clock.start();
+            return this;
+        }
+
+        /**
+         * Cause the monitor to stop sending snapshots.
+         *
+         * @return this.
+         */
+        public Monitor stop ()
+        {
+            clock.stop();
+            return this;
+        }
+
+        /**
+         * Snapshots of the statistics will be sent to this output.
+         *
+         * @return the data-output.
+         */
+        @Override
+        public Output<Metrics> dataOut ()
+        {
+            return procMetricsOut.dataOut();
+        }
+    }
 }
@@ -19,26 +19,63 @@ import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
  * A wrapper around a <code>ScheduledExecutorService</code> that will
  * send a specified message to an actor after a specified delay.
+ *
+ * <p>
+ * By default, each delayed send is scheduled directly on the executor,
+ * which costs O(log N) per send, where N is the number of pending sends.
+ * Alternatively, a timing-wheel based sender can be created,
+ * which schedules and expires sends in O(1) at a configurable resolution,
+ * which is preferable when very many sends are pending simultaneously,
+ * such as when a <code>Requester</code> has many requests in-flight.
+ * </p>
  */
 public final class DelayedSender
 {
+    /**
+     * This handle is returned, whenever a message is sent immediately.
+     */
+    private static final Handle SENT = new Handle()
+    {
+        @Override
+        public boolean cancel ()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isPending ()
+        {
+            return false;
+        }
+    };
+
     private static DelayedSender global = null;
 
     private final ScheduledExecutorService service;
 
+    /**
+     * This is the timing-wheel that performs the scheduled sends, if any.
+     * When null, the sends are scheduled directly on the executor.
+     */
+    private final TimingWheel wheel;
+
     /**
      * Constructor.
      *
      * @param service will be used to perform the scheduled sends.
+     * @param wheel will be used to perform the scheduled sends, if not null.
      */
-    private DelayedSender (final ScheduledExecutorService service)
+    private DelayedSender (final ScheduledExecutorService service,
+                           final TimingWheel wheel)
     {
         this.service = Objects.requireNonNull(service, "service");
+        this.wheel = wheel;
     }
 
     /**
@@ -51,6 +88,27 @@ public final class DelayedSender
         return service.equals(DefaultExecutor.instance().service());
     }
 
+    /**
+     * Determine whether this sender is using a timing-wheel.
+     *
+     * @return true, if the sends are performed via a timing-wheel.
+     */
+    public boolean isUsingTimingWheel ()
+    {
+        return wheel != null;
+    }
+
+    /**
+     * Get the resolution of the timing-wheel, if any.
+     *
+     * @return the duration of a single tick of the timing-wheel,
+     * or zero, if this sender does not use a timing-wheel.
+     */
+    public Duration resolution ()
+    {
+        return wheel == null ? Duration.ZERO : wheel.resolution();
+    }
+
     /**
      * Schedule sending a message.
      *
@@ -64,15 +122,22 @@ public final class DelayedSender
      * This method can be invoked multiple times to schedule multiple transmissions.
      * </p>
      *
+     * <p>
+     * If the send is no longer needed, such as when a timeout is scheduled
+     * and the awaited event occurs beforehand, then cancel the send
+     * via the returned handle, so that the send does not continue
+     * to consume memory and scheduler time until the delay expires.
+     * </p>
+     *
      * @param <T> is the type of the message.
      * @param destination is who the message will be sent to.
      * @param message is the message to send.
      * @param delay is how long to wait before sending the message.
-     * @return this.
+     * @return a handle that can be used to cancel the send.
      */
-    public <T> DelayedSender send (final Input<? super T> destination,
-                                   final T message,
-                                   final Duration delay)
+    public <T> Handle send (final Input<? super T> destination,
+                            final T message,
+                            final Duration delay)
     {
         Objects.requireNonNull(destination, "destination");
         Objects.requireNonNull(message, "message");
@@ -81,24 +146,86 @@ public final class DelayedSender
         if (Duration.ZERO.equals(delay))
         {
             destination.send(message);
-            return this;
+            return SENT;
+        }
+        else if (wheel != null)
+        {
+            return wheel.schedule(destination, message, delay.toNanos());
         }
         else
         {
-            service.schedule(() -> destination.send(message), delay.toNanos(), TimeUnit.NANOSECONDS);
-            return this;
+            final ScheduledFuture<?> future = service.schedule(() -> destination.send(message), delay.toNanos(), TimeUnit.NANOSECONDS);
+            return new FutureHandle(future);
         }
     }
 
     /**
      * Create a new <code>DelayedSender</code> instance.
      *
+     * <p>
+     * If the executor is a <code>ScheduledThreadPoolExecutor</code>,
+     * then consider enabling its remove-on-cancel policy,
+     * so that cancelled sends are removed from its queue immediately.
+     * </p>
+     *
      * @param service will provide the clock.
      * @return the new object.
      */
     public static DelayedSender newDelayedSender (final ScheduledExecutorService service)
     {
-        return new DelayedSender(service);
+        return new DelayedSender(service, null);
+    }
+
+    /**
+     * Create a new <code>DelayedSender</code> instance based on a timing-wheel.
+     *
+     * <p>
+     * Delays will be rounded up to a multiple of the given resolution.
+     * </p>
+     *
+     * @param service will advance the timing-wheel.
+     * @param resolution is the duration of a single tick of the timing-wheel.
+     * @return the new object.
+     */
+    public static DelayedSender newTimingWheelSender (final ScheduledExecutorService service,
+                                                      final Duration resolution)
+    {
+        return newTimingWheelSender(service, resolution, TimingWheel.DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Create a new <code>DelayedSender</code> instance based on a timing-wheel.
+     *
+     * <p>
+     * Delays will be rounded up to a multiple of the given resolution.
+     * Ideally, the wheel will be large enough that most delays
+     * are shorter than a single revolution of the wheel.
+     * </p>
+     *
+     * @param service will advance the timing-wheel.
+     * @param resolution is the duration of a single tick of the timing-wheel.
+     * @param wheelSize is the number of buckets in the timing-wheel,
+     * which will be rounded up to a power-of-two.
+     * @return the new object.
+     */
+    public static DelayedSender newTimingWheelSender (final ScheduledExecutorService service,
+                                                      final Duration resolution,
+                                                      final int wheelSize)
+    {
+        final TimingWheel wheel = new TimingWheel(service, resolution, wheelSize);
+        return new DelayedSender(service, wheel);
+    }
+
+    /**
+     * Create a new <code>DelayedSender</code> instance based on a timing-wheel,
+     * which is advanced using the default executor.
+     *
+     * @param resolution is the duration of a single tick of the timing-wheel.
+     * @return the new object.
+     */
+    public static DelayedSender newTimingWheelSender (final Duration resolution)
+    {
+        return newTimingWheelSender(DefaultExecutor.instance().service(), resolution);
     }
 
     /**
@@ -111,9 +238,55 @@ public final class DelayedSender
         if (global == null)
         {
             final ScheduledExecutorService ses = DefaultExecutor.instance().service();
-            global = new DelayedSender(ses);
+            global = new DelayedSender(ses, null);
         }
 
         return global;
     }
+
+    /**
+     * A handle that can be used to cancel a scheduled send.
+     */
+    public interface Handle
+    {
+        /**
+         * Prevent the message from being sent, if it was not already sent.
+         *
+         * @return true, if the message will not be sent, due to this invocation.
+         */
+        public boolean cancel ();
+
+        /**
+         * Determine whether the send is still waiting for its delay to expire.
+         *
+         * @return true, if the message was neither sent, nor cancelled.
+         */
+        public boolean isPending ();
+    }
+
+    /**
+     * A handle for a send that was scheduled directly on the executor.
+     */
+    private static final class FutureHandle
+            implements Handle
+    {
+        private final ScheduledFuture<?> future;
+
+        private FutureHandle (final ScheduledFuture<?> future)
+        {
+            this.future = future;
+        }
+
+        @Override
+        public boolean cancel ()
+        {
+            return future.cancel(false);
+        }
+
+        @Override
+        public boolean isPending ()
+        {
+            return future.isDone() == false;
+        }
+    }
 }
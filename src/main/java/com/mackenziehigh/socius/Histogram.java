@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A concurrent log-linear histogram of non-negative <code>long</code> values,
+ * in the style of an HDR histogram.
+ *
+ * <p>
+ * Values less than (16) are counted exactly. Larger values are counted
+ * in buckets, such that each power-of-two range is divided into (16)
+ * equal sub-ranges. Thus, any recorded value can be recovered with
+ * a relative error of less than 1/16 (6.25%), regardless of magnitude,
+ * using a fixed number of buckets, which avoids allocation when recording.
+ * </p>
+ *
+ * <p>
+ * Recording a value is a single atomic increment, which is cheap,
+ * since concurrent recorders rarely increment the same bucket.
+ * </p>
+ */
+final class Histogram
+{
+    /**
+     * This is the base-two logarithm of the number of sub-ranges per power-of-two.
+     */
+    private static final int PRECISION = 4;
+
+    private static final int SUB_BUCKETS = 1 << PRECISION;
+
+    /**
+     * This is the number of buckets needed to cover every non-negative long.
+     */
+    static final int BUCKETS = (Long.SIZE - PRECISION) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Record a single value.
+     *
+     * @param value will be recorded, after being clamped to zero, if negative.
+     */
+    public void record (final long value)
+    {
+        counts.getAndIncrement(indexOf(Math.max(0, value)));
+    }
+
+    /**
+     * Copy the current counts.
+     *
+     * <p>
+     * The copy is not atomic relative to concurrent recording.
+     * Rather, each count is accurate as of the moment it was read.
+     * </p>
+     *
+     * @return the number of values recorded in each bucket.
+     */
+    public long[] snapshot ()
+    {
+        final long[] copy = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            copy[i] = counts.get(i);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Compute the bucket that a value is counted in.
+     *
+     * @param value is a non-negative value.
+     * @return the index of the bucket.
+     */
+    static int indexOf (final long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        else
+        {
+            final int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            final int shift = magnitude - PRECISION;
+            final int sub = (int) (value >>> shift) - SUB_BUCKETS;
+            return (shift + 1) * SUB_BUCKETS + sub;
+        }
+    }
+
+    /**
+     * Compute the largest value that is counted in a given bucket.
+     *
+     * @param index identifies the bucket.
+     * @return the maximum value equivalent to the values in the bucket.
+     */
+    static long highestEquivalentValue (final int index)
+    {
+        if (index < SUB_BUCKETS)
+        {
+            return index;
+        }
+        else
+        {
+            final int shift = index / SUB_BUCKETS - 1;
+            final long sub = index % SUB_BUCKETS;
+            final long lowest = (SUB_BUCKETS + sub) << shift;
+            return lowest + (1L << shift) - 1;
+        }
+    }
+
+    /**
+     * Compute the total number of values in a snapshot.
+     *
+     * @param counts was obtained via <code>snapshot()</code>.
+     * @return the total count.
+     */
+    static long count (final long[] counts)
+    {
+        long total = 0;
+
+        for (long x : counts)
+        {
+            total += x;
+        }
+
+        return total;
+    }
+
+    /**
+     * Compute a percentile of the values in a snapshot.
+     *
+     * @param counts was obtained via <code>snapshot()</code>.
+     * @param percentile is between zero and one hundred, inclusive.
+     * @return the value at the given percentile, or zero, if the snapshot is empty.
+     */
+    static long percentile (final long[] counts,
+                            final double percentile)
+    {
+        if (percentile < 0 || percentile > 100 || Double.isNaN(percentile))
+        {
+            throw new IllegalArgumentException("percentile");
+        }
+
+        final long total = count(counts);
+
+        if (total == 0)
+        {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++)
+        {
+            seen += counts[i];
+
+            if (seen >= rank)
+            {
+                return highestEquivalentValue(i);
+            }
+        }
+
+        return highestEquivalentValue(counts.length - 1);
+    }
+}
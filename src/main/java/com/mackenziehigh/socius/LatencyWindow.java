@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks a percentile of the recently observed latencies.
+ *
+ * <p>
+ * The latencies are recorded in a histogram. Computing a percentile
+ * requires scanning the histogram; therefore, the percentile is only
+ * recomputed periodically, rather than whenever the percentile is needed.
+ * </p>
+ *
+ * <p>
+ * Only recent latencies are considered, so that the percentile follows
+ * changes in the latency, rather than being outweighed by old history.
+ * Two histograms are used. Once the current histogram has recorded
+ * a full window of samples, it becomes the previous histogram,
+ * and the oldest histogram is discarded. The percentile is computed
+ * over both histograms, which covers between one and two windows of samples.
+ * </p>
+ */
+final class LatencyWindow
+{
+    /**
+     * This is the number of samples to observe, before the percentile is (re)computed.
+     */
+    static final int SAMPLE_PERIOD = 64;
+
+    /**
+     * This is the number of samples that each histogram records, before being retired.
+     */
+    static final int WINDOW = SAMPLE_PERIOD * 16;
+
+    private final double percentile;
+
+    private volatile Histogram current = new Histogram();
+
+    private volatile Histogram previous = new Histogram();
+
+    private final AtomicLong samples = new AtomicLong();
+
+    /**
+     * This is the most recently computed percentile,
+     * or negative, if not enough samples have been observed yet.
+     */
+    private volatile long percentileNanos = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param percentile is the percentile to track, such as 99.
+     */
+    public LatencyWindow (final double percentile)
+    {
+        if (percentile <= 0 || percentile > 100 || Double.isNaN(percentile))
+        {
+            throw new IllegalArgumentException("percentile");
+        }
+
+        this.percentile = percentile;
+    }
+
+    /**
+     * Get the most recently computed percentile.
+     *
+     * @return the percentile in nanoseconds, or negative,
+     * if not enough samples have been observed yet.
+     */
+    public long percentileNanos ()
+    {
+        return percentileNanos;
+    }
+
+    /**
+     * Record a single latency.
+     *
+     * @param latencyNanos is the observed latency.
+     * @return true, if the percentile was recomputed.
+     */
+    public boolean record (final long latencyNanos)
+    {
+        current.record(latencyNanos);
+
+        final long count = samples.incrementAndGet();
+
+        /**
+         * Periodically retire the older histogram.
+         * A sample that races with the swap may be lost, which is harmless.
+         */
+        if (count % WINDOW == 0)
+        {
+            previous = current;
+            current = new Histogram();
+        }
+
+        /**
+         * Periodically recompute the percentile.
+         * Concurrent recomputations are harmless,
+         * since they would compute nearly the same value.
+         */
+        if (count % SAMPLE_PERIOD == 0)
+        {
+            final long[] counts = previous.snapshot();
+            final long[] recent = current.snapshot();
+
+            for (int i = 0; i < counts.length; i++)
+            {
+                counts[i] += recent[i];
+            }
+
+            percentileNanos = Histogram.percentile(counts, percentile);
+            return true;
+        }
+        else
+        {
+            return false;
+        }
+    }
+}
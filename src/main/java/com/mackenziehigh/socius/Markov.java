@@ -0,0 +1,450 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Context;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a random sequence of messages, based on a Markov chain,
+ * which is useful for generating synthetic traffic for load testing.
+ *
+ * <p>
+ * Each state in the chain is a message. Whenever a tick arrives,
+ * the generator randomly transitions from the current state to a next state,
+ * per the weights of the outgoing transitions of the current state,
+ * and then sends the next state. Typically, the ticks are provided
+ * by a <code>Clock</code> or an <code>Oscillator</code>.
+ * A single tick can cause multiple transitions, if desired.
+ * </p>
+ *
+ * <p>
+ * The transition tables are stored in flat primitive arrays and are sampled
+ * using the alias method. Thus, each transition takes constant time,
+ * regardless of the number of outgoing transitions,
+ * and requires no allocation.
+ * </p>
+ *
+ * @param <T> is the type of the generated messages.
+ */
+public final class Markov<T>
+        implements Pipeline<Instant, T>
+{
+    /**
+     * Provides the data-input and data-output connectors.
+     */
+    private final Pipeline<Instant, T> procMain;
+
+    /**
+     * These are the states themselves, indexed by state number.
+     */
+    private final Object[] states;
+
+    /**
+     * The outgoing transitions of state (S) are stored
+     * in the range [offsets[S], offsets[S + 1]) of the tables.
+     */
+    private final int[] offsets;
+
+    /**
+     * Alias Table: This is the probability of choosing the primary
+     * target, rather than the alias target, of a column.
+     */
+    private final double[] probabilities;
+
+    /**
+     * Alias Table: These are the primary target states.
+     */
+    private final int[] primaries;
+
+    /**
+     * Alias Table: These are the alias target states.
+     */
+    private final int[] aliases;
+
+    /**
+     * This is the number of transitions to perform per tick.
+     */
+    private final int transitionsPerTick;
+
+    /**
+     * This is the source of randomness, which is only used by the actor.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * This is the number of the current state, which is only used by the actor.
+     */
+    private int current;
+
+    private Markov (final Builder<T> builder)
+    {
+        final int count = builder.transitions.size();
+        this.states = builder.transitions.keySet().toArray();
+        this.offsets = new int[count + 1];
+
+        int columns = 0;
+
+        for (List<Transition> row : builder.transitions.values())
+        {
+            columns += row.size();
+        }
+
+        this.probabilities = new double[columns];
+        this.primaries = new int[columns];
+        this.aliases = new int[columns];
+
+        final Map<Object, Integer> numbers = new LinkedHashMap<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            numbers.put(states[i], i);
+        }
+
+        int offset = 0;
+
+        for (int i = 0; i < count; i++)
+        {
+            final List<Transition> row = builder.transitions.get(states[i]);
+            offsets[i] = offset;
+            buildAliasTable(row, numbers, offset);
+            offset += row.size();
+        }
+
+        offsets[count] = offset;
+
+        this.current = numbers.get(builder.initial);
+        this.transitionsPerTick = builder.transitionsPerTick;
+        this.random = builder.seed == null ? new SplittableRandom() : new SplittableRandom(builder.seed);
+        this.procMain = Pipeline.fromContextScript(builder.stage, this::onTick);
+    }
+
+    /**
+     * Build the alias table for one state using Vose's algorithm.
+     */
+    private void buildAliasTable (final List<Transition> row,
+                                  final Map<Object, Integer> numbers,
+                                  final int offset)
+    {
+        final int n = row.size();
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        double total = 0;
+
+        for (Transition transition : row)
+        {
+            total += transition.weight;
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            scaled[i] = row.get(i).weight * n / total;
+            primaries[offset + i] = numbers.get(row.get(i).target);
+
+            if (scaled[i] < 1.0)
+            {
+                small[smallCount++] = i;
+            }
+            else
+            {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0)
+        {
+            final int less = small[--smallCount];
+            final int more = large[--largeCount];
+
+            probabilities[offset + less] = scaled[less];
+            aliases[offset + less] = primaries[offset + more];
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+
+            if (scaled[more] < 1.0)
+            {
+                small[smallCount++] = more;
+            }
+            else
+            {
+                large[largeCount++] = more;
+            }
+        }
+
+        /**
+         * Any remaining columns are (within rounding error) exactly full.
+         */
+        while (largeCount > 0)
+        {
+            final int column = large[--largeCount];
+            probabilities[offset + column] = 1.0;
+            aliases[offset + column] = primaries[offset + column];
+        }
+
+        while (smallCount > 0)
+        {
+            final int column = small[--smallCount];
+            probabilities[offset + column] = 1.0;
+            aliases[offset + column] = primaries[offset + column];
+        }
+    }
+
+    /**
+     * Randomly choose the next state.
+     *
+     * @param state is the number of the current state.
+     * @return the number of the next state.
+     */
+    int next (final int state)
+    {
+        final int offset = offsets[state];
+        final int column = offset + random.nextInt(offsets[state + 1] - offset);
+        return random.nextDouble() < probabilities[column] ? primaries[column] : aliases[column];
+    }
+
+    @SuppressWarnings ("unchecked")
+    private void onTick (final Context<Instant, T> context,
+                         final Instant tick)
+    {
+        for (int i = 0; i < transitionsPerTick; i++)
+        {
+            current = next(current);
+            context.sendFrom((T) states[current]);
+        }
+    }
+
+    /**
+     * Get the number of distinct states in the chain.
+     *
+     * @return the number of states.
+     */
+    public int stateCount ()
+    {
+        return states.length;
+    }
+
+    /**
+     * Get the number of transitions in the chain.
+     *
+     * @return the number of edges in the transition graph.
+     */
+    public int transitionCount ()
+    {
+        return offsets[states.length];
+    }
+
+    /**
+     * Ticks sent to this input cause the generator to transition.
+     *
+     * @return the tick-input.
+     */
+    @Override
+    public Input<Instant> dataIn ()
+    {
+        return procMain.dataIn();
+    }
+
+    /**
+     * The generated messages will be sent to this output.
+     *
+     * @return the data-output.
+     */
+    @Override
+    public Output<T> dataOut ()
+    {
+        return procMain.dataOut();
+    }
+
+    /**
+     * Factory Method.
+     *
+     * @param <T> is the type of the generated messages.
+     * @param stage will be used to create private actors.
+     * @return a new builder that can build the desired object.
+     */
+    public static <T> Builder<T> newMarkov (final Stage stage)
+    {
+        return new Builder<>(stage);
+    }
+
+    /**
+     * An outgoing edge of a state, which is only used during building.
+     */
+    private static final class Transition
+    {
+        public final Object target;
+
+        public final double weight;
+
+        private Transition (final Object target,
+                            final double weight)
+        {
+            this.target = target;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Builder.
+     *
+     * @param <T> is the type of the generated messages.
+     */
+    public static final class Builder<T>
+    {
+        private final Stage stage;
+
+        private final Map<T, List<Transition>> transitions = new LinkedHashMap<>();
+
+        private T initial;
+
+        private Long seed;
+
+        private int transitionsPerTick = 1;
+
+        private Builder (final Stage stage)
+        {
+            this.stage = Objects.requireNonNull(stage, "stage");
+        }
+
+        /**
+         * Specify the state that the chain will start in.
+         *
+         * <p>
+         * The initial state itself is not sent.
+         * By default, the initial state is the source of the first transition.
+         * </p>
+         *
+         * @param state is the initial state.
+         * @return this.
+         */
+        public Builder<T> withInitialState (final T state)
+        {
+            this.initial = Objects.requireNonNull(state, "state");
+            return this;
+        }
+
+        /**
+         * Add a transition from one state to another.
+         *
+         * <p>
+         * The probability of a transition is its weight divided by
+         * the total weight of all of the transitions out of the same state.
+         * </p>
+         *
+         * @param source is the state being transitioned from.
+         * @param target is the state being transitioned to.
+         * @param weight is the relative likelihood of this transition.
+         * @return this.
+         */
+        public Builder<T> withTransition (final T source,
+                                          final T target,
+                                          final double weight)
+        {
+            Objects.requireNonNull(source, "source");
+            Objects.requireNonNull(target, "target");
+
+            if (weight <= 0 || Double.isFinite(weight) == false)
+            {
+                throw new IllegalArgumentException("weight");
+            }
+
+            if (initial == null)
+            {
+                initial = source;
+            }
+
+            transitions.computeIfAbsent(source, x -> new ArrayList<>()).add(new Transition(target, weight));
+            return this;
+        }
+
+        /**
+         * Specify the number of transitions to perform per incoming tick.
+         *
+         * @param count is the number of messages to send per tick.
+         * @return this.
+         */
+        public Builder<T> withTransitionsPerTick (final int count)
+        {
+            if (count < 1)
+            {
+                throw new IllegalArgumentException("count < 1");
+            }
+            else
+            {
+                this.transitionsPerTick = count;
+                return this;
+            }
+        }
+
+        /**
+         * Specify the seed of the random-number-generator,
+         * which makes the generated sequence reproducible.
+         *
+         * @param seed will be used to seed the random-number-generator.
+         * @return this.
+         */
+        public Builder<T> withSeed (final long seed)
+        {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Build.
+         *
+         * @return the new object.
+         * @throws IllegalStateException if a state has no outgoing transitions.
+         */
+        public Markov<T> build ()
+        {
+            if (transitions.isEmpty())
+            {
+                throw new IllegalStateException("No Transitions");
+            }
+
+            if (transitions.containsKey(initial) == false)
+            {
+                throw new IllegalStateException("Dead End: " + initial);
+            }
+
+            for (List<Transition> row : transitions.values())
+            {
+                for (Transition transition : row)
+                {
+                    if (transitions.containsKey(transition.target) == false)
+                    {
+                        throw new IllegalStateException("Dead End: " + transition.target);
+                    }
+                }
+            }
+
+            return new Markov<>(this);
+        }
+    }
+}
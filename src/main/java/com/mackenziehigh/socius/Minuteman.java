@@ -18,17 +18,20 @@ package com.mackenziehigh.socius;
 import com.mackenziehigh.cascade.Cascade.Stage;
 import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Date;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * A clock that sends a tick once per minute,
  * as close to the top of the minute as possible.
+ *
+ * <p>
+ * A minuteman is merely a <code>CalendarClock</code> that ticks every minute.
+ * Thus, a minuteman does not have a thread of its own; rather,
+ * the ticks are scheduled on the default-executor,
+ * unless another executor is specified.
+ * </p>
  */
 public final class Minuteman
         implements Source<Instant>
@@ -36,33 +39,21 @@ public final class Minuteman
     /**
      * Effectively, this is the clock (time source) itself.
      */
-    private final Timer timer;
+    private final CalendarClock clock;
 
-    /**
-     * This flag will become true, when start() is called.
-     */
-    private final AtomicBoolean started = new AtomicBoolean();
+    private Minuteman (final Stage stage,
+                       final ScheduledExecutorService service)
+    {
+        Objects.requireNonNull(stage, "stage");
 
-    /**
-     * This flag will become true, when stop() is called.
-     */
-    private final AtomicBoolean stopped = new AtomicBoolean();
+        final CalendarClock.Builder builder = CalendarClock.newCalendarClock(stage).withSchedule("* * * * *");
 
-    /**
-     * This actor provides the output connector.
-     */
-    private final Processor<Instant> procClockOut;
-
-    /**
-     * This is when the clock is scheduled to tick next.
-     */
-    private volatile Instant time;
+        if (service != null)
+        {
+            builder.poweredBy(service);
+        }
 
-    private Minuteman (final Stage stage)
-    {
-        Objects.requireNonNull(stage, "stage");
-        this.timer = new Timer(getClass().getSimpleName(), true);
-        this.procClockOut = Processor.fromIdentityScript(stage);
+        this.clock = builder.build();
     }
 
     /**
@@ -80,7 +71,7 @@ public final class Minuteman
      */
     public Optional<Instant> scheduledTick ()
     {
-        return Optional.ofNullable(time);
+        return clock.scheduledTick();
     }
 
     /**
@@ -91,7 +82,7 @@ public final class Minuteman
     @Override
     public Output<Instant> dataOut ()
     {
-        return procClockOut.dataOut();
+        return clock.dataOut();
     }
 
     /**
@@ -105,52 +96,23 @@ public final class Minuteman
      */
     public Minuteman start ()
     {
-        if (started.compareAndSet(false, true))
-        {
-            schedule(Instant.now());
-        }
-
+        clock.start();
         return this;
     }
 
-    private void schedule (final Instant now)
-    {
-        /**
-         * This particular task object will only execute once.
-         * When it executes, it will cancel itself, and then create
-         * a new task object that will execute a minute later.
-         */
-        final TimerTask task = new TimerTask()
-        {
-            @Override
-            public void run ()
-            {
-                final Instant now = time.truncatedTo(ChronoUnit.MINUTES);
-                procClockOut.dataIn().send(now);
-                cancel();
-                schedule(now);
-            }
-        };
-
-        /**
-         * Schedule the task to execute at the top of the next minute.
-         */
-        time = now.truncatedTo(ChronoUnit.MINUTES).plusSeconds(60);
-        timer.schedule(task, Date.from(time));
-    }
-
     /**
      * Call this method to cause the clock to stop ticking.
      *
      * <p>
-     * This method is a no-op, if the clock was already started.
+     * The pending tick, if any, is cancelled.
+     * This method is a no-op, if the clock was already stopped.
      * </p>
      *
      * @return this.
      */
     public Minuteman stop ()
     {
-        stopped.set(true);
+        clock.stop();
         return this;
     }
 
@@ -162,6 +124,20 @@ public final class Minuteman
      */
     public static Minuteman newMinuteman (final Stage stage)
     {
-        return new Minuteman(stage);
+        return new Minuteman(stage, null);
+    }
+
+    /**
+     * Factory Method.
+     *
+     * @param stage will be used to create private actors.
+     * @param service will power the clock.
+     * @return a builder that can be used to create a clock.
+     */
+    public static Minuteman newMinuteman (final Stage stage,
+                                          final ScheduledExecutorService service)
+    {
+        Objects.requireNonNull(service, "service");
+        return new Minuteman(stage, service);
     }
 }
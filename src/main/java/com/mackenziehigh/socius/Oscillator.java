@@ -21,14 +21,46 @@ import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.LongFunction;
 
 /**
  * A clock that sends ticks at a variable frequency.
+ *
+ * <p>
+ * Alternatively, an oscillator can be powered by a <code>TickScheduler</code>,
+ * in which case the ticks of all of the oscillators that use the same scheduler
+ * are scheduled using a single timing-wheel, rather than individually
+ * via the executor, at the cost of rounding each delay up to the resolution thereof.
+ * </p>
+ *
+ * <p>
+ * The waveform can be precomputed into a table of periods, which repeats once exhausted,
+ * so that no function calls, nor allocations, are needed to compute each delay.
+ * </p>
+ *
+ * <p>
+ * For high frequencies, such as 100,000 ticks per second, an oscillator can be
+ * driven by a dedicated precision timing loop, rather than by an executor.
+ * The loop parks its thread until shortly before each tick and then spins
+ * until the tick is due, which avoids the wake-up latency of parking.
+ * Each tick is scheduled relative to when the oscillator started,
+ * rather than relative to the previous tick; therefore, lateness does not accumulate.
+ * The lateness (jitter) of each tick is recorded, which can be obtained via <code>metrics()</code>.
+ * If the loop falls behind, due to a long pause, then at most a limited burst
+ * of the missed ticks is sent, and the remainder are skipped,
+ * which can be counted via <code>missedTickCount()</code>.
+ * </p>
+ *
+ * <p>
+ * If the waveform throws an exception, or returns null, then the oscillator stops,
+ * and the exception is reported to the uncaught-exception handler of the ticking thread.
+ * </p>
  */
 public final class Oscillator
         implements Source<Instant>
@@ -43,6 +75,44 @@ public final class Oscillator
      */
     private final LongFunction<Duration> waveform;
 
+    /**
+     * These are the precomputed delays, in nanoseconds, between successive ticks, if any.
+     */
+    private final long[] table;
+
+    /**
+     * This is the amount of time before each tick, during which the
+     * precision loop spins, rather than parks, or zero, if the oscillator
+     * is not driven by a precision loop.
+     */
+    private final long spinNanos;
+
+    /**
+     * This histogram records the lateness of each tick, if driven by a precision loop.
+     */
+    private final Histogram jitter;
+
+    /**
+     * This is the maximum number of late ticks that the precision loop sends back-to-back.
+     */
+    private final int maxBurst;
+
+    /**
+     * This is the number of ticks that the precision loop skipped, due to falling behind.
+     */
+    private final AtomicLong missedTickCount = new AtomicLong();
+
+    /**
+     * This is the thread that runs the precision loop, if any.
+     */
+    private volatile Thread loop;
+
+    /**
+     * This task is scheduled on the executor, whenever a tick is due.
+     * This field merely avoids allocating a new task per tick.
+     */
+    private final Runnable tick = this::onTick;
+
     /**
      * This flag will become true, when start() is called.
      */
@@ -63,12 +133,37 @@ public final class Oscillator
      */
     private final Processor<Instant> procClockOut;
 
+    /**
+     * This is the shared scheduler that powers this oscillator, if any.
+     */
+    private final TickScheduler scheduler;
+
+    /**
+     * This actor performs the ticks that are scheduled via the shared scheduler, if any.
+     */
+    private final Processor<Object> procWake;
+
     private Oscillator (final Builder builder)
     {
-        this.waveform = builder.waveform;
-        this.service = builder.service != null ? builder.service : DefaultExecutor.instance().service();
+        this.table = builder.table;
+        this.waveform = table == null ? builder.waveform : x -> Duration.ofNanos(table[(int) (x % table.length)]);
+        this.spinNanos = builder.spinNanos;
+        this.jitter = spinNanos > 0 ? new Histogram() : null;
+        this.maxBurst = builder.maxBurst;
+        this.scheduler = builder.scheduler;
+
+        if (scheduler != null)
+        {
+            this.service = scheduler.service();
+        }
+        else
+        {
+            this.service = builder.service != null ? builder.service : DefaultExecutor.instance().service();
+        }
+
         final Stage stage = Cascade.newStage(service);
         this.procClockOut = Processor.fromIdentityScript(stage);
+        this.procWake = Processor.fromConsumerScript(stage, (Object x) -> onTick());
     }
 
     /**
@@ -101,6 +196,47 @@ public final class Oscillator
         return service.equals(DefaultExecutor.instance().service());
     }
 
+    /**
+     * Determine whether this oscillator is powered by a shared tick-scheduler.
+     *
+     * @return true, if the oscillator shares a timing-wheel with other oscillators.
+     */
+    public boolean isUsingTickScheduler ()
+    {
+        return scheduler != null;
+    }
+
+    /**
+     * Determine whether this oscillator is driven by a dedicated precision timing loop.
+     *
+     * @return true, if <code>withPrecisionLoop()</code> was invoked on the builder.
+     */
+    public boolean isUsingPrecisionLoop ()
+    {
+        return spinNanos > 0;
+    }
+
+    /**
+     * Get the number of ticks that were skipped, because the precision loop fell behind.
+     *
+     * @return the number of skipped ticks, which is always zero,
+     * if not driven by a precision loop.
+     */
+    public long missedTickCount ()
+    {
+        return missedTickCount.get();
+    }
+
+    /**
+     * Get a snapshot of the statistics regarding the lateness of the ticks.
+     *
+     * @return the current statistics, or empty, if not driven by a precision loop.
+     */
+    public Optional<Metrics> metrics ()
+    {
+        return jitter == null ? Optional.empty() : Optional.of(new Metrics(jitter.snapshot()));
+    }
+
     /**
      * This output will transmit ticks from the clock.
      *
@@ -123,9 +259,23 @@ public final class Oscillator
      */
     public Oscillator start ()
     {
-        if (started.compareAndSet(false, true))
+        if (started.compareAndSet(false, true) == false)
+        {
+            return this;
+        }
+        else if (spinNanos > 0)
+        {
+            loop = new Thread(this::runPrecisionLoop, getClass().getSimpleName());
+            loop.setDaemon(true);
+            loop.start();
+        }
+        else if (scheduler != null)
+        {
+            procWake.accept(this);
+        }
+        else
         {
-            service.submit(this::onTick);
+            service.submit(tick);
         }
 
         return this;
@@ -136,11 +286,126 @@ public final class Oscillator
         final long seqnum = tickCount.getAndIncrement();
         procClockOut.dataIn().send(Instant.now());
 
-        if (stopped.get() == false)
+        if (stopped.get())
+        {
+            return;
+        }
+
+        /**
+         * An exception would otherwise be silently swallowed by the executor,
+         * which would leave the oscillator stuck, rather than stopped.
+         */
+        try
+        {
+            if (scheduler != null)
+            {
+                scheduler.schedule(procWake.dataIn(), this, Duration.ofNanos(periodNanos(seqnum)));
+            }
+            else
+            {
+                service.schedule(tick, periodNanos(seqnum), TimeUnit.NANOSECONDS);
+            }
+        }
+        catch (Throwable ex)
+        {
+            stopped.set(true);
+            TimingWheel.report(ex);
+        }
+    }
+
+    private void runPrecisionLoop ()
+    {
+        try
+        {
+            tickPrecisely();
+        }
+        catch (Throwable ex)
+        {
+            stopped.set(true);
+            throw ex;
+        }
+    }
+
+    private void tickPrecisely ()
+    {
+        /**
+         * The wall-clock is only read once; the time of each tick is derived
+         * from the monotonic clock, which is far cheaper to read.
+         */
+        final Instant originInstant = Instant.now();
+        final long originNanos = System.nanoTime();
+        long deadline = originNanos;
+        long seqnum = 0;
+        int burst = 0;
+
+        while (stopped.get() == false)
+        {
+            final long now = System.nanoTime();
+            final long remaining = deadline - now;
+
+            if (remaining > spinNanos)
+            {
+                LockSupport.parkNanos(this, remaining - spinNanos);
+            }
+            else if (remaining > 0)
+            {
+                Thread.onSpinWait();
+            }
+            else
+            {
+                jitter.record(-remaining);
+                tickCount.incrementAndGet();
+                procClockOut.accept(originInstant.plusNanos(deadline - originNanos));
+                deadline += periodNanos(seqnum++);
+
+                /**
+                 * If the next tick is already due, then the loop has fallen behind.
+                 * Once too many late ticks have been sent back-to-back,
+                 * skip the remaining missed ticks, rather than flooding the consumers.
+                 */
+                if (deadline - now > 0)
+                {
+                    burst = 0;
+                }
+                else if (++burst >= maxBurst)
+                {
+                    burst = 0;
+
+                    while (deadline - now <= 0)
+                    {
+                        final long period = periodNanos(seqnum++);
+                        missedTickCount.incrementAndGet();
+
+                        if (period == 0)
+                        {
+                            deadline = now;
+                            break;
+                        }
+
+                        deadline += period;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the delay between the given tick and the next tick.
+     *
+     * @param seqnum identifies the tick.
+     * @return the delay in nanoseconds, which is never negative.
+     */
+    private long periodNanos (final long seqnum)
+    {
+        if (table != null)
+        {
+            return table[(int) (seqnum % table.length)];
+        }
+        else
         {
             final Duration delay = waveform.apply(seqnum);
             Objects.requireNonNull(delay, "delay");
-            service.schedule(this::onTick, delay.toNanos(), TimeUnit.NANOSECONDS);
+            return Math.max(0, delay.toNanos());
         }
     }
 
@@ -156,6 +421,14 @@ public final class Oscillator
     public Oscillator stop ()
     {
         stopped.set(true);
+
+        final Thread thread = loop;
+
+        if (thread != null)
+        {
+            LockSupport.unpark(thread);
+        }
+
         return this;
     }
 
@@ -178,6 +451,14 @@ public final class Oscillator
 
         private ScheduledExecutorService service;
 
+        private TickScheduler scheduler;
+
+        private long[] table;
+
+        private long spinNanos = 0;
+
+        private int maxBurst = 1;
+
         private LongFunction<Duration> waveform = x -> oneSecond;
 
         private Builder ()
@@ -205,6 +486,139 @@ public final class Oscillator
             return this;
         }
 
+        /**
+         * Specify the periodicity of the oscillations as a precomputed table,
+         * which overrides any waveform specified via <code>withWaveform()</code>.
+         *
+         * <p>
+         * Element (N) of the table is the delay, in nanoseconds, after tick (N).
+         * Once the end of the table is reached, the table repeats from the start.
+         * Each delay must be positive, since a table of zero delays
+         * would cause the oscillator to tick continuously.
+         * </p>
+         *
+         * @param periods are the delays between successive ticks.
+         * @return this.
+         */
+        public Builder withWaveformTable (final long[] periods)
+        {
+            Objects.requireNonNull(periods, "periods");
+
+            if (periods.length < 1)
+            {
+                throw new IllegalArgumentException("periods.length < 1");
+            }
+
+            for (long period : periods)
+            {
+                if (period <= 0)
+                {
+                    throw new IllegalArgumentException("period <= 0");
+                }
+            }
+
+            this.table = periods.clone();
+            return this;
+        }
+
+        /**
+         * Precompute the first (length) periods of a waveform into a table,
+         * which then repeats, once exhausted.
+         *
+         * @param waveform is a function that takes a sequence-number
+         * as input and produces the delay until the next tick.
+         * @param length is the number of periods to precompute.
+         * @return this.
+         * @see #withWaveformTable(long[])
+         */
+        public Builder withWaveformTable (final LongFunction<Duration> waveform,
+                                          final int length)
+        {
+            Objects.requireNonNull(waveform, "waveform");
+
+            if (length < 1)
+            {
+                throw new IllegalArgumentException("length < 1");
+            }
+
+            final long[] periods = new long[length];
+
+            for (int i = 0; i < length; i++)
+            {
+                periods[i] = Objects.requireNonNull(waveform.apply(i), "delay").toNanos();
+            }
+
+            return withWaveformTable(periods);
+        }
+
+        /**
+         * Drive the oscillator using a dedicated precision timing loop,
+         * which spins for the last 50 microseconds before each tick.
+         *
+         * @return this.
+         * @see #withPrecisionLoop(Duration)
+         */
+        public Builder withPrecisionLoop ()
+        {
+            return withPrecisionLoop(Duration.ofNanos(50_000));
+        }
+
+        /**
+         * Drive the oscillator using a dedicated precision timing loop,
+         * rather than an executor.
+         *
+         * <p>
+         * The loop runs on a thread of its own, which parks until the given
+         * threshold before each tick and then spins until the tick is due.
+         * A larger threshold reduces jitter at the cost of CPU time.
+         * If the delay between ticks is less than the threshold,
+         * then the thread effectively spins continuously.
+         * </p>
+         *
+         * @param spinThreshold is how long before each tick to begin spinning.
+         * @return this.
+         */
+        public Builder withPrecisionLoop (final Duration spinThreshold)
+        {
+            Objects.requireNonNull(spinThreshold, "spinThreshold");
+
+            if (spinThreshold.isNegative() || spinThreshold.isZero())
+            {
+                throw new IllegalArgumentException("spinThreshold <= 0");
+            }
+            else
+            {
+                this.spinNanos = spinThreshold.toNanos();
+                return this;
+            }
+        }
+
+        /**
+         * Specify the maximum number of late ticks that the precision loop
+         * will send back-to-back, after falling behind, before skipping
+         * the remaining missed ticks.
+         *
+         * <p>
+         * By default, the limit is one; therefore, after a pause,
+         * a single tick is sent, and the missed ticks are skipped.
+         * </p>
+         *
+         * @param limit is the maximum burst size.
+         * @return this.
+         */
+        public Builder withMaxBurst (final int limit)
+        {
+            if (limit < 1)
+            {
+                throw new IllegalArgumentException("limit < 1");
+            }
+            else
+            {
+                this.maxBurst = limit;
+                return this;
+            }
+        }
+
         /**
          * Specify the executor that powers the clock.
          *
@@ -217,14 +631,84 @@ public final class Oscillator
             return this;
         }
 
+        /**
+         * Specify the shared scheduler that powers the clock,
+         * which overrides any executor specified via <code>poweredBy()</code>.
+         *
+         * @param scheduler will power the clock.
+         * @return this.
+         */
+        public Builder poweredBy (final TickScheduler scheduler)
+        {
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+            return this;
+        }
+
         /**
          * Build the clock.
          *
          * @return the new clock.
+         * @throws IllegalStateException if both a precision loop and a tick-scheduler were specified.
          */
         public Oscillator build ()
         {
+            if (spinNanos > 0 && scheduler != null)
+            {
+                throw new IllegalStateException("Precision Loop Requires Dedicated Thread");
+            }
+
             return new Oscillator(this);
         }
     }
+
+    /**
+     * An immutable snapshot of the lateness (jitter) of the ticks,
+     * which is measured from when each tick was due until it was sent.
+     */
+    public static final class Metrics
+    {
+        private final long[] jitterHistogram;
+
+        private Metrics (final long[] jitterHistogram)
+        {
+            this.jitterHistogram = jitterHistogram;
+        }
+
+        /**
+         * Get the number of ticks whose lateness was recorded.
+         *
+         * @return the number of samples.
+         */
+        public long sampleCount ()
+        {
+            return Histogram.count(jitterHistogram);
+        }
+
+        /**
+         * Get a percentile of the lateness of the ticks.
+         *
+         * <p>
+         * The result is accurate to within 6.25%.
+         * For example, <code>jitter(99.9)</code> is the p999 jitter.
+         * </p>
+         *
+         * @param percentile is between zero and one hundred, inclusive.
+         * @return the lateness at the given percentile,
+         * or zero, if no ticks have been sent.
+         */
+        public Duration jitter (final double percentile)
+        {
+            return Duration.ofNanos(Histogram.percentile(jitterHistogram, percentile));
+        }
+
+        /**
+         * Get the maximum lateness of the ticks.
+         *
+         * @return the worst-case jitter, thus far.
+         */
+        public Duration maxJitter ()
+        {
+            return jitter(100);
+        }
+    }
 }
@@ -0,0 +1,495 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A stack of floors (destinations) that routes incoming requests, in constant-time,
+ * to the appropriate floors based on destinations obtained from within the requests,
+ * and then correlates the replies from all of the floors with the requests.
+ *
+ * <p>
+ * Conceptually, each floor is a <code>Requester</code> dedicated to a single destination.
+ * However, all of the floors share a single correlation engine and a single timer.
+ * Thus, adding a floor only costs a single actor, namely the request-output of the floor,
+ * rather than the actors and the timer of an entire <code>Requester</code>.
+ * Consequently, all of the floors share the same timeout, retry-policy, etc,
+ * and the correlation-keys must be unique across all of the floors.
+ * </p>
+ *
+ * <p>
+ * Requests for destinations that have no floor are dropped immediately.
+ * If a floor is removed while its requests are in-flight,
+ * then those requests will time-out, as usual.
+ * </p>
+ *
+ * @param <D> is the type of the destinations, which identify the floors.
+ * @param <K> is the type of the keys used to correlate requests and replies.
+ * @param <I> is the type of the request messages.
+ * @param <R> is the type of the reply messages.
+ * @param <O> is the type of message created by combining a request and a reply.
+ */
+public final class RequestTower<D, K, I, R, O>
+{
+    /**
+     * This function will extract a destination, from an outgoing request,
+     * which will be used to route the request to the corresponding floor.
+     */
+    private final Function<I, D> destinationFunction;
+
+    /**
+     * This actor drops requests for non-existent floors,
+     * before the requests reach the requester.
+     */
+    private final Processor<I> inputConnector;
+
+    /**
+     * This actor routes outgoing requests, including retries,
+     * from the requester to the appropriate floor.
+     */
+    private final Processor<I> routingConnector;
+
+    /**
+     * This actor provides the dropped-request connector.
+     */
+    private final Processor<I> dropsConnector;
+
+    /**
+     * This is the correlation engine and timer shared by all of the floors.
+     */
+    private final Requester<K, I, R, O> requester;
+
+    /**
+     * This map maps destinations to the request-outputs of the floors.
+     */
+    private final ConcurrentMap<D, Processor<I>> floors = new ConcurrentHashMap<>();
+
+    /**
+     * This is merely an unmodifiable version of the key-set of the floors map,
+     * which can be provided to external code.
+     */
+    private final Set<D> floorSet = Collections.unmodifiableSet(floors.keySet());
+
+    /**
+     * This is used to create the actors of new floors.
+     */
+    private final Stage stage;
+
+    /**
+     * This lock prevents duplicate floors from being added or removed.
+     * This lock is almost always non-contended, so the performance impact is minimal.
+     */
+    private final Object lock = new Object();
+
+    private RequestTower (final Builder<D, K, I, R, O> builder)
+    {
+        this.stage = builder.stage;
+        this.destinationFunction = builder.destinationFunction;
+        this.requester = builder.requester.build();
+        this.inputConnector = Processor.fromConsumerScript(stage, this::onRequestIn);
+        this.routingConnector = Processor.fromConsumerScript(stage, this::onRequestOut);
+        this.dropsConnector = Processor.fromIdentityScript(stage);
+        requester.requestOut().connect(routingConnector.dataIn());
+        requester.droppedRequestOut().connect(dropsConnector.dataIn());
+
+        for (D floor : builder.floors)
+        {
+            put(floor);
+        }
+    }
+
+    private void onRequestIn (final I message)
+    {
+        if (floors.containsKey(destinationFunction.apply(message)))
+        {
+            requester.requestIn().send(message);
+        }
+        else
+        {
+            dropsConnector.accept(message);
+        }
+    }
+
+    private void onRequestOut (final I message)
+    {
+        final Processor<I> floor = floors.get(destinationFunction.apply(message));
+
+        /**
+         * If the floor was removed after the request was admitted,
+         * then the request will simply time-out.
+         */
+        if (floor != null)
+        {
+            floor.accept(message);
+        }
+    }
+
+    /**
+     * Add a floor to the tower.
+     *
+     * @param destination identifies the floor.
+     * @return this.
+     * @throws IllegalStateException if the floor already exists.
+     */
+    public RequestTower<D, K, I, R, O> put (final D destination)
+    {
+        Objects.requireNonNull(destination, "destination");
+
+        synchronized (lock)
+        {
+            if (floors.containsKey(destination))
+            {
+                throw new IllegalStateException("Floor Already Exists");
+            }
+            else
+            {
+                floors.put(destination, Processor.fromIdentityScript(stage));
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Remove a floor from the tower.
+     *
+     * @param destination identifies the floor.
+     * @return this.
+     * @throws IllegalStateException if the floor does not exist.
+     */
+    public RequestTower<D, K, I, R, O> remove (final D destination)
+    {
+        Objects.requireNonNull(destination, "destination");
+
+        synchronized (lock)
+        {
+            if (floors.remove(destination) == null)
+            {
+                throw new IllegalStateException("No Such Floor");
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Get the floors contained in this tower.
+     *
+     * @return an unmodifiable set of the destinations of the floors.
+     */
+    public Set<D> floors ()
+    {
+        return floorSet;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the number of pending requests, across all of the floors.
+     */
+    public int pendingRequestCount ()
+    {
+        return requester.pendingRequestCount();
+    }
+
+    /**
+     * Get a snapshot of the statistics regarding requests and replies,
+     * across all of the floors.
+     *
+     * @return the current statistics, or empty, if metrics are not enabled.
+     */
+    public Optional<Requester.Metrics> metrics ()
+    {
+        return requester.metrics();
+    }
+
+    /**
+     * Send requests to this input.
+     *
+     * @return the request-input.
+     */
+    public Input<I> requestIn ()
+    {
+        return inputConnector.dataIn();
+    }
+
+    /**
+     * Requests for the given destination will be forwarded to this output.
+     *
+     * @param destination identifies the floor.
+     * @return the request-output of the floor.
+     * @throws IllegalStateException if the floor does not exist.
+     */
+    public Output<I> requestOut (final D destination)
+    {
+        Objects.requireNonNull(destination, "destination");
+
+        final Processor<I> floor = floors.get(destination);
+
+        if (floor == null)
+        {
+            throw new IllegalStateException("No Such Floor");
+        }
+        else
+        {
+            return floor.dataOut();
+        }
+    }
+
+    /**
+     * Send replies, from any of the floors, to this input.
+     *
+     * @return the reply-input.
+     */
+    public Input<R> replyIn ()
+    {
+        return requester.replyIn();
+    }
+
+    /**
+     * The result of correlating a request and a
+     * reply will be transmitted via this output.
+     *
+     * @return the result-output.
+     */
+    public Output<O> resultOut ()
+    {
+        return requester.resultOut();
+    }
+
+    /**
+     * Dropped requests will be sent to this output,
+     * including requests for non-existent floors.
+     *
+     * @return the output.
+     */
+    public Output<I> droppedRequestOut ()
+    {
+        return dropsConnector.dataOut();
+    }
+
+    /**
+     * Dropped replies will be sent to this output.
+     *
+     * @return the output.
+     */
+    public Output<R> droppedReplyOut ()
+    {
+        return requester.droppedReplyOut();
+    }
+
+    /**
+     * Factory Method.
+     *
+     * @param <D> is the type of the destinations, which identify the floors.
+     * @param <K> is the type of the keys used to correlate requests and replies.
+     * @param <I> is the type of the request messages.
+     * @param <R> is the type of the reply messages.
+     * @param <O> is the type of message created by combining a request and a reply.
+     * @param stage will be used to create private actors.
+     * @return a new builder that can build the desired object.
+     */
+    public static <D, K, I, R, O> Builder<D, K, I, R, O> newRequestTower (final Stage stage)
+    {
+        return new Builder<>(stage);
+    }
+
+    /**
+     * Builder.
+     *
+     * @param <D> is the type of the destinations, which identify the floors.
+     * @param <K> is the type of the keys used to correlate requests and replies.
+     * @param <I> is the type of the request messages.
+     * @param <R> is the type of the reply messages.
+     * @param <O> is the type of message created by combining a request and a reply.
+     */
+    public static final class Builder<D, K, I, R, O>
+    {
+        private final Stage stage;
+
+        private final Requester.Builder<K, I, R, O> requester;
+
+        private final Set<D> floors = new HashSet<>();
+
+        private Function<I, D> destinationFunction;
+
+        private Builder (final Stage stage)
+        {
+            this.stage = Objects.requireNonNull(stage, "stage");
+            this.requester = Requester.newRequester(stage);
+        }
+
+        /**
+         * Specify how to extract the destination from request-messages.
+         *
+         * @param functor will be used to route request-messages to floors.
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withDestinationFunction (final Function<I, D> functor)
+        {
+            this.destinationFunction = Objects.requireNonNull(functor, "functor");
+            return this;
+        }
+
+        /**
+         * Specify how to extract the key identifier from request-messages.
+         *
+         * @param functor will be used to identify request-messages.
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withRequestKeyFunction (final Function<I, K> functor)
+        {
+            requester.withRequestKeyFunction(functor);
+            return this;
+        }
+
+        /**
+         * Specify how to extract the key identifier from reply-messages.
+         *
+         * @param functor will be used to identify reply-messages.
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withReplyKeyFunction (final Function<R, K> functor)
+        {
+            requester.withReplyKeyFunction(functor);
+            return this;
+        }
+
+        /**
+         * Specify how to combine a request and a reply into a single result.
+         *
+         * @param functor will be used to combine requests and replies.
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withCorrelator (final BiFunction<I, R, O> functor)
+        {
+            requester.withCorrelator(functor);
+            return this;
+        }
+
+        /**
+         * Specify how long to wait for a reply before forwarding the request again.
+         *
+         * @param timeout is how long to wait for replies.
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withTimeout (final Duration timeout)
+        {
+            requester.withTimeout(timeout);
+            return this;
+        }
+
+        /**
+         * Specify how long to wait for a reply before forwarding the request again,
+         * which may vary from one send to the next, such as exponential backoff.
+         *
+         * @param policy decides how long to wait for replies.
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withRetryPolicy (final RetryPolicy policy)
+        {
+            requester.withRetryPolicy(policy);
+            return this;
+        }
+
+        /**
+         * Specify the maximum number of times to send a request,
+         * which includes the first send, plus any necessary retries.
+         *
+         * @param limit is maximum number of times a request will be sent.
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withTries (final int limit)
+        {
+            requester.withTries(limit);
+            return this;
+        }
+
+        /**
+         * Provide the timer that will be shared by all of the floors.
+         *
+         * @param sender will be used to generate callbacks.
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withDelayedSender (final DelayedSender sender)
+        {
+            requester.withDelayedSender(sender);
+            return this;
+        }
+
+        /**
+         * Partition the correlation-keys among multiple engines.
+         *
+         * @param count is the minimum number of engines,
+         * which will be rounded up to the next power-of-two.
+         * @return this.
+         * @see Requester.Builder#withShards(int)
+         */
+        public Builder<D, K, I, R, O> withShards (final int count)
+        {
+            requester.withShards(count);
+            return this;
+        }
+
+        /**
+         * Record statistics regarding requests and replies,
+         * which can be obtained via <code>metrics()</code>.
+         *
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withMetrics ()
+        {
+            requester.withMetrics();
+            return this;
+        }
+
+        /**
+         * Add a floor to the tower.
+         *
+         * @param destination identifies the floor.
+         * @return this.
+         */
+        public Builder<D, K, I, R, O> withFloor (final D destination)
+        {
+            floors.add(Objects.requireNonNull(destination, "destination"));
+            return this;
+        }
+
+        /**
+         * Build the tower.
+         *
+         * @return the new tower.
+         */
+        public RequestTower<D, K, I, R, O> build ()
+        {
+            Objects.requireNonNull(destinationFunction, "destinationFunction");
+            return new RequestTower<>(this);
+        }
+    }
+}
@@ -19,15 +19,29 @@ import com.mackenziehigh.cascade.Cascade.Stage;
 import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
 import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
  * Provides an asynchronous request/reply mechanism.
  *
+ * <p>
+ * Optionally, the number of requests that are in-flight at any one time can be limited.
+ * Once the limit is reached, further requests are either queued, until in-flight
+ * requests complete, or dropped, per the overflow-policy. The backpressure-output
+ * signals when the limit is reached (true) and when it is no longer reached (false),
+ * so that upstream actors can throttle themselves. Alternatively, upstream actors
+ * can use the <code>offer()</code> method, which refuses requests while the limit is reached.
+ * </p>
+ *
  * @param <K> is the type of the keys used to correlate requests and replies.
  * @param <I> is the type of the request messages.
  * @param <R> is the type of the reply messages.
@@ -35,15 +49,27 @@ import java.util.function.Function;
  */
 public final class Requester<K, I, R, O>
 {
+    /**
+     * This is the maximum number of closed handlers to retain for reuse.
+     */
+    private static final int POOL_LIMIT = 1024;
+
+    /**
+     * This message is sent to the request-input, whenever an in-flight request completes,
+     * if the number of in-flight requests is limited.
+     */
+    private static final Object RELEASE = new Object();
+
     /**
      * All of the actors contained herein are on this stage.
      */
     private final Stage stage;
 
     /**
-     * This actor handles incoming requests.
+     * This actor handles incoming requests and the completion of in-flight requests,
+     * which is why the type of this actor is not simply the type of requests.
      */
-    private final Processor<I> dataIn;
+    private final Processor<Object> dataIn;
 
     /**
      * This actor provides the request-out connector.
@@ -71,10 +97,64 @@ public final class Requester<K, I, R, O>
     private final Processor<R> droppedReplyOut;
 
     /**
-     * This is the amount of time to wait after forwarding a request,
+     * This actor provides the backpressure connector.
+     */
+    private final Processor<Boolean> backpressureOut;
+
+    /**
+     * This is the maximum number of requests that can be in-flight at once.
+     */
+    private final int maxInFlight;
+
+    /**
+     * This flag is true, if the number of in-flight requests is limited.
+     */
+    private final boolean limited;
+
+    /**
+     * This is what to do with requests, when the in-flight limit is reached.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * These requests are waiting for in-flight requests to complete.
+     * This queue is only accessed by the request-input actor.
+     */
+    private final Deque<I> backlog = new ArrayDeque<>();
+
+    /**
+     * This is the number of requests that are currently in-flight,
+     * if the number of in-flight requests is limited.
+     * This field is only written by the request-input actor.
+     */
+    private volatile int inFlight = 0;
+
+    /**
+     * This flag is true, if the in-flight limit is currently reached.
+     * This field is only written by the request-input actor.
+     */
+    private volatile boolean saturated = false;
+
+    /**
+     * This is the number of requests in the backlog.
+     */
+    private volatile int queued = 0;
+
+    /**
+     * This object records statistics, if metrics are enabled; otherwise, null.
+     */
+    private final Recorder recorder;
+
+    /**
+     * This object decides when to send duplicate requests, if hedging is enabled; otherwise, null.
+     */
+    private final Hedger hedger;
+
+    /**
+     * This policy decides the amount of time to wait after forwarding a request,
      * before the request is forwarded again (retry occurs).
      */
-    private final Duration timeout;
+    private final RetryPolicy retryPolicy;
 
     /**
      * This is the number of times to forward a request before giving up.
@@ -103,39 +183,46 @@ public final class Requester<K, I, R, O>
     private final BiFunction<I, R, O> correlator;
 
     /**
-     * This processor is used to execute tasks,
-     * which avoids the need to use locks herein,
-     * since locks between the actors would be inappropriate.
-     */
-    private final Processor<Runnable> engine;
-
-    /**
-     * This map maps a key to the the handler that is handling the
-     * request/reply process for the messages identified by that key.
+     * The correlation-keys are partitioned among these shards,
+     * each of which correlates the requests and replies
+     * for its own keys, independently of the other shards.
+     * The length of this array is always a power-of-two.
      */
-    private final Map<K, Handler> handlers = new ConcurrentHashMap<>();
+    private final Shard[] shards;
 
     /**
      * This actor is used to request a callback at a specified time in the future.
      */
     private final DelayedSender delayedSender;
 
+
     private Requester (final Builder<K, I, R, O> builder)
     {
         this.stage = builder.stage;
-        this.dataIn = Processor.fromConsumerScript(stage, this::onRequestIn);
+        this.dataIn = Processor.fromConsumerScript(stage, this::onInput);
         this.requestOut = Processor.fromIdentityScript(stage);
         this.replyIn = Processor.fromConsumerScript(stage, this::onReplyIn);
         this.resultOut = Processor.fromIdentityScript(stage);
         this.droppedRequestOut = Processor.fromIdentityScript(stage);
         this.droppedReplyOut = Processor.fromIdentityScript(stage);
-        this.engine = Processor.fromConsumerScript(stage, task -> task.run());
+        this.backpressureOut = Processor.fromIdentityScript(stage);
+        this.maxInFlight = builder.maxInFlight;
+        this.limited = builder.maxInFlight < Integer.MAX_VALUE;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.recorder = builder.metrics ? new Recorder(builder.tries) : null;
+        this.hedger = builder.hedgePercentile > 0 ? new Hedger(builder.hedgePercentile, builder.hedgeLimit) : null;
         this.keyFuncI = builder.keyFuncI;
         this.keyFuncR = builder.keyFuncR;
         this.correlator = builder.correlator;
-        this.timeout = builder.timeout;
+        this.retryPolicy = Objects.requireNonNull(builder.retryPolicy, "retryPolicy");
         this.tries = builder.tries;
         this.delayedSender = builder.delayedSender != null ? builder.delayedSender : DelayedSender.newDelayedSender();
+        this.shards = new Requester.Shard[builder.shards];
+
+        for (int i = 0; i < shards.length; i++)
+        {
+            shards[i] = new Shard();
+        }
     }
 
     /**
@@ -145,7 +232,89 @@ public final class Requester<K, I, R, O>
      */
     public int pendingRequestCount ()
     {
-        return handlers.size();
+        int count = 0;
+
+        for (Shard shard : shards)
+        {
+            count += shard.handlers.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the number of requests that are waiting for the in-flight limit.
+     */
+    public int queuedRequestCount ()
+    {
+        return queued;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the maximum number of requests that can be in-flight at once.
+     */
+    public int maxInFlight ()
+    {
+        return maxInFlight;
+    }
+
+    /**
+     * Determine whether the in-flight limit is currently reached.
+     *
+     * @return true, if further requests would be queued or dropped.
+     */
+    public boolean isSaturated ()
+    {
+        return saturated;
+    }
+
+    /**
+     * Determine whether duplicate requests are sent, when replies are slow.
+     *
+     * @return true, if <code>withHedging()</code> was invoked on the builder.
+     */
+    public boolean isHedging ()
+    {
+        return hedger != null;
+    }
+
+    /**
+     * Determine whether statistics are being recorded.
+     *
+     * @return true, if <code>withMetrics()</code> was invoked on the builder.
+     */
+    public boolean isMetricsEnabled ()
+    {
+        return recorder != null;
+    }
+
+    /**
+     * Get a snapshot of the statistics regarding requests and replies.
+     *
+     * <p>
+     * The snapshot is not atomic relative to concurrent requests.
+     * Rather, each count is accurate as of the moment it was read.
+     * </p>
+     *
+     * @return the current statistics, or empty, if metrics are not enabled.
+     */
+    public Optional<Metrics> metrics ()
+    {
+        return recorder == null ? Optional.empty() : Optional.of(recorder.snapshot());
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the number of shards that the correlation-keys are partitioned into.
+     */
+    public int shardCount ()
+    {
+        return shards.length;
     }
 
     /**
@@ -163,9 +332,37 @@ public final class Requester<K, I, R, O>
      *
      * @return the request-input.
      */
+    @SuppressWarnings ("unchecked")
     public Input<I> requestIn ()
     {
-        return dataIn.dataIn();
+        return (Input<I>) (Input) dataIn.dataIn();
+    }
+
+    /**
+     * Send a request, unless the in-flight limit is currently reached.
+     *
+     * <p>
+     * Since requests are processed asynchronously, the limit may be
+     * reached by the time that the request is actually processed,
+     * in which case the overflow-policy will be applied to the request.
+     * </p>
+     *
+     * @param request is the request to send.
+     * @return true, if the request was sent; false, if it was refused.
+     */
+    public boolean offer (final I request)
+    {
+        Objects.requireNonNull(request, "request");
+
+        if (saturated)
+        {
+            return false;
+        }
+        else
+        {
+            dataIn.accept(request);
+            return true;
+        }
     }
 
     /**
@@ -219,54 +416,147 @@ public final class Requester<K, I, R, O>
         return droppedReplyOut.dataOut();
     }
 
-    private void onRequestIn (final I message)
+    /**
+     * Backpressure signals will be sent to this output.
+     *
+     * <p>
+     * True will be sent, when the in-flight limit is reached.
+     * False will be sent, when the in-flight limit is no longer reached.
+     * </p>
+     *
+     * @return the output.
+     */
+    public Output<Boolean> backpressureOut ()
     {
-        final Runnable task = () ->
+        return backpressureOut.dataOut();
+    }
+
+    @SuppressWarnings ("unchecked")
+    private void onInput (final Object message)
+    {
+        if (limited == false)
+        {
+            onRequestIn((I) message);
+        }
+        else if (message == RELEASE)
         {
             /**
-             * Obtain the key that identifies the message.
+             * An in-flight request completed.
+             * Admit the queued requests that now fit within the limit.
              */
-            final K key = keyFuncI.apply(message);
+            --inFlight;
+
+            while (inFlight < maxInFlight && backlog.isEmpty() == false)
+            {
+                ++inFlight;
+                onRequestIn(backlog.poll());
+            }
+
+            queued = backlog.size();
+            updateBackpressure();
+        }
+        else if (inFlight < maxInFlight)
+        {
+            ++inFlight;
+            onRequestIn((I) message);
+            updateBackpressure();
+        }
+        else if (overflowPolicy == OverflowPolicy.QUEUE)
+        {
+            backlog.add((I) message);
+            queued = backlog.size();
+        }
+        else
+        {
+            droppedRequestOut.accept((I) message);
+
+            if (recorder != null)
+            {
+                recorder.droppedRequests.increment();
+            }
+        }
+    }
+
+    private void updateBackpressure ()
+    {
+        final boolean full = inFlight >= maxInFlight;
+
+        if (full != saturated)
+        {
+            saturated = full;
+            backpressureOut.accept(full);
+        }
+    }
+
+    /**
+     * Notify the request-input that an in-flight request completed.
+     */
+    private void releasePermit ()
+    {
+        if (limited)
+        {
+            dataIn.accept(RELEASE);
+        }
+    }
 
+    private void onRequestIn (final I message)
+    {
+        /**
+         * Obtain the key that identifies the message.
+         */
+        final K key = keyFuncI.apply(message);
+        final Shard shard = shardOf(key);
+
+        final Runnable task = () ->
+        {
             /**
              * If the message is already being handled (duplicate message),
              * then drop the message; otherwise, assign the handler that
              * will handle the request/reply sequence of operations.
              */
-            if (handlers.containsKey(key))
+            if (shard.handlers.containsKey(key))
             {
                 droppedRequestOut.accept(message);
+                releasePermit();
+
+                if (recorder != null)
+                {
+                    recorder.droppedRequests.increment();
+                }
             }
             else
             {
-                final Handler handler = new Handler(key, message);
-                handlers.put(key, handler);
+                final Handler handler = shard.pool.isEmpty() ? new Handler(shard) : shard.pool.pop();
+                handler.open(key, message);
+                shard.handlers.put(key, handler);
                 handler.execute();
             }
         };
 
         /**
-         * Synchronize the task relative to ones from other actors herein.
+         * Synchronize the task relative to ones from other actors herein,
+         * which pertain to the same key.
          */
-        engine.accept(task);
+        shard.engine.accept(task);
     }
 
     private void onReplyIn (final R message)
     {
+        /**
+         * Obtain the key that identifies the message.
+         */
+        final K key = keyFuncR.apply(message);
+        final Shard shard = shardOf(key);
+
         final Runnable task = () ->
         {
-            /**
-             * Obtain the key that identifies the message.
-             */
-            final K key = keyFuncR.apply(message);
-
             /**
              * If we are still interested in the message,
              * then there will be an associated handler.
              * Notify the handler of the received reply.
              * Otherwise, drop the reply.
              */
-            final Handler handler = handlers.get(key);
+            final Handler handler = shard.handlers.get(key);
             if (handler != null)
             {
                 handler.recv(message);
@@ -274,13 +564,26 @@ public final class Requester<K, I, R, O>
             else
             {
                 droppedReplyOut.accept(message);
+
+                if (recorder != null)
+                {
+                    recorder.droppedReplies.increment();
+                }
             }
         };
 
         /**
-         * Synchronize the task relative to ones from other actors herein.
+         * Synchronize the task relative to ones from other actors herein,
+         * which pertain to the same key.
          */
-        engine.accept(task);
+        shard.engine.accept(task);
+    }
+
+    private Shard shardOf (final K key)
+    {
+        final int hash = Objects.hashCode(key);
+        final int index = (hash ^ (hash >>> 16)) & (shards.length - 1);
+        return shards[index];
     }
 
     /**
@@ -298,21 +601,66 @@ public final class Requester<K, I, R, O>
         return new Builder(stage);
     }
 
+    /**
+     * Correlates the requests and replies for a subset of the keys.
+     */
+    private final class Shard
+    {
+        /**
+         * This processor is used to execute tasks,
+         * which avoids the need to use locks herein,
+         * since locks between the actors would be inappropriate.
+         */
+        private final Processor<Runnable> engine = Processor.fromConsumerScript(stage, task -> task.run());
+
+        /**
+         * This map maps a key to the the handler that is handling the
+         * request/reply process for the messages identified by that key.
+         */
+        private final Map<K, Handler> handlers = new ConcurrentHashMap<>();
+
+        /**
+         * These handlers are closed and available for reuse.
+         * This pool is only accessed by the engine; therefore, no locks are needed.
+         */
+        private final Deque<Handler> pool = new ArrayDeque<>();
+    }
+
     /**
      * Handles the request/reply sequence of actions for a single message.
+     *
+     * <p>
+     * Handlers are recycled, once closed, in order to avoid allocating
+     * a new handler per request. A handler is only recycled once
+     * it is certain that its timeout will never be delivered;
+     * otherwise, a stale timeout could be mistaken for the
+     * timeout of the next request that the handler handles.
+     * All of the methods herein execute on the engine of the shard.
+     * </p>
+     *
+     * <p>
+     * When the timeout expires, the handler itself is sent to the engine,
+     * which then runs the handler; therefore, no per-handler actor is needed.
+     * </p>
      */
     private final class Handler
+            implements Runnable
     {
+        /**
+         * This is the shard that this handler belongs to.
+         */
+        private final Shard shard;
+
         /**
          * This key identifies both the request and the corresponding reply.
          */
-        private final K key;
+        private K key;
 
         /**
          * This is the request that is being handled.
          * This request is identified by the (above) key.
          */
-        private final I request;
+        private I request;
 
         /**
          * This flag will become true, when either:
@@ -321,6 +669,13 @@ public final class Requester<K, I, R, O>
          */
         private boolean closed = false;
 
+        /**
+         * This is the number of callbacks (timeout or hedge),
+         * which could not be cancelled in time, when this handler closed;
+         * therefore, the callbacks will still be delivered.
+         */
+        private int staleCallbacks = 0;
+
         /**
          * This is the number of times that we have forwarded the request.
          * In between each send, we will wait for the timeout to expire.
@@ -335,15 +690,56 @@ public final class Requester<K, I, R, O>
         private R reply;
 
         /**
-         * This actor will receive a message whenever the timeout expires.
+         * This is the currently scheduled timeout, if any,
+         * which will be cancelled, when this handler closes.
+         */
+        private DelayedSender.Handle timer;
+
+        /**
+         * This is the currently scheduled hedge, if any,
+         * which will be cancelled, when this handler closes.
+         */
+        private DelayedSender.Handle hedgeTimer;
+
+        /**
+         * This flag is true, if a duplicate request was sent, due to hedging.
+         */
+        private boolean hedged = false;
+
+        /**
+         * This is when the request was first forwarded.
+         */
+        private long startNanos;
+
+        /**
+         * This is how long the most recent send waits for a reply.
+         */
+        private long waitNanos;
+
+        /**
+         * This task will be run by the engine, when the hedge-delay expires.
+         * This task is created once per handler, since handlers are recycled.
          */
-        private final Processor<Object> callback = Processor.fromConsumerScript(stage, this::onTimeoutExpired);
+        private final Runnable hedge = this::onHedge;
+
+        public Handler (final Shard shard)
+        {
+            this.shard = shard;
+        }
 
-        public Handler (final K key,
-                        final I request)
+        public void open (final K key,
+                          final I request)
         {
             this.key = key;
             this.request = request;
+            this.reply = null;
+            this.sent = 0;
+            this.closed = false;
+            this.staleCallbacks = 0;
+            this.timer = null;
+            this.hedgeTimer = null;
+            this.hedged = false;
+            this.startNanos = System.nanoTime();
         }
 
         public void execute ()
@@ -351,11 +747,7 @@ public final class Requester<K, I, R, O>
             if (closed)
             {
                 /**
-                 * Since we always schedule a callback when forwarding a request,
-                 * we will hit this case one-time, once we receive a reply.
-                 * Although the reply was already processed, the delayed-sender
-                 * will send us our requested wake-up call after we processed the reply.
-                 * In that case, we do not want to process the reply again.
+                 * Prevent the reply from being processed again.
                  * Likewise, we do not want to report the request as dropped,
                  * when we already reported that a reply was received.
                  */
@@ -371,6 +763,23 @@ public final class Requester<K, I, R, O>
                  */
                 final O response = correlator.apply(request, reply);
                 resultOut.dataIn().send(response);
+                final long latencyNanos = System.nanoTime() - startNanos;
+
+                if (sent == 1 && hedged == false)
+                {
+                    retryPolicy.onRoundTrip(latencyNanos);
+                }
+
+                if (sent == 1 && hedger != null)
+                {
+                    hedger.onRoundTrip(latencyNanos);
+                }
+
+                if (recorder != null)
+                {
+                    recorder.recordCompletion(latencyNanos, sent - 1);
+                }
+
                 close();
             }
             else if (sent >= tries)
@@ -383,17 +792,48 @@ public final class Requester<K, I, R, O>
                  * Prevent this method from executing again unintentionally.
                  */
                 droppedRequestOut.dataIn().send(request);
+
+                if (recorder != null)
+                {
+                    recorder.recordExhaustion(sent - 1);
+                }
+
                 close();
             }
             else
             {
                 /**
                  * Forward the request.
-                 * Schedule this method to execute again, when the request times-out.
+                 * Schedule this handler to run on the engine, when the request times-out.
                  */
                 ++sent;
                 requestOut.dataIn().send(request);
-                delayedSender.send(callback.dataIn(), this, timeout);
+
+                if (recorder != null)
+                {
+                    recorder.sends.increment();
+                }
+
+                final Duration wait = retryPolicy.timeout(sent);
+                waitNanos = wait.toNanos();
+                timer = delayedSender.send(shard.engine.dataIn(), this, wait);
+
+                /**
+                 * If hedging is enabled, then schedule the sending of a duplicate request,
+                 * in case the initial send is one of the slowest few.
+                 * Hedging is pointless, if the request will be retried first anyway.
+                 */
+                if (sent == 1 && hedger != null)
+                {
+                    hedger.onSend();
+                }
+
+                final long hedgeDelay = sent == 1 && hedger != null ? hedger.delayNanos() : -1;
+
+                if (hedgeDelay > 0 && hedgeDelay < wait.toNanos())
+                {
+                    hedgeTimer = delayedSender.send(shard.engine.dataIn(), hedge, Duration.ofNanos(hedgeDelay));
+                }
             }
         }
 
@@ -403,45 +843,533 @@ public final class Requester<K, I, R, O>
             execute();
         }
 
-        private void onTimeoutExpired (final Object ignored)
+        /**
+         * This method is invoked by the engine, whenever the timeout expires.
+         */
+        @Override
+        public void run ()
         {
-            /**
-             * Synchronize the task relative to ones from other actors herein.
-             */
-            engine.accept(this::execute);
-        }
+            if (closed)
+            {
+                onStaleCallback();
+            }
+            else
+            {
+                timer = null;
 
-        private void close ()
-        {
-            closed = true;
-            handlers.remove(key);
-        }
-    }
+                if (recorder != null)
+                {
+                    recorder.timeouts.increment();
+                }
 
-    /**
-     * Builder.
-     *
-     * @param <K> is the type of the key used to correlate requests and replies.
-     * @param <I> is the type of the request messages.
-     * @param <R> is the type of the reply messages.
-     * @param <O> is the type of message created by combining a request and a reply.
-     */
-    public static final class Builder<K, I, R, O>
-    {
-        private final Stage stage;
+                if (sent == 1)
+                {
+                    retryPolicy.onTimeout(waitNanos);
+                }
 
-        private Function<I, K> keyFuncI;
+                if (sent == 1 && hedger != null)
+                {
+                    hedger.onTimeout(waitNanos);
+                }
 
-        private Function<R, K> keyFuncR;
+                execute();
+            }
+        }
+
+        /**
+         * This method is invoked by the engine, whenever the hedge-delay expires.
+         */
+        private void onHedge ()
+        {
+            if (closed)
+            {
+                onStaleCallback();
+            }
+            else
+            {
+                /**
+                 * The reply is taking longer than most replies do.
+                 * Send a duplicate request, whose reply may arrive sooner,
+                 * unless too many requests have been hedged recently.
+                 * Whichever reply arrives first will be used.
+                 */
+                hedgeTimer = null;
+
+                if (hedger.tryHedge() == false)
+                {
+                    return;
+                }
+
+                hedged = true;
+                requestOut.dataIn().send(request);
+
+                if (recorder != null)
+                {
+                    recorder.hedges.increment();
+                }
+            }
+        }
+
+        private void onStaleCallback ()
+        {
+            /**
+             * Although the reply was already processed, the delayed-sender
+             * sent us a requested wake-up call, since the callback expired
+             * concurrently with the reply arriving. Once all such callbacks
+             * have been delivered, this handler can safely be recycled.
+             */
+            if (--staleCallbacks == 0)
+            {
+                release();
+            }
+        }
+
+        private void close ()
+        {
+            closed = true;
+            shard.handlers.remove(key);
+            releasePermit();
+
+            /**
+             * If the timeout is still pending, then cancel it,
+             * so that the delayed-sender only holds timeouts
+             * for requests that are truly outstanding.
+             * If the timeout cannot be cancelled, then it will
+             * be delivered later; therefore, the recycling
+             * of this handler must wait until then.
+             * Likewise, for the hedge.
+             */
+            staleCallbacks += timer != null && timer.cancel() == false ? 1 : 0;
+            staleCallbacks += hedgeTimer != null && hedgeTimer.cancel() == false ? 1 : 0;
+            timer = null;
+            hedgeTimer = null;
+
+            if (staleCallbacks == 0)
+            {
+                release();
+            }
+        }
+
+        private void release ()
+        {
+            key = null;
+            request = null;
+            reply = null;
+            timer = null;
+            hedgeTimer = null;
+
+            if (shard.pool.size() < POOL_LIMIT)
+            {
+                shard.pool.push(this);
+            }
+        }
+    }
+
+    /**
+     * Tracks the observed round-trip latency in order to decide when to hedge.
+     *
+     * <p>
+     * The number of hedges is limited by a token-bucket, so that a sudden
+     * increase in the latency cannot cause every request to be duplicated,
+     * which would double the load on an already struggling downstream.
+     * Each initial send deposits a fraction of a token and each hedge
+     * withdraws a whole token. The tokens are fixed-point numbers.
+     * </p>
+     */
+    private static final class Hedger
+    {
+        /**
+         * This is one whole token, which is the cost of a single hedge.
+         */
+        private static final long TOKEN = 1_000_000;
+
+        /**
+         * This is the maximum number of hedges that can be sent in a burst.
+         */
+        private static final long BURST = 10 * TOKEN;
+
+        private final LatencyWindow latencies;
+
+        /**
+         * This is the fraction of a token that is deposited per initial send.
+         */
+        private final long deposit;
+
+        private final AtomicLong tokens = new AtomicLong();
+
+        public Hedger (final double percentile,
+                       final double limit)
+        {
+            this.latencies = new LatencyWindow(percentile);
+            this.deposit = Math.max(1, (long) (limit * TOKEN));
+        }
+
+        /**
+         * Get how long to wait before hedging.
+         *
+         * @return the delay, or negative, if not enough round-trips have been observed yet.
+         */
+        public long delayNanos ()
+        {
+            final long delay = latencies.percentileNanos();
+            return delay < 0 ? delay : Math.max(1, delay);
+        }
+
+        public void onSend ()
+        {
+            long current = tokens.get();
+
+            while (current < BURST && tokens.compareAndSet(current, Math.min(BURST, current + deposit)) == false)
+            {
+                current = tokens.get();
+            }
+        }
+
+        public boolean tryHedge ()
+        {
+            long current = tokens.get();
+
+            while (current >= TOKEN)
+            {
+                if (tokens.compareAndSet(current, current - TOKEN))
+                {
+                    return true;
+                }
+
+                current = tokens.get();
+            }
+
+            return false;
+        }
+
+        public void onRoundTrip (final long latencyNanos)
+        {
+            latencies.record(latencyNanos);
+        }
+
+        /**
+         * When an initial send times-out, the timeout itself is recorded as the latency,
+         * since the true latency is at least that long.
+         *
+         * @param timeoutNanos is how long the initial send waited.
+         */
+        public void onTimeout (final long timeoutNanos)
+        {
+            latencies.record(timeoutNanos);
+        }
+    }
+
+    /**
+     * Records statistics regarding requests and replies.
+     */
+    private static final class Recorder
+    {
+        /**
+         * This is the number of times that requests were forwarded, including retries.
+         */
+        public final LongAdder sends = new LongAdder();
+
+        /**
+         * This is the number of times that timeouts expired.
+         */
+        public final LongAdder timeouts = new LongAdder();
+
+        /**
+         * This is the number of duplicate requests that were sent, due to hedging.
+         */
+        public final LongAdder hedges = new LongAdder();
+
+        /**
+         * This is the number of requests that were correlated with replies.
+         */
+        public final LongAdder completed = new LongAdder();
+
+        /**
+         * This is the number of requests that were dropped, after all tries timed-out.
+         */
+        public final LongAdder exhausted = new LongAdder();
+
+        /**
+         * This is the number of requests that were sent to the dropped-request output.
+         */
+        public final LongAdder droppedRequests = new LongAdder();
+
+        /**
+         * This is the number of replies that were sent to the dropped-reply output.
+         */
+        public final LongAdder droppedReplies = new LongAdder();
+
+        /**
+         * This histogram records the round-trip latency of the completed requests in nanoseconds.
+         */
+        public final Histogram latency = new Histogram();
+
+        /**
+         * Element (N) is the number of requests that were retried N times.
+         * The last element also counts the requests that were retried even more times.
+         */
+        private final LongAdder[] retries;
+
+        public Recorder (final int tries)
+        {
+            retries = new LongAdder[Math.min(tries, 64)];
+
+            for (int i = 0; i < retries.length; i++)
+            {
+                retries[i] = new LongAdder();
+            }
+        }
+
+        public void recordCompletion (final long latencyNanos,
+                                      final int retryCount)
+        {
+            completed.increment();
+            latency.record(latencyNanos);
+            retries[Math.min(retryCount, retries.length - 1)].increment();
+        }
+
+        public void recordExhaustion (final int retryCount)
+        {
+            exhausted.increment();
+            droppedRequests.increment();
+            retries[Math.min(retryCount, retries.length - 1)].increment();
+        }
+
+        public Metrics snapshot ()
+        {
+            final long[] retriesCopy = new long[retries.length];
+
+            for (int i = 0; i < retries.length; i++)
+            {
+                retriesCopy[i] = retries[i].sum();
+            }
+
+            return new Metrics(sends.sum(),
+                               timeouts.sum(),
+                               hedges.sum(),
+                               completed.sum(),
+                               exhausted.sum(),
+                               droppedRequests.sum(),
+                               droppedReplies.sum(),
+                               latency.snapshot(),
+                               retriesCopy);
+        }
+    }
+
+    /**
+     * An immutable snapshot of the statistics regarding requests and replies.
+     */
+    public static final class Metrics
+    {
+        private final long sendCount;
+
+        private final long timeoutCount;
+
+        private final long hedgeCount;
+
+        private final long completedCount;
+
+        private final long exhaustedCount;
+
+        private final long droppedRequestCount;
+
+        private final long droppedReplyCount;
+
+        private final long[] latencyHistogram;
+
+        private final long[] retryHistogram;
+
+        private Metrics (final long sendCount,
+                         final long timeoutCount,
+                         final long hedgeCount,
+                         final long completedCount,
+                         final long exhaustedCount,
+                         final long droppedRequestCount,
+                         final long droppedReplyCount,
+                         final long[] latencyHistogram,
+                         final long[] retryHistogram)
+        {
+            this.sendCount = sendCount;
+            this.timeoutCount = timeoutCount;
+            this.hedgeCount = hedgeCount;
+            this.completedCount = completedCount;
+            this.exhaustedCount = exhaustedCount;
+            this.droppedRequestCount = droppedRequestCount;
+            this.droppedReplyCount = droppedReplyCount;
+            this.latencyHistogram = latencyHistogram;
+            this.retryHistogram = retryHistogram;
+        }
+
+        /**
+         * Get the number of times that requests were forwarded.
+         *
+         * @return the number of sends, including retries, but excluding hedges.
+         */
+        public long sendCount ()
+        {
+            return sendCount;
+        }
+
+        /**
+         * Get the number of times that a request timed-out,
+         * which resulted in either a retry or the request being dropped.
+         *
+         * @return the number of expired timeouts.
+         */
+        public long timeoutCount ()
+        {
+            return timeoutCount;
+        }
+
+        /**
+         * Get the fraction of the sends that timed-out.
+         *
+         * @return the timeout rate, which is between zero and one, inclusive.
+         */
+        public double timeoutRate ()
+        {
+            return sendCount == 0 ? 0 : Math.min(1.0, (double) timeoutCount / sendCount);
+        }
+
+        /**
+         * Get the number of duplicate requests that were sent, due to hedging.
+         *
+         * @return the number of hedges.
+         */
+        public long hedgeCount ()
+        {
+            return hedgeCount;
+        }
+
+        /**
+         * Get the number of requests that were correlated with replies.
+         *
+         * @return the number of results.
+         */
+        public long completedCount ()
+        {
+            return completedCount;
+        }
+
+        /**
+         * Get the number of requests that were dropped, since every try timed-out.
+         *
+         * @return the number of requests that exhausted their retries.
+         */
+        public long exhaustedCount ()
+        {
+            return exhaustedCount;
+        }
+
+        /**
+         * Get the number of requests that were sent to the dropped-request output,
+         * due to being duplicates, exceeding the in-flight limit, or exhausting their retries.
+         *
+         * @return the number of dropped requests.
+         */
+        public long droppedRequestCount ()
+        {
+            return droppedRequestCount;
+        }
+
+        /**
+         * Get the number of replies that were sent to the dropped-reply output.
+         *
+         * @return the number of dropped replies.
+         */
+        public long droppedReplyCount ()
+        {
+            return droppedReplyCount;
+        }
+
+        /**
+         * Get a percentile of the round-trip latency of the completed requests,
+         * which is measured from when a request was first forwarded
+         * until the reply was correlated therewith.
+         *
+         * <p>
+         * The result is accurate to within 6.25%.
+         * For example, <code>latency(99.9)</code> is the p999 latency.
+         * </p>
+         *
+         * @param percentile is between zero and one hundred, inclusive.
+         * @return the latency at the given percentile,
+         * or zero, if no requests have completed.
+         */
+        public Duration latency (final double percentile)
+        {
+            return Duration.ofNanos(Histogram.percentile(latencyHistogram, percentile));
+        }
+
+        /**
+         * Get the histogram of the number of times that requests were retried,
+         * whether the requests ultimately completed or were dropped.
+         *
+         * <p>
+         * Element (N) is the number of requests that were retried N times.
+         * The last element also counts the requests that were retried even more times.
+         * </p>
+         *
+         * @return a copy of the histogram.
+         */
+        public long[] retryHistogram ()
+        {
+            return retryHistogram.clone();
+        }
+    }
+
+    /**
+     * What to do with requests that arrive, when the in-flight limit is reached.
+     */
+    public enum OverflowPolicy
+    {
+        /**
+         * Queue the requests, until enough in-flight requests complete.
+         */
+        QUEUE,
+
+        /**
+         * Send the requests to the dropped-request output.
+         */
+        DROP
+    }
+
+    /**
+     * Builder.
+     *
+     * @param <K> is the type of the key used to correlate requests and replies.
+     * @param <I> is the type of the request messages.
+     * @param <R> is the type of the reply messages.
+     * @param <O> is the type of message created by combining a request and a reply.
+     */
+    public static final class Builder<K, I, R, O>
+    {
+        private final Stage stage;
+
+        private Function<I, K> keyFuncI;
+
+        private Function<R, K> keyFuncR;
 
         private BiFunction<I, R, O> correlator;
 
         private Integer tries;
 
-        private Duration timeout;
+        private RetryPolicy retryPolicy;
 
         private DelayedSender delayedSender;
 
+        private int shards = 1;
+
+        private int maxInFlight = Integer.MAX_VALUE;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.QUEUE;
+
+        private boolean metrics = false;
+
+        private double hedgePercentile = 0;
+
+        private double hedgeLimit = 0;
+
         private Builder (final Stage stage)
         {
             this.stage = Objects.requireNonNull(stage, "stage");
@@ -491,7 +1419,24 @@ public final class Requester<K, I, R, O>
          */
         public Builder<K, I, R, O> withTimeout (final Duration timeout)
         {
-            this.timeout = Objects.requireNonNull(timeout, "timeout");
+            this.retryPolicy = RetryPolicy.fixed(timeout);
+            return this;
+        }
+
+        /**
+         * Specify how long to wait for a reply before forwarding the request again,
+         * which may vary from one send to the next, such as exponential backoff.
+         *
+         * <p>
+         * This method overrides any previous invocation of <code>withTimeout()</code>.
+         * </p>
+         *
+         * @param policy decides how long to wait for replies.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withRetryPolicy (final RetryPolicy policy)
+        {
+            this.retryPolicy = Objects.requireNonNull(policy, "policy");
             return this;
         }
 
@@ -532,6 +1477,166 @@ public final class Requester<K, I, R, O>
             return this;
         }
 
+        /**
+         * Partition the correlation-keys among multiple engines,
+         * so that requests and replies with different keys
+         * can be correlated on different threads simultaneously.
+         *
+         * <p>
+         * Requests and replies with the same key are always
+         * processed by the same engine; therefore, the processing
+         * order for any single key is unchanged.
+         * By default, a single engine is used.
+         * </p>
+         *
+         * @param count is the minimum number of engines,
+         * which will be rounded up to the next power-of-two.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withShards (final int count)
+        {
+            if (count < 1)
+            {
+                throw new IllegalArgumentException("count < 1");
+            }
+            else
+            {
+                this.shards = Integer.highestOneBit(Math.min(count, 1 << 16) * 2 - 1);
+                return this;
+            }
+        }
+
+        /**
+         * Specify the maximum number of requests that can be in-flight at once.
+         *
+         * <p>
+         * A request is in-flight from the time it is first forwarded until either
+         * a reply is received or the request is dropped, due to timing-out.
+         * By default, the number of in-flight requests is unlimited.
+         * </p>
+         *
+         * @param limit is the maximum number of in-flight requests.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withMaxInFlight (final int limit)
+        {
+            if (limit < 1)
+            {
+                throw new IllegalArgumentException("limit < 1");
+            }
+            else
+            {
+                this.maxInFlight = limit;
+                return this;
+            }
+        }
+
+        /**
+         * Specify what to do with requests, when the in-flight limit is reached.
+         *
+         * <p>
+         * By default, such requests will be queued.
+         * </p>
+         *
+         * @param policy is what to do with requests that exceed the limit.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withOverflowPolicy (final OverflowPolicy policy)
+        {
+            this.overflowPolicy = Objects.requireNonNull(policy, "policy");
+            return this;
+        }
+
+        /**
+         * Send a duplicate request, if a reply is not received within
+         * the given percentile of the observed round-trip latency.
+         *
+         * <p>
+         * Equivalent to <code>withHedging(percentile, limit)</code>,
+         * where the limit is twice the fraction of requests that
+         * would normally be hedged, such as 10 percent for the 95th percentile.
+         * </p>
+         *
+         * @param percentile is the percentile of the round-trip latency,
+         * such as 95, after which a duplicate request will be sent.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withHedging (final double percentile)
+        {
+            return withHedging(percentile, Math.min(1.0, 2 * (100 - percentile) / 100));
+        }
+
+        /**
+         * Send a duplicate request, if a reply is not received within
+         * the given percentile of the observed round-trip latency.
+         *
+         * <p>
+         * Whichever reply arrives first will be used.
+         * Any later reply will be sent to the dropped-reply output.
+         * Thus, a few slow replies do not dominate the tail latency.
+         * Only the initial send of a request is hedged; therefore, hedging
+         * sends roughly (100 - percentile) percent more requests.
+         * No requests are hedged, until enough round-trips have been observed.
+         * The percentile only considers recent round-trips and initial sends
+         * that timed-out, so that the hedge-delay follows changes in the latency.
+         * </p>
+         *
+         * <p>
+         * If the latency suddenly increases, then most requests would be hedged,
+         * until the percentile catches up, which would double the load on
+         * a downstream that is already struggling. Therefore, the number
+         * of hedges is limited to the given fraction of the initial sends,
+         * plus a small burst allowance.
+         * </p>
+         *
+         * <p>
+         * The downstream must tolerate receiving duplicate requests.
+         * </p>
+         *
+         * @param percentile is the percentile of the round-trip latency,
+         * such as 95, after which a duplicate request will be sent.
+         * @param limit is the maximum fraction of requests that will be hedged,
+         * such as 0.1 for ten percent.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withHedging (final double percentile,
+                                                final double limit)
+        {
+            if (percentile <= 0 || percentile >= 100 || Double.isNaN(percentile))
+            {
+                throw new IllegalArgumentException("percentile");
+            }
+            else if (limit <= 0 || limit > 1 || Double.isNaN(limit))
+            {
+                throw new IllegalArgumentException("limit");
+            }
+            else
+            {
+                this.hedgePercentile = percentile;
+                this.hedgeLimit = limit;
+                return this;
+            }
+        }
+
+        /**
+         * Record statistics regarding requests and replies,
+         * which can be obtained via <code>metrics()</code>.
+         *
+         * <p>
+         * While metrics are disabled, which is the default,
+         * the only overhead is a null check per event.
+         * While metrics are enabled, each event increments
+         * a striped counter (<code>LongAdder</code>) or a histogram bucket.
+         * </p>
+         *
+         * @return this.
+         */
+        public Builder<K, I, R, O> withMetrics ()
+        {
+            this.metrics = true;
+            return this;
+        }
+
         /**
          * Build.
          *
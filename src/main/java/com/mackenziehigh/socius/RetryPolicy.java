@@ -0,0 +1,205 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides how long a <code>Requester</code> waits for a reply,
+ * before it retries a request or gives up.
+ *
+ * <p>
+ * Implementations must be thread-safe, since a requester
+ * with multiple shards will use its policy concurrently.
+ * </p>
+ */
+@FunctionalInterface
+public interface RetryPolicy
+{
+    /**
+     * Determine how long to wait for a reply to a single send of a request.
+     *
+     * @param attempt is one for the initial send, two for the first retry, etc.
+     * @return how long to wait, which must not be negative.
+     */
+    public Duration timeout (int attempt);
+
+    /**
+     * This method is invoked, whenever a reply is received for a request,
+     * which was only sent once, in order to report the round-trip latency.
+     *
+     * <p>
+     * Replies to retried requests are not reported, since it is ambiguous
+     * which of the sends the reply corresponds to (Karn's algorithm).
+     * By default, this method does nothing.
+     * </p>
+     *
+     * @param latencyNanos is the round-trip latency in nanoseconds.
+     */
+    public default void onRoundTrip (final long latencyNanos)
+    {
+        // Pass.
+    }
+
+    /**
+     * This method is invoked, whenever the initial send of a request
+     * times-out, in order to report that the round-trip latency
+     * is at least as long as the timeout.
+     *
+     * <p>
+     * By default, this method does nothing.
+     * </p>
+     *
+     * @param timeoutNanos is the timeout that expired in nanoseconds.
+     */
+    public default void onTimeout (final long timeoutNanos)
+    {
+        // Pass.
+    }
+
+    /**
+     * Create a new policy that randomly shortens the timeouts of this policy,
+     * so that the retries of many requests, which timed-out at once,
+     * are spread out, rather than hitting the downstream all at once.
+     *
+     * @param fraction is the maximum fraction of each timeout to remove,
+     * which must be between zero (no jitter) and one (full jitter), inclusive.
+     * @return the new policy.
+     */
+    public default RetryPolicy withJitter (final double fraction)
+    {
+        if (fraction < 0 || fraction > 1 || Double.isNaN(fraction))
+        {
+            throw new IllegalArgumentException("fraction");
+        }
+
+        final RetryPolicy self = this;
+
+        return new RetryPolicy()
+        {
+            @Override
+            public Duration timeout (final int attempt)
+            {
+                final long nanos = self.timeout(attempt).toNanos();
+                final double scale = 1.0 - fraction * ThreadLocalRandom.current().nextDouble();
+                return Duration.ofNanos(Math.max(1, (long) (nanos * scale)));
+            }
+
+            @Override
+            public void onRoundTrip (final long latencyNanos)
+            {
+                self.onRoundTrip(latencyNanos);
+            }
+
+            @Override
+            public void onTimeout (final long timeoutNanos)
+            {
+                self.onTimeout(timeoutNanos);
+            }
+        };
+    }
+
+    /**
+     * Create a new policy that always waits the same amount of time.
+     *
+     * @param timeout is how long to wait for each reply.
+     * @return the new policy.
+     */
+    public static RetryPolicy fixed (final Duration timeout)
+    {
+        Objects.requireNonNull(timeout, "timeout");
+
+        if (timeout.isNegative())
+        {
+            throw new IllegalArgumentException("timeout < 0");
+        }
+
+        return attempt -> timeout;
+    }
+
+    /**
+     * Create a new policy that waits exponentially longer after each retry.
+     *
+     * <p>
+     * The timeout of the Nth send is <code>initial * multiplier^(N-1)</code>,
+     * but never more than the given maximum.
+     * </p>
+     *
+     * @param initial is how long to wait for a reply to the initial send.
+     * @param multiplier is how much longer to wait after each retry.
+     * @param maximum is the longest that a single wait can be.
+     * @return the new policy.
+     */
+    public static RetryPolicy exponential (final Duration initial,
+                                           final double multiplier,
+                                           final Duration maximum)
+    {
+        Objects.requireNonNull(initial, "initial");
+        Objects.requireNonNull(maximum, "maximum");
+
+        if (initial.isNegative() || initial.isZero())
+        {
+            throw new IllegalArgumentException("initial <= 0");
+        }
+        else if (multiplier < 1 || Double.isNaN(multiplier))
+        {
+            throw new IllegalArgumentException("multiplier < 1");
+        }
+        else if (maximum.compareTo(initial) < 0)
+        {
+            throw new IllegalArgumentException("maximum < initial");
+        }
+
+        final long initialNanos = initial.toNanos();
+        final long maximumNanos = maximum.toNanos();
+
+        return attempt -> Duration.ofNanos(AdaptiveRetryPolicy.backoff(initialNanos, multiplier, attempt, maximumNanos));
+    }
+
+    /**
+     * Create a new policy that waits a multiple of a percentile
+     * of the observed round-trip latency, which backs off
+     * exponentially after each retry.
+     *
+     * <p>
+     * Thus, when the downstream slows down, the timeouts lengthen accordingly,
+     * rather than retrying requests that would have succeeded anyway.
+     * Only the most recent round-trips are considered, along with
+     * the initial sends that timed-out, which count as taking as long as the timeout.
+     * Until enough round-trips have been observed, the initial timeout is used.
+     * The timeouts are always between the given minimum and maximum.
+     * </p>
+     *
+     * @param percentile is the percentile of the latency to track, such as 99.
+     * @param factor is how many times the percentile to wait for the initial send.
+     * @param multiplier is how much longer to wait after each retry.
+     * @param initial is how long to wait, until enough round-trips are observed.
+     * @param minimum is the shortest that a single wait can be.
+     * @param maximum is the longest that a single wait can be.
+     * @return the new policy.
+     */
+    public static RetryPolicy adaptive (final double percentile,
+                                        final double factor,
+                                        final double multiplier,
+                                        final Duration initial,
+                                        final Duration minimum,
+                                        final Duration maximum)
+    {
+        return new AdaptiveRetryPolicy(percentile, factor, multiplier, initial, minimum, maximum);
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded lock-free ring buffer, which supports a single producer
+ * and any number of consumers, and which never allocates after construction.
+ *
+ * <p>
+ * The producer is typically an actor, which only ever runs on
+ * one thread at a time, which satisfies the single-producer rule.
+ * </p>
+ *
+ * <p>
+ * The head and the tail are ever-increasing sequence numbers.
+ * Each slot also has a sequence number, which says whose turn it is to use the slot.
+ * The producer writes an element into a slot, once the slot is free,
+ * and then advances the sequence number of the slot, which publishes the element.
+ * A consumer advances the head via compare-and-set, which claims the element at the head.
+ * If the compare-and-set fails, then another consumer claimed the element first,
+ * so the consumer tries again. Having claimed the element, the consumer
+ * reads the element, clears the slot, and then advances the sequence number
+ * of the slot, which frees the slot for reuse by the producer.
+ * Thus, consumed elements do not remain reachable from the buffer.
+ * </p>
+ *
+ * @param <E> is the type of the elements.
+ */
+final class RingBuffer<E>
+{
+    private final AtomicReferenceArray<E> slots;
+
+    /**
+     * Slot (N) holds element (S), if the sequence number of the slot is (S + 1),
+     * and is free for element (S), if the sequence number of the slot is (S).
+     */
+    private final AtomicLongArray turns;
+
+    private final int mask;
+
+    /**
+     * This is the sequence number of the next element to consume.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * This is the sequence number of the next element to produce.
+     * Only the producer writes this field.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param capacity is the minimum capacity of the buffer,
+     * which will be rounded up to the next power-of-two.
+     */
+    public RingBuffer (final int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity < 1");
+        }
+        else if (capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("capacity > 2^30");
+        }
+
+        this.slots = new AtomicReferenceArray<>(Integer.highestOneBit(capacity * 2 - 1));
+        this.turns = new AtomicLongArray(slots.length());
+        this.mask = slots.length() - 1;
+
+        for (int i = 0; i < turns.length(); i++)
+        {
+            turns.set(i, i);
+        }
+    }
+
+    /**
+     * Get the maximum number of elements that can be stored herein.
+     *
+     * @return the capacity.
+     */
+    public int capacity ()
+    {
+        return slots.length();
+    }
+
+    /**
+     * Get the number of elements that are currently stored herein.
+     *
+     * @return the approximate size, if elements are concurrently produced or consumed.
+     */
+    public int size ()
+    {
+        final long h = head.get();
+        final long t = tail.get();
+        return (int) Math.max(0, Math.min(t - h, slots.length()));
+    }
+
+    /**
+     * Determine whether the buffer is currently empty.
+     *
+     * @return true, if there are no elements to consume.
+     */
+    public boolean isEmpty ()
+    {
+        return head.get() >= tail.get();
+    }
+
+    /**
+     * Add an element, if there is room to do so.
+     *
+     * <p>
+     * Only the producer may invoke this method.
+     * </p>
+     *
+     * @param element will be added.
+     * @return true, if the element was added; false, if the buffer was full.
+     */
+    public boolean offer (final E element)
+    {
+        final long t = tail.get();
+        final int index = (int) (t & mask);
+
+        while (turns.get(index) != t)
+        {
+            if (t - head.get() >= slots.length())
+            {
+                return false;
+            }
+
+            /**
+             * A consumer claimed the element in the slot, but has not yet freed the slot,
+             * which only takes a moment, unless the consumer was descheduled.
+             */
+            Thread.yield();
+        }
+
+        slots.set(index, element);
+        turns.set(index, t + 1);
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Add an element, removing the oldest element, if necessary, to make room.
+     *
+     * <p>
+     * Only the producer may invoke this method.
+     * </p>
+     *
+     * @param element will be added.
+     * @return the element that was removed to make room, if any; otherwise, null.
+     */
+    public E overwrite (final E element)
+    {
+        E evicted = null;
+
+        while (offer(element) == false)
+        {
+            evicted = poll();
+        }
+
+        return evicted;
+    }
+
+    /**
+     * Remove the oldest element, if any.
+     *
+     * @return the removed element, or null, if the buffer was empty.
+     */
+    public E poll ()
+    {
+        while (true)
+        {
+            final long h = head.get();
+            final int index = (int) (h & mask);
+
+            if (turns.get(index) != h + 1)
+            {
+                /**
+                 * Either the buffer is empty, or another consumer already
+                 * claimed the element, in which case the head has moved on.
+                 */
+                if (h == head.get())
+                {
+                    return null;
+                }
+            }
+            else if (head.compareAndSet(h, h + 1))
+            {
+                final E element = slots.get(index);
+                slots.set(index, null);
+                turns.set(index, h + slots.length());
+                return element;
+            }
+        }
+    }
+
+    /**
+     * Remove up to the given number of elements, oldest first.
+     *
+     * @param action will receive the removed elements.
+     * @param limit is the maximum number of elements to remove.
+     * @return the number of elements that were removed.
+     */
+    public int drain (final Consumer<? super E> action,
+                      final int limit)
+    {
+        int count = 0;
+
+        while (count < limit)
+        {
+            final E element = poll();
+
+            if (element == null)
+            {
+                break;
+            }
+
+            action.accept(element);
+            ++count;
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,519 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.util.Objects;
+
+/**
+ * An immutable hash-map that supports efficient non-destructive updates.
+ *
+ * <p>
+ * Internally, this class is a hash-array-mapped-trie (HAMT).
+ * Each level of the trie consumes five bits of the hash of a key;
+ * therefore, the trie is at most seven levels deep.
+ * Lookups, insertions, and removals traverse a single path through the trie.
+ * Insertions and removals copy only the nodes on that path,
+ * which are at most thirty-two elements wide each, and share
+ * all of the other nodes with the previous version of the map.
+ * Thus, updates are O(log n), rather than O(n).
+ * </p>
+ *
+ * <p>
+ * Since an instance is never modified after construction,
+ * any number of threads may read an instance without locking.
+ * Lookups do not allocate any objects.
+ * </p>
+ *
+ * @param <K> is the type of the keys.
+ * @param <V> is the type of the values.
+ */
+final class RouteTable<K, V>
+{
+    /**
+     * This is the number of hash bits consumed per level of the trie.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * This mask extracts the hash bits for a single level of the trie.
+     */
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final RouteTable<?, ?> EMPTY = new RouteTable<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+
+    private final int size;
+
+    private RouteTable (final Node root,
+                        final int size)
+    {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Get the empty map.
+     *
+     * @param <K> is the type of the keys.
+     * @param <V> is the type of the values.
+     * @return the empty map.
+     */
+    @SuppressWarnings ("unchecked")
+    public static <K, V> RouteTable<K, V> empty ()
+    {
+        return (RouteTable<K, V>) EMPTY;
+    }
+
+    /**
+     * Get the number of entries in this map.
+     *
+     * @return the number of keys.
+     */
+    public int size ()
+    {
+        return size;
+    }
+
+    /**
+     * Get the value that is associated with a given key.
+     *
+     * @param key identifies the value.
+     * @return the value, or null, if no such value exists.
+     */
+    @SuppressWarnings ("unchecked")
+    public V get (final K key)
+    {
+        Objects.requireNonNull(key, "key");
+        return (V) root.get(hash(key), key, 0);
+    }
+
+    /**
+     * Create a new map that is the same as this map,
+     * except that the given key is associated with the given value.
+     *
+     * @param key identifies the value.
+     * @param value will be associated with the key.
+     * @return the new map.
+     */
+    public RouteTable<K, V> with (final K key,
+                                  final V value)
+    {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        final int hash = hash(key);
+        final boolean exists = root.get(hash, key, 0) != null;
+        final Node modified = root.with(hash, key, value, 0);
+        return new RouteTable<>(modified, exists ? size : size + 1);
+    }
+
+    /**
+     * Create a new map that is the same as this map,
+     * except that the given key is not present therein.
+     *
+     * @param key identifies the entry to exclude.
+     * @return the new map, or this map, if the key was not present.
+     */
+    public RouteTable<K, V> without (final K key)
+    {
+        Objects.requireNonNull(key, "key");
+        final Node modified = root.without(hash(key), key, 0);
+        return modified == root ? this : new RouteTable<>(modified == null ? BitmapNode.EMPTY : modified, size - 1);
+    }
+
+    /**
+     * Spread the bits of the hash-code of the key,
+     * so that keys with poor hash-codes do not cluster
+     * in the lower levels of the trie unnecessarily.
+     */
+    private static int hash (final Object key)
+    {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A single key-value pair stored in the trie.
+     */
+    private static final class Entry
+    {
+        public final int hash;
+
+        public final Object key;
+
+        public final Object value;
+
+        public Entry (final int hash,
+                      final Object key,
+                      final Object value)
+        {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A node in the trie.
+     */
+    private interface Node
+    {
+        /**
+         * Find the value associated with the given key.
+         *
+         * @return the value, or null, if no such value exists.
+         */
+        public Object get (int hash,
+                           Object key,
+                           int shift);
+
+        /**
+         * Create a copy of this node that contains the given entry.
+         *
+         * @return the new node.
+         */
+        public Node with (int hash,
+                          Object key,
+                          Object value,
+                          int shift);
+
+        /**
+         * Create a copy of this node that does not contain the given entry.
+         *
+         * @return the new node, or this node, if the key was not present,
+         * or null, if the new node would be empty.
+         */
+        public Node without (int hash,
+                             Object key,
+                             int shift);
+    }
+
+    /**
+     * A node with up to thirty-two slots, which are indexed by five bits of the hash.
+     *
+     * <p>
+     * Only occupied slots are actually allocated in the array.
+     * The bitmap indicates which slots are occupied.
+     * Each occupied slot contains either an <code>Entry</code> or a child <code>Node</code>.
+     * </p>
+     */
+    private static final class BitmapNode
+            implements Node
+    {
+        public static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+
+        private final Object[] slots;
+
+        public BitmapNode (final int bitmap,
+                           final Object[] slots)
+        {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        @Override
+        public Object get (final int hash,
+                           final Object key,
+                           final int shift)
+        {
+            final int bit = 1 << ((hash >>> shift) & MASK);
+
+            if ((bitmap & bit) == 0)
+            {
+                return null;
+            }
+
+            final Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+
+            if (slot instanceof Node)
+            {
+                return ((Node) slot).get(hash, key, shift + BITS);
+            }
+
+            final Entry entry = (Entry) slot;
+            return entry.hash == hash && entry.key.equals(key) ? entry.value : null;
+        }
+
+        @Override
+        public Node with (final int hash,
+                          final Object key,
+                          final Object value,
+                          final int shift)
+        {
+            final int bit = 1 << ((hash >>> shift) & MASK);
+            final int index = Integer.bitCount(bitmap & (bit - 1));
+
+            /**
+             * If the slot is vacant, then insert the entry into the slot.
+             */
+            if ((bitmap & bit) == 0)
+            {
+                final Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+                copy[index] = new Entry(hash, key, value);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+
+            final Object slot = slots[index];
+            final Object replacement;
+
+            if (slot instanceof Node)
+            {
+                /**
+                 * The slot contains a sub-trie; therefore, insert the entry therein.
+                 */
+                replacement = ((Node) slot).with(hash, key, value, shift + BITS);
+            }
+            else if (((Entry) slot).hash == hash && ((Entry) slot).key.equals(key))
+            {
+                /**
+                 * The slot contains an older value for the same key.
+                 */
+                replacement = new Entry(hash, key, value);
+            }
+            else
+            {
+                /**
+                 * The slot contains an entry for a different key;
+                 * therefore, push both entries down into a new sub-trie.
+                 */
+                replacement = merge((Entry) slot, new Entry(hash, key, value), shift + BITS);
+            }
+
+            final Object[] copy = slots.clone();
+            copy[index] = replacement;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        public Node without (final int hash,
+                             final Object key,
+                             final int shift)
+        {
+            final int bit = 1 << ((hash >>> shift) & MASK);
+
+            if ((bitmap & bit) == 0)
+            {
+                return this;
+            }
+
+            final int index = Integer.bitCount(bitmap & (bit - 1));
+            final Object slot = slots[index];
+
+            if (slot instanceof Node)
+            {
+                final Node child = ((Node) slot).without(hash, key, shift + BITS);
+
+                if (child == slot)
+                {
+                    return this;
+                }
+                else if (child != null)
+                {
+                    final Object[] copy = slots.clone();
+                    copy[index] = collapse(child);
+                    return new BitmapNode(bitmap, copy);
+                }
+            }
+            else if (((Entry) slot).hash != hash || ((Entry) slot).key.equals(key) == false)
+            {
+                return this;
+            }
+
+            /**
+             * Either the entry itself or the sub-trie that contained
+             * only the entry must be removed from this node.
+             */
+            if (slots.length == 1)
+            {
+                return null;
+            }
+
+            final Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, index);
+            System.arraycopy(slots, index + 1, copy, index, copy.length - index);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+
+        /**
+         * If a sub-trie contains only a single entry,
+         * then store the entry directly instead,
+         * which keeps the trie as shallow as possible.
+         */
+        private static Object collapse (final Node node)
+        {
+            if (node instanceof BitmapNode)
+            {
+                final BitmapNode bitmapNode = (BitmapNode) node;
+
+                if (bitmapNode.slots.length == 1 && bitmapNode.slots[0] instanceof Entry)
+                {
+                    return bitmapNode.slots[0];
+                }
+            }
+            else if (((CollisionNode) node).entries.length == 1)
+            {
+                return ((CollisionNode) node).entries[0];
+            }
+
+            return node;
+        }
+
+        /**
+         * Create a sub-trie that contains exactly the two given entries.
+         */
+        private static Node merge (final Entry first,
+                                   final Entry second,
+                                   final int shift)
+        {
+            if (first.hash == second.hash)
+            {
+                return new CollisionNode(first.hash, new Entry[]
+                                 {
+                                     first, second
+                                 });
+            }
+
+            final int bit1 = 1 << ((first.hash >>> shift) & MASK);
+            final int bit2 = 1 << ((second.hash >>> shift) & MASK);
+
+            if (bit1 == bit2)
+            {
+                return new BitmapNode(bit1, new Object[]
+                              {
+                                  merge(first, second, shift + BITS)
+                              });
+            }
+            else
+            {
+                final Object[] pair = Integer.compareUnsigned(bit1, bit2) < 0
+                        ? new Object[]
+                        {
+                            first, second
+                        }
+                        : new Object[]
+                        {
+                            second, first
+                        };
+
+                return new BitmapNode(bit1 | bit2, pair);
+            }
+        }
+    }
+
+    /**
+     * A node that stores entries whose keys have identical hashes.
+     */
+    private static final class CollisionNode
+            implements Node
+    {
+        private final int hash;
+
+        private final Entry[] entries;
+
+        public CollisionNode (final int hash,
+                              final Entry[] entries)
+        {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        @Override
+        public Object get (final int hash,
+                           final Object key,
+                           final int shift)
+        {
+            final int index = indexOf(key);
+            return hash == this.hash && index >= 0 ? entries[index].value : null;
+        }
+
+        @Override
+        public Node with (final int hash,
+                          final Object key,
+                          final Object value,
+                          final int shift)
+        {
+            if (hash != this.hash)
+            {
+                /**
+                 * The new key merely shares a prefix of the hash with the colliding keys.
+                 * Therefore, nest this node inside of a new bitmap-node.
+                 */
+                final BitmapNode parent = new BitmapNode(1 << ((this.hash >>> shift) & MASK), new Object[]
+                                                 {
+                                                     this
+                                                 });
+
+                return parent.with(hash, key, value, shift);
+            }
+
+            final int index = indexOf(key);
+            final Entry entry = new Entry(hash, key, value);
+
+            if (index >= 0)
+            {
+                final Entry[] copy = entries.clone();
+                copy[index] = entry;
+                return new CollisionNode(hash, copy);
+            }
+            else
+            {
+                final Entry[] copy = new Entry[entries.length + 1];
+                System.arraycopy(entries, 0, copy, 0, entries.length);
+                copy[entries.length] = entry;
+                return new CollisionNode(hash, copy);
+            }
+        }
+
+        @Override
+        public Node without (final int hash,
+                             final Object key,
+                             final int shift)
+        {
+            final int index = hash == this.hash ? indexOf(key) : -1;
+
+            if (index < 0)
+            {
+                return this;
+            }
+            else if (entries.length == 1)
+            {
+                return null;
+            }
+
+            final Entry[] copy = new Entry[entries.length - 1];
+            System.arraycopy(entries, 0, copy, 0, index);
+            System.arraycopy(entries, index + 1, copy, index, copy.length - index);
+            return new CollisionNode(hash, copy);
+        }
+
+        private int indexOf (final Object key)
+        {
+            for (int i = 0; i < entries.length; i++)
+            {
+                if (entries[i].key.equals(key))
+                {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+    }
+}
@@ -16,18 +16,31 @@
 package com.mackenziehigh.socius;
 
 import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.ContextScript;
 import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
 import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 /**
  * Provides an in-process publish/subscribe mechanism.
@@ -55,6 +68,13 @@ import java.util.function.Function;
  * </p>
  *
  * <p>
+ * By default, a message is only forwarded to the subscribers of the channel
+ * whose routing-key exactly equals the routing-key of the message.
+ * Alternatively, a topic-router, which is created via <code>newTopicRouter()</code>,
+ * uses hierarchical routing-keys, which subscribers can match using wildcards.
+ * </p>
+ *
+ * <p>
  * Assume that two publishers (P1 and P2) are connected to channel (K).
  * Assume that two subscribers (S1 and S2) are connected to channel (K).
  * Assume that (P1) and (P2), independently, send message (X and Y) to channel (K) simultaneously.
@@ -68,11 +88,27 @@ import java.util.function.Function;
  * </p>
  *
  * <p>
- * <b>Performance Note:</b> Internally, this class maintains a map of that maps a routing-key
- * to an immutable list of the subscribers interested in receiving messages with that key.
- * The use of the immutable list promotes locality, avoids the need for locks, and avoids
- * unnecessary object creation (iterators). However, there is a potential down-side.
- * Specifically, the list must be copied each time a subscriber subscribes to the <b>same</b> key.
+ * Synchronizing the sends forces all of the publishers to take turns on a single lock,
+ * even if the publishers are sending to different channels. Alternatively, the sends
+ * can be sequenced per routing-key, by invoking <code>synchronizePerKey()</code>.
+ * In that case, the routing-keys are partitioned into a fixed number of stripes.
+ * Each stripe is an actor that forwards the messages sent to its keys in the order received.
+ * Thus, the subscribers of a single channel will receive messages in the same order,
+ * but publishers never block, and sends to keys in different stripes proceed in parallel.
+ * The trade-off is an additional actor hop (latency) and a small allocation per message.
+ * </p>
+ *
+ * <p>
+ * <b>Performance Note:</b> Internally, this class maintains an immutable table that maps
+ * a routing-key to an immutable array of the subscribers interested in receiving messages
+ * with that key. The table is a persistent hash-trie, which is atomically replaced whenever
+ * a subscriber subscribes or unsubscribes. Since the table is never modified in-place,
+ * publishers can read the table without locks, which allows sends to scale with the
+ * number of publishing threads. Moreover, the use of an array promotes locality
+ * and avoids unnecessary object creation (iterators). Replacing the table only
+ * copies the path through the trie to the affected key, which is O(log n)
+ * in the number of keys. However, there is a potential down-side.
+ * Specifically, the array must be copied each time a subscriber subscribes to the <b>same</b> key.
  * Thus, subscribing large numbers (1000s) of subscribers to a single key can become inefficient.
  * </p>
  *
@@ -87,20 +123,37 @@ public final class Router<K, T>
     private final Stage stage;
 
     /**
-     * This map maps a routing-key to a list of subscribers that
-     * are interested in messages with that routing-key.
+     * This table maps a routing-key to an array of the subscribers
+     * that are interested in messages with that routing-key.
+     *
+     * <p>
+     * The table itself is immutable; therefore, updates are performed
+     * by atomically replacing the table with an updated copy.
+     * </p>
+     */
+    private final AtomicReference<RouteTable<K, Subscriber<K, T>[]>> routeTable = new AtomicReference<>(RouteTable.empty());
+
+    /**
+     * This trie maps topic-patterns to arrays of the subscribers
+     * that are interested in messages with matching topics,
+     * if this is a topic-router; otherwise, null.
+     *
+     * <p>
+     * The trie itself is immutable; therefore, updates are performed
+     * by atomically replacing the trie with an updated copy.
+     * </p>
      */
-    private final ConcurrentMap<K, List<Subscriber<K, T>>> routeMap = new ConcurrentHashMap<>();
+    private final AtomicReference<TopicTable<Subscriber<K, T>>> topicTable;
 
     /**
      * Provides the sink-all output connector.
      */
-    private final Processor<T> sinkAll;
+    private final Pipeline<Object, T> sinkAll;
 
     /**
      * Provides the sink-dead output connector.
      */
-    private final Processor<T> sinkDead;
+    private final Pipeline<Object, T> sinkDead;
 
     /**
      * This flag is true, if all subscribers shall receive messages in the same order,
@@ -108,11 +161,25 @@ public final class Router<K, T>
      */
     private volatile boolean sync = false;
 
-    private Router (final Stage stage)
+    /**
+     * These actors sequence the messages sent to each routing-key,
+     * if the router is synchronized per routing-key; otherwise, null.
+     */
+    private volatile Processor<Delivery<K>>[] stripes = null;
+
+    /**
+     * This object records delivery statistics, if metrics are enabled; otherwise, null.
+     */
+    private volatile Recorder<K> recorder = null;
+
+    @SuppressWarnings ("unchecked")
+    private Router (final Stage stage,
+                    final boolean topics)
     {
         this.stage = Objects.requireNonNull(stage, "stage");
-        this.sinkAll = Processor.fromIdentityScript(stage);
-        this.sinkDead = Processor.fromIdentityScript(stage);
+        this.sinkAll = newConnector(stage, () -> true);
+        this.sinkDead = newConnector(stage, () -> true);
+        this.topicTable = topics ? new AtomicReference<>(TopicTable.empty(size -> new Subscriber[size])) : null;
     }
 
     /**
@@ -125,7 +192,40 @@ public final class Router<K, T>
      */
     public static <K, T> Router<K, T> newRouter (final Stage stage)
     {
-        return new Router<>(stage);
+        return new Router<>(stage, false);
+    }
+
+    /**
+     * Factory Method.
+     *
+     * <p>
+     * The routing-keys of a topic-router are hierarchical topics,
+     * such as <code>orders.eu.fr</code>, whose levels are separated by periods.
+     * Subscribers may subscribe to topic-patterns, which contain wildcards.
+     * The single-level wildcard (<code>*</code>) matches exactly one level.
+     * The multi-level wildcard (<code>#</code>) matches zero-or-more levels,
+     * but may only be the last level of a pattern.
+     * For example, a subscriber to <code>orders.eu.*</code> will receive
+     * messages sent to <code>orders.eu.fr</code> and <code>orders.eu.de</code>,
+     * but not <code>orders.us.ny</code> or <code>orders.eu.fr.paris</code>,
+     * whereas a subscriber to <code>orders.#</code> will receive all of them.
+     * A subscriber whose patterns overlap will only receive a message once.
+     * </p>
+     *
+     * <p>
+     * <b>Performance Note:</b> Matching a topic is O(depth), regardless of the number
+     * of subscriptions. Moreover, the subscribers that match a topic are cached
+     * until the next time that a subscriber subscribes or unsubscribes.
+     * Thus, repeatedly sending to the same topics does not allocate any objects.
+     * </p>
+     *
+     * @param <T> is the type of the incoming and outgoing messages.
+     * @param stage will be used to create private actors.
+     * @return the new router.
+     */
+    public static <T> Router<String, T> newTopicRouter (final Stage stage)
+    {
+        return new Router<>(stage, true);
     }
 
     /**
@@ -151,6 +251,128 @@ public final class Router<K, T>
         return sync;
     }
 
+    /**
+     * Henceforth, all subscribers shall receive messages in the same order,
+     * if they are subscribed to the same routing-key, without serializing
+     * the publishers that are sending to different routing-keys.
+     *
+     * <p>
+     * This method should be invoked before any messages are sent,
+     * since messages that are in-flight, while the mode changes,
+     * may not be ordered relative to one another.
+     * </p>
+     *
+     * @param concurrency is the minimum number of stripes to partition the routing-keys into,
+     * which will be rounded up to the next power-of-two.
+     * @return this.
+     * @throws IllegalArgumentException if the concurrency is less than one.
+     * @throws IllegalStateException if this router is already synchronized per routing-key.
+     */
+    @SuppressWarnings ("unchecked")
+    public Router<K, T> synchronizePerKey (final int concurrency)
+    {
+        if (concurrency < 1)
+        {
+            throw new IllegalArgumentException("concurrency < 1");
+        }
+
+        synchronized (this)
+        {
+            if (stripes != null)
+            {
+                throw new IllegalStateException("Already Synchronized Per Key");
+            }
+
+            final int count = Integer.highestOneBit(Math.min(concurrency, 1 << 16) * 2 - 1);
+            final Processor<Delivery<K>>[] array = new Processor[count];
+
+            for (int i = 0; i < count; i++)
+            {
+                array[i] = Processor.fromConsumerScript(stage, (Delivery<K> x) -> sendImp(x.key, x.payload, true));
+            }
+
+            stripes = array;
+        }
+
+        return this;
+    }
+
+    /**
+     * Determine whether all subscribers shall receive messages in the same order,
+     * if they are subscribed to the same routing-key, due to per-key sequencing.
+     *
+     * @return true, if so.
+     */
+    public boolean isSynchronousPerKey ()
+    {
+        return stripes != null;
+    }
+
+    /**
+     * Henceforth, record statistics regarding the delivery of messages.
+     *
+     * <p>
+     * While metrics are disabled, which is the default,
+     * the only overhead is a single volatile read per send.
+     * While metrics are enabled, each send increments a few
+     * striped counters (<code>LongAdder</code>), which scale
+     * well, even when many publishers are sending at once.
+     * </p>
+     *
+     * <p>
+     * Counts are maintained per distinct routing-key (or topic).
+     * Thus, metrics should not be enabled, if the number
+     * of distinct routing-keys is effectively unbounded.
+     * </p>
+     *
+     * @return this.
+     */
+    public Router<K, T> enableMetrics ()
+    {
+        synchronized (this)
+        {
+            recorder = recorder == null ? new Recorder<>() : recorder;
+        }
+
+        return this;
+    }
+
+    /**
+     * Determine whether statistics are being recorded regarding the delivery of messages.
+     *
+     * @return true, if <code>enableMetrics()</code> was invoked.
+     */
+    public boolean isMetricsEnabled ()
+    {
+        return recorder != null;
+    }
+
+    /**
+     * Get a snapshot of the statistics regarding the delivery of messages.
+     *
+     * <p>
+     * The snapshot is not atomic relative to concurrent sends.
+     * Rather, each count is accurate as of the moment it was read.
+     * </p>
+     *
+     * @return the current statistics, or empty, if metrics are not enabled.
+     */
+    public Optional<Metrics<K>> metrics ()
+    {
+        final Recorder<K> current = recorder;
+        return current == null ? Optional.empty() : Optional.of(current.snapshot());
+    }
+
+    /**
+     * Determine whether the routing-keys are topics, which subscribers can match using wildcards.
+     *
+     * @return true, if this router was created via <code>newTopicRouter()</code>.
+     */
+    public boolean isTopicRouter ()
+    {
+        return topicTable != null;
+    }
+
     /**
      * Create a new activated publisher that can send messages
      * to communication channels identified on-demand by
@@ -199,11 +421,18 @@ public final class Router<K, T>
      *
      * @param keys are the routing-keys that identify the channels.
      * @return the newly created subscriber.
+     * @throws IllegalArgumentException if this is a topic router and a pattern is malformed.
      */
     public Subscriber<K, T> newSubscriber (final Collection<K> keys)
     {
         Objects.requireNonNull(keys, "keys");
         final var keySet = new HashSet<>(keys);
+
+        if (topicTable != null)
+        {
+            keySet.forEach(x -> TopicTable.checkPattern((String) x));
+        }
+
         return new Subscriber(this, keySet).activate();
     }
 
@@ -252,7 +481,126 @@ public final class Router<K, T>
     public Router<K, T> send (final K key,
                               final T message)
     {
-        if (sync)
+        Objects.requireNonNull(key, "key");
+        return dispatch(key, message);
+    }
+
+    /**
+     * Send a burst of messages to all interested subscribers.
+     *
+     * <p>
+     * The messages are grouped by routing-key, while preserving the order of
+     * the messages that share a routing-key. Then, the subscribers are looked-up
+     * once per distinct routing-key, rather than once per message. Moreover,
+     * each interested subscriber receives each group as a single (internal)
+     * message, which it then unpacks, rather than one message per element.
+     * Thus, the per-message overhead is significantly reduced for bursty publishers.
+     * </p>
+     *
+     * <p>
+     * Each subscriber receives the messages in the same order as if they were sent
+     * individually, since each subscriber only receives the messages of the routing-keys
+     * that it is interested in, whose relative order is preserved. Likewise, the all-sink
+     * receives the entire burst in its original order, unless the router is synchronized
+     * per-key, in which case the all-sink receives the groups one after another,
+     * since the groups pass through separate actors, just as individual messages would.
+     * </p>
+     *
+     * <p>
+     * Warning: This method may be invoked by multiple threads at once.
+     * This method is *not* an actor itself!
+     * </p>
+     *
+     * @param messages will be sent to the channels identified by the key-function.
+     * @param keyFunction will be used to obtain routing-keys from messages.
+     * @return this.
+     */
+    public Router<K, T> sendBatch (final Collection<T> messages,
+                                   final Function<T, K> keyFunction)
+    {
+        Objects.requireNonNull(messages, "messages");
+        Objects.requireNonNull(keyFunction, "keyFunction");
+
+        /**
+         * Group the messages by routing-key.
+         */
+        final Map<K, List<Object>> groups = new LinkedHashMap<>();
+
+        for (T message : messages)
+        {
+            final K routingKey = keyFunction.apply(message);
+            Objects.requireNonNull(routingKey, "routingKey");
+            groups.computeIfAbsent(routingKey, x -> new ArrayList<>()).add(message);
+        }
+
+        if (stripes != null)
+        {
+            /**
+             * Send each group as a single batch through the actor that sequences the key.
+             */
+            for (Map.Entry<K, List<Object>> group : groups.entrySet())
+            {
+                dispatch(group.getKey(), new Batch(group.getValue().toArray()));
+            }
+        }
+        else if (sync)
+        {
+            synchronized (this)
+            {
+                sendGroups(messages, groups);
+            }
+        }
+        else
+        {
+            sendGroups(messages, groups);
+        }
+
+        return this;
+    }
+
+    /**
+     * Send the entire burst to the all-sink, in its original order,
+     * and then send each group as a single batch to the interested subscribers.
+     *
+     * @param messages is the entire burst.
+     * @param groups are the messages of the burst grouped by routing-key.
+     */
+    private void sendGroups (final Collection<T> messages,
+                             final Map<K, List<Object>> groups)
+    {
+        sinkAll.accept(new Batch(messages.toArray()));
+
+        for (Map.Entry<K, List<Object>> group : groups.entrySet())
+        {
+            sendImp(group.getKey(), new Batch(group.getValue().toArray()), false);
+        }
+    }
+
+    /**
+     * Send either a single message or a batch of messages to all interested subscribers.
+     *
+     * @param key is a routing-key that identifies the channel to send-to.
+     * @param payload is either a single message or a <code>Batch</code> of messages.
+     * @return this.
+     */
+    private Router<K, T> dispatch (final K key,
+                                   final Object payload)
+    {
+        final Processor<Delivery<K>>[] lanes = stripes;
+
+        if (lanes != null)
+        {
+            /**
+             * Ensure that all of the subscribers receive messages in the same order,
+             * if the messages were sent to the same key, by passing all of the messages
+             * for the key through the same actor, which processes them one at a time.
+             * Publishers never block here, since the actor merely enqueues the message.
+             */
+            final int hash = key.hashCode();
+            final int index = (hash ^ (hash >>> 16)) & (lanes.length - 1);
+            lanes[index].accept(new Delivery<>(key, payload));
+        }
+        else if (sync)
         {
             /**
              * Ensure that all of the subscribers receive messages in the same order,
@@ -261,7 +609,7 @@ public final class Router<K, T>
              */
             synchronized (this)
             {
-                sendImp(key, message);
+                sendImp(key, payload, true);
             }
         }
         else
@@ -272,40 +620,54 @@ public final class Router<K, T>
              * publishers in different orders. That said, messages from the same
              * publisher are always sent in-order.
              */
-            sendImp(key, message);
+            sendImp(key, payload, true);
         }
 
         return this;
     }
 
     private void sendImp (final K key,
-                          final T message)
+                          final Object message,
+                          final boolean toAll)
     {
         boolean none = true;
 
+        /**
+         * Read the volatile field only once.
+         */
+        final Recorder<K> stats = recorder;
+
         /**
          * Anyone listening to the all-sink gets all of the messages, regardless of key.
          */
-        sinkAll.accept(message);
+        if (toAll)
+        {
+            sinkAll.accept(message);
+        }
 
         /**
          * Get all of the subscribers for the given routing-key, if any.
          *
-         * Notice that the use of an immutable-list here avoids the need for locks,
-         * since we can rest assured that no subscribers will be added/removed
-         * while we are iterating over the list. Further, notice that the iteration
-         * uses a for-loop, instead of a for-each-loop, which can avoid an unnecessary
-         * object allocation (Iterator).
+         * Notice that the use of an immutable table and immutable arrays here
+         * avoids the need for locks, since we can rest assured that no subscribers
+         * will be added/removed while we are iterating over the array. Further, notice
+         * that the iteration uses a for-loop, instead of a for-each-loop, which can
+         * avoid an unnecessary object allocation (Iterator).
          */
-        final List<Subscriber<K, T>> routeList = routeMap.getOrDefault(key, List.of());
+        final Subscriber<K, T>[] routeList = topicTable == null
+                ? routeTable.get().get(key)
+                : topicTable.get().match((String) key);
 
         /**
          * Send the message to all of the subscribers, if any.
          */
-        for (int k = 0; k < routeList.size(); k++)
+        if (routeList != null)
         {
-            routeList.get(k).connector.accept(message);
-            none = false;
+            for (int k = 0; k < routeList.length; k++)
+            {
+                routeList[k].connector.accept(message);
+                none = false;
+            }
         }
 
         /**
@@ -316,37 +678,403 @@ public final class Router<K, T>
         {
             sinkDead.accept(message);
         }
+
+        /**
+         * Record the delivery, if metrics are enabled.
+         */
+        if (stats != null)
+        {
+            final int count = message instanceof Batch ? ((Batch) message).messages.length : 1;
+            stats.record(key, count, routeList == null ? 0 : routeList.length);
+        }
     }
 
     private void subscribe (final K key,
                             final Subscriber<K, T> subscriber)
+    {
+        updateRoute(key, routeList ->
+        {
+            /**
+             * Prevent duplicate subscriptions.
+             */
+            if (indexOf(routeList, subscriber) >= 0)
+            {
+                return routeList;
+            }
+
+            final Subscriber<K, T>[] copy = Arrays.copyOf(routeList, routeList.length + 1);
+            copy[routeList.length] = subscriber;
+            return copy;
+        });
+    }
+
+    private void unsubscribe (final K key,
+                              final Subscriber<K, T> subscriber)
+    {
+        updateRoute(key, routeList ->
+        {
+            final int index = indexOf(routeList, subscriber);
+
+            /**
+             * Ignore duplicate unsubscriptions.
+             */
+            if (index < 0)
+            {
+                return routeList;
+            }
+
+            final Subscriber<K, T>[] copy = Arrays.copyOf(routeList, routeList.length - 1);
+            System.arraycopy(routeList, index + 1, copy, index, copy.length - index);
+            return copy;
+        });
+    }
+
+    /**
+     * Atomically replace the subscribers of a single routing-key.
+     *
+     * <p>
+     * The copy is inefficient here, but makes the message-sending more efficient.
+     * Rather than locking, the update is retried, if another thread concurrently
+     * replaced the table, which is rare, unless subscribers are churning heavily.
+     * </p>
+     *
+     * @param key identifies the subscribers to update.
+     * @param update maps the current subscribers to the new subscribers.
+     */
+    @SuppressWarnings ("unchecked")
+    private void updateRoute (final K key,
+                              final UnaryOperator<Subscriber<K, T>[]> update)
+    {
+        if (topicTable != null)
+        {
+            updateTopic((String) key, update);
+            return;
+        }
+
+        while (true)
+        {
+            final RouteTable<K, Subscriber<K, T>[]> oldTable = routeTable.get();
+            final Subscriber<K, T>[] oldList = oldTable.get(key);
+            final Subscriber<K, T>[] newList = update.apply(oldList == null ? new Subscriber[0] : oldList);
+
+            if (newList == oldList)
+            {
+                return;
+            }
+
+            final RouteTable<K, Subscriber<K, T>[]> newTable = newList.length == 0
+                    ? oldTable.without(key)
+                    : oldTable.with(key, newList);
+
+            if (routeTable.compareAndSet(oldTable, newTable))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atomically replace the subscribers of a single topic-pattern.
+     *
+     * @param pattern identifies the subscribers to update.
+     * @param update maps the current subscribers to the new subscribers.
+     */
+    private void updateTopic (final String pattern,
+                              final UnaryOperator<Subscriber<K, T>[]> update)
+    {
+        while (true)
+        {
+            final TopicTable<Subscriber<K, T>> oldTable = topicTable.get();
+            final Subscriber<K, T>[] oldList = oldTable.get(pattern);
+            final Subscriber<K, T>[] newList = update.apply(oldList);
+
+            if (newList == oldList)
+            {
+                return;
+            }
+
+            if (topicTable.compareAndSet(oldTable, oldTable.with(pattern, newList)))
+            {
+                return;
+            }
+        }
+    }
+
+    private static int indexOf (final Object[] array,
+                                final Object value)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (array[i] == value)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Create an actor that forwards messages out of the router,
+     * which unpacks batches of messages into individual messages.
+     *
+     * @param <T> is the type of the outgoing messages.
+     * @param stage will be used to create the actor.
+     * @param active determines whether messages are currently allowed through.
+     * @return the new actor.
+     */
+    @SuppressWarnings ("unchecked")
+    private static <T> Pipeline<Object, T> newConnector (final Stage stage,
+                                                         final BooleanSupplier active)
+    {
+        final ContextScript<Object, T> script = (context, message) ->
+        {
+            if (active.getAsBoolean() == false)
+            {
+                return;
+            }
+            else if (message instanceof Batch)
+            {
+                final Object[] elements = ((Batch) message).messages;
+
+                for (int i = 0; i < elements.length; i++)
+                {
+                    context.sendFrom((T) elements[i]);
+                }
+            }
+            else
+            {
+                context.sendFrom((T) message);
+            }
+        };
+
+        return Pipeline.fromContextScript(stage, script);
+    }
+
+    /**
+     * Records statistics regarding the delivery of messages.
+     *
+     * @param <K> is the type of the routing-keys.
+     */
+    private static final class Recorder<K>
     {
         /**
-         * The copy is inefficient here, but makes the message-sending more efficient.
-         * The synchronization prevents duplicate (concurrent) subscriptions.
+         * This map maps a routing-key to the number of messages sent thereto.
          */
-        synchronized (this)
+        private final ConcurrentMap<K, LongAdder> published = new ConcurrentHashMap<>();
+
+        /**
+         * This map maps a routing-key to the number of messages sent thereto,
+         * which were sent to the dead-sink, since no subscribers were interested.
+         */
+        private final ConcurrentMap<K, LongAdder> dead = new ConcurrentHashMap<>();
+
+        /**
+         * Each element is the number of messages delivered to a range of fan-out widths.
+         * Element (0) counts messages delivered to zero subscribers.
+         * Element (N), where N is greater than zero, counts messages
+         * delivered to [2^(N-1), 2^N - 1] subscribers.
+         */
+        private final LongAdder[] fanout = new LongAdder[Integer.SIZE + 1];
+
+        public Recorder ()
         {
-            routeMap.putIfAbsent(key, List.of());
-            final Set<Subscriber<K, T>> copy = new HashSet<>(routeMap.get(key));
-            copy.add(subscriber);
-            routeMap.put(key, List.copyOf(copy));
+            for (int i = 0; i < fanout.length; i++)
+            {
+                fanout[i] = new LongAdder();
+            }
+        }
+
+        public void record (final K key,
+                            final int count,
+                            final int width)
+        {
+            /**
+             * Use get() before computeIfAbsent(), since the latter
+             * may lock, even when the key is already present.
+             */
+            LongAdder counter = published.get(key);
+            counter = counter != null ? counter : published.computeIfAbsent(key, x -> new LongAdder());
+            counter.add(count);
+
+            if (width == 0)
+            {
+                LongAdder deadCounter = dead.get(key);
+                deadCounter = deadCounter != null ? deadCounter : dead.computeIfAbsent(key, x -> new LongAdder());
+                deadCounter.add(count);
+            }
+
+            fanout[Integer.SIZE - Integer.numberOfLeadingZeros(width)].add(count);
+        }
+
+        public Metrics<K> snapshot ()
+        {
+            final Map<K, Long> publishedCopy = new HashMap<>();
+            published.forEach((key, value) -> publishedCopy.put(key, value.sum()));
+
+            final Map<K, Long> deadCopy = new HashMap<>();
+            dead.forEach((key, value) -> deadCopy.put(key, value.sum()));
+
+            final long[] fanoutCopy = new long[fanout.length];
+
+            for (int i = 0; i < fanout.length; i++)
+            {
+                fanoutCopy[i] = fanout[i].sum();
+            }
+
+            return new Metrics<>(publishedCopy, deadCopy, fanoutCopy);
         }
     }
 
-    private void unsubscribe (final K key,
-                              final Subscriber<K, T> subscriber)
+    /**
+     * An immutable snapshot of the statistics regarding the delivery of messages.
+     *
+     * @param <K> is the type of the routing-keys.
+     */
+    public static final class Metrics<K>
     {
+        private final Map<K, Long> publishCounts;
+
+        private final Map<K, Long> deadLetterCounts;
+
+        private final long[] fanoutHistogram;
+
+        private Metrics (final Map<K, Long> publishCounts,
+                         final Map<K, Long> deadLetterCounts,
+                         final long[] fanoutHistogram)
+        {
+            this.publishCounts = Collections.unmodifiableMap(publishCounts);
+            this.deadLetterCounts = Collections.unmodifiableMap(deadLetterCounts);
+            this.fanoutHistogram = fanoutHistogram;
+        }
+
         /**
-         * The copy is inefficient here, but makes the message-sending more efficient.
-         * The synchronization prevents duplicate (concurrent) unsubscriptions.
+         * Get the number of messages that were sent to each routing-key.
+         *
+         * @return an unmodifiable map that maps routing-keys to counts.
          */
-        synchronized (this)
+        public Map<K, Long> publishCounts ()
+        {
+            return publishCounts;
+        }
+
+        /**
+         * Get the number of messages, sent to each routing-key,
+         * that were sent to the dead-sink, since no subscribers were interested.
+         *
+         * @return an unmodifiable map that maps routing-keys to counts.
+         */
+        public Map<K, Long> deadLetterCounts ()
+        {
+            return deadLetterCounts;
+        }
+
+        /**
+         * Get the total number of messages that were sent.
+         *
+         * @return the total of the publish-counts.
+         */
+        public long publishCount ()
+        {
+            return publishCounts.values().stream().mapToLong(x -> x).sum();
+        }
+
+        /**
+         * Get the total number of messages that were sent to the dead-sink.
+         *
+         * @return the total of the dead-letter-counts.
+         */
+        public long deadLetterCount ()
+        {
+            return deadLetterCounts.values().stream().mapToLong(x -> x).sum();
+        }
+
+        /**
+         * Get the fraction of the messages that were sent to the dead-sink.
+         *
+         * @return the dead-letter rate, which is between zero and one, inclusive.
+         */
+        public double deadLetterRate ()
+        {
+            final long total = publishCount();
+            return total == 0 ? 0 : (double) deadLetterCount() / total;
+        }
+
+        /**
+         * Get the histogram of the number of subscribers that each message was delivered to.
+         *
+         * <p>
+         * Element (0) is the number of messages delivered to zero subscribers.
+         * Element (N), where N is greater than zero, is the number of messages
+         * delivered to at least 2^(N-1) subscribers, but at most 2^N - 1 subscribers.
+         * For example, element (3) counts messages delivered to 4, 5, 6, or 7 subscribers.
+         * </p>
+         *
+         * @return a copy of the histogram.
+         */
+        public long[] fanoutHistogram ()
+        {
+            return fanoutHistogram.clone();
+        }
+
+        /**
+         * Get the routing-keys that messages were sent to most often.
+         *
+         * @param limit is the maximum number of routing-keys to return.
+         * @return the routing-keys, most frequently used first.
+         */
+        public List<K> hottestKeys (final int limit)
+        {
+            if (limit < 0)
+            {
+                throw new IllegalArgumentException("limit < 0");
+            }
+
+            final Comparator<Map.Entry<K, Long>> order = Map.Entry.comparingByValue();
+
+            return publishCounts
+                    .entrySet()
+                    .stream()
+                    .sorted(order.reversed())
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * A group of messages that share a routing-key,
+     * which are being sent through the router at once.
+     */
+    private static final class Batch
+    {
+        public final Object[] messages;
+
+        public Batch (final Object[] messages)
+        {
+            this.messages = messages;
+        }
+    }
+
+    /**
+     * A message that is being sequenced, along with its routing-key.
+     *
+     * @param <K> is the type of the routing-key.
+     */
+    private static final class Delivery<K>
+    {
+        public final K key;
+
+        /**
+         * This is either a single message or a batch of messages.
+         */
+        public final Object payload;
+
+        public Delivery (final K key,
+                         final Object payload)
         {
-            routeMap.putIfAbsent(key, List.of());
-            final Set<Subscriber<K, T>> copy = new HashSet<>(routeMap.get(key));
-            copy.add(subscriber);
-            routeMap.put(key, List.copyOf(copy));
+            this.key = key;
+            this.payload = payload;
         }
     }
 
@@ -382,6 +1110,12 @@ public final class Router<K, T>
          */
         private final Processor<T> connector;
 
+        /**
+         * This processor will receive the incoming batches of messages
+         * and then perform the actual forwarding operation.
+         */
+        private final Processor<Collection<T>> batchConnector;
+
         /**
          * This flag is used to turn this publisher on and off.
          */
@@ -393,6 +1127,7 @@ public final class Router<K, T>
             this.router = router;
             this.keyFunction = Objects.requireNonNull(keyFunction, "keyFunction");
             this.connector = Processor.fromConsumerScript(router.stage, this::onMessage);
+            this.batchConnector = Processor.fromConsumerScript(router.stage, this::onBatch);
         }
 
         /**
@@ -411,6 +1146,20 @@ public final class Router<K, T>
             }
         }
 
+        /**
+         * This actor script will send the given messages to the subscribers,
+         * if this publisher is currently turned on (activated).
+         *
+         * @param messages will be sent to the subscribers, if allowed.
+         */
+        private void onBatch (final Collection<T> messages)
+        {
+            if (active.get())
+            {
+                router.sendBatch(messages, keyFunction);
+            }
+        }
+
         /**
          * Activate this publisher, so that messages will be sent to subscribers.
          *
@@ -451,6 +1200,21 @@ public final class Router<K, T>
         {
             return connector.dataIn();
         }
+
+        /**
+         * Input Connection.
+         *
+         * <p>
+         * Each collection of messages sent to this input will be
+         * forwarded as efficiently as possible via <code>sendBatch()</code>.
+         * </p>
+         *
+         * @return the input that receives batches of messages to send to subscribers.
+         */
+        public Input<Collection<T>> batchIn ()
+        {
+            return batchConnector.dataIn();
+        }
     }
 
     /**
@@ -480,10 +1244,10 @@ public final class Router<K, T>
         private final List<K> routingKeys;
 
         /**
-         * This processor will receive the incoming messages from
+         * This actor will receive the incoming messages and batches from
          * the publishers and then forward them out of the router.
          */
-        private final Processor<T> connector;
+        private final Pipeline<Object, T> connector;
 
         /**
          * This flag is used to turn this subscriber on and off.
@@ -495,18 +1259,7 @@ public final class Router<K, T>
         {
             this.router = router;
             this.routingKeys = List.copyOf(Objects.requireNonNull(keys, "key"));
-            this.connector = Processor.fromFunctionScript(router.stage, this::onMessage);
-        }
-
-        /**
-         * This actor script receives messages from the publishers,
-         * and forwards them out of the router, if activated.
-         *
-         * @param message will be sent out of the router, if allowed.
-         */
-        private T onMessage (final T message)
-        {
-            return active.get() ? message : null;
+            this.connector = newConnector(router.stage, active::get);
         }
 
         /**
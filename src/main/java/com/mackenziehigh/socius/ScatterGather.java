@@ -0,0 +1,635 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Provides an asynchronous request/multi-reply mechanism,
+ * which gathers multiple replies to a single request.
+ *
+ * <p>
+ * Each request is forwarded once, typically to multiple recipients,
+ * such as via a <code>Fanout</code> or a <code>Router</code>.
+ * The replies are gathered until either the expected number
+ * of replies is received or the deadline expires, whichever is first.
+ * Then, the request and the gathered replies are combined
+ * into a single result via the aggregator.
+ * If the deadline expires before any replies are received,
+ * then the request is dropped instead.
+ * </p>
+ *
+ * @param <K> is the type of the keys used to correlate requests and replies.
+ * @param <I> is the type of the request messages.
+ * @param <R> is the type of the reply messages.
+ * @param <O> is the type of message created by combining a request and its replies.
+ */
+public final class ScatterGather<K, I, R, O>
+{
+    /**
+     * This is the maximum number of closed gathers to retain for reuse.
+     */
+    private static final int POOL_LIMIT = 1024;
+
+    /**
+     * All of the actors contained herein are on this stage.
+     */
+    private final Stage stage;
+
+    /**
+     * This actor handles incoming requests.
+     */
+    private final Processor<I> dataIn;
+
+    /**
+     * This actor provides the request-out connector.
+     */
+    private final Processor<I> requestOut;
+
+    /**
+     * This actor handles incoming replies.
+     */
+    private final Processor<R> replyIn;
+
+    /**
+     * This actor provides the result-out connector.
+     */
+    private final Processor<O> resultOut;
+
+    /**
+     * This actor provides the dropped-request connector.
+     */
+    private final Processor<I> droppedRequestOut;
+
+    /**
+     * This actor provides the dropped-reply connector.
+     */
+    private final Processor<R> droppedReplyOut;
+
+    /**
+     * This is the amount of time to wait for replies after forwarding a request.
+     */
+    private final Duration deadline;
+
+    /**
+     * This function is used to extract the key from request-messages.
+     */
+    private final Function<I, K> keyFuncI;
+
+    /**
+     * This function is used to extract the key from reply-messages.
+     */
+    private final Function<R, K> keyFuncR;
+
+    /**
+     * This function is used to determine how many replies to expect per request.
+     */
+    private final ToIntFunction<I> expectedFunc;
+
+    /**
+     * This function is used to combine a request-message and the
+     * gathered reply-messages into a single output message to forward.
+     */
+    private final BiFunction<I, List<R>, O> aggregator;
+
+    /**
+     * This processor is used to execute tasks,
+     * which avoids the need to use locks herein,
+     * since locks between the actors would be inappropriate.
+     */
+    private final Processor<Runnable> engine;
+
+    /**
+     * This map maps a key to the the gather that is gathering
+     * the replies to the request identified by that key.
+     */
+    private final Map<K, Gather> gathers = new ConcurrentHashMap<>();
+
+    /**
+     * These gathers are closed and available for reuse.
+     * This pool is only accessed by the engine; therefore, no locks are needed.
+     */
+    private final Deque<Gather> pool = new ArrayDeque<>();
+
+    /**
+     * This actor is used to request a callback at a specified time in the future.
+     */
+    private final DelayedSender delayedSender;
+
+    private ScatterGather (final Builder<K, I, R, O> builder)
+    {
+        this.stage = builder.stage;
+        this.dataIn = Processor.fromConsumerScript(stage, this::onRequestIn);
+        this.requestOut = Processor.fromIdentityScript(stage);
+        this.replyIn = Processor.fromConsumerScript(stage, this::onReplyIn);
+        this.resultOut = Processor.fromIdentityScript(stage);
+        this.droppedRequestOut = Processor.fromIdentityScript(stage);
+        this.droppedReplyOut = Processor.fromIdentityScript(stage);
+        this.engine = Processor.fromConsumerScript(stage, task -> task.run());
+        this.keyFuncI = Objects.requireNonNull(builder.keyFuncI, "keyFuncI");
+        this.keyFuncR = Objects.requireNonNull(builder.keyFuncR, "keyFuncR");
+        this.expectedFunc = Objects.requireNonNull(builder.expectedFunc, "expected");
+        this.aggregator = Objects.requireNonNull(builder.aggregator, "aggregator");
+        this.deadline = Objects.requireNonNull(builder.deadline, "deadline");
+        this.delayedSender = builder.delayedSender != null ? builder.delayedSender : DelayedSender.newDelayedSender();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return the number of pending requests.
+     */
+    public int pendingRequestCount ()
+    {
+        return gathers.size();
+    }
+
+    /**
+     * Send requests to this input.
+     *
+     * @return the request-input.
+     */
+    public Input<I> requestIn ()
+    {
+        return dataIn.dataIn();
+    }
+
+    /**
+     * Requests will be forwarded to this output.
+     *
+     * @return the request-output.
+     */
+    public Output<I> requestOut ()
+    {
+        return requestOut.dataOut();
+    }
+
+    /**
+     * Send replies to this input.
+     *
+     * @return the reply-input.
+     */
+    public Input<R> replyIn ()
+    {
+        return replyIn.dataIn();
+    }
+
+    /**
+     * The result of aggregating a request and its
+     * replies will be transmitted via this output.
+     *
+     * @return the result-output.
+     */
+    public Output<O> resultOut ()
+    {
+        return resultOut.dataOut();
+    }
+
+    /**
+     * Dropped requests will be sent to this output.
+     *
+     * @return the output.
+     */
+    public Output<I> droppedRequestOut ()
+    {
+        return droppedRequestOut.dataOut();
+    }
+
+    /**
+     * Dropped replies will be sent to this output.
+     *
+     * @return the output.
+     */
+    public Output<R> droppedReplyOut ()
+    {
+        return droppedReplyOut.dataOut();
+    }
+
+    private void onRequestIn (final I message)
+    {
+        final Runnable task = () ->
+        {
+            /**
+             * Obtain the key that identifies the message.
+             */
+            final K key = keyFuncI.apply(message);
+            final int expected = expectedFunc.applyAsInt(message);
+
+            /**
+             * If the message is already being handled (duplicate message),
+             * or no replies are expected (nonsensical message),
+             * then drop the message; otherwise, assign the gather
+             * that will gather the replies to the message.
+             */
+            if (expected < 1 || gathers.containsKey(key))
+            {
+                droppedRequestOut.accept(message);
+            }
+            else
+            {
+                final Gather gather = pool.isEmpty() ? new Gather() : pool.pop();
+                gather.open(key, message, expected);
+                gathers.put(key, gather);
+                requestOut.accept(message);
+                gather.timer = delayedSender.send(engine.dataIn(), gather, deadline);
+            }
+        };
+
+        /**
+         * Synchronize the task relative to ones from other actors herein.
+         */
+        engine.accept(task);
+    }
+
+    private void onReplyIn (final R message)
+    {
+        final Runnable task = () ->
+        {
+            /**
+             * Obtain the key that identifies the message.
+             */
+            final K key = keyFuncR.apply(message);
+
+            /**
+             * If we are still interested in the message,
+             * then there will be an associated gather.
+             * Otherwise, drop the reply.
+             */
+            final Gather gather = gathers.get(key);
+
+            if (gather != null)
+            {
+                gather.recv(message);
+            }
+            else
+            {
+                droppedReplyOut.accept(message);
+            }
+        };
+
+        /**
+         * Synchronize the task relative to ones from other actors herein.
+         */
+        engine.accept(task);
+    }
+
+    /**
+     * Factory Method.
+     *
+     * @param stage will be used to create private actors.
+     * @return a new builder that can build the desired object.
+     * @param <K> is the type of the key used to correlate requests and replies.
+     * @param <I> is the type of the request messages.
+     * @param <R> is the type of the reply messages.
+     * @param <O> is the type of message created by combining a request and its replies.
+     */
+    public static <K, I, R, O> Builder<K, I, R, O> newScatterGather (final Stage stage)
+    {
+        return new Builder<>(stage);
+    }
+
+    /**
+     * Gathers the replies to a single request.
+     *
+     * <p>
+     * Like the handlers of a <code>Requester</code>, gathers are recycled,
+     * once closed, but only once it is certain that the deadline will never be delivered.
+     * All of the methods herein execute on the engine.
+     * </p>
+     */
+    private final class Gather
+            implements Runnable
+    {
+        /**
+         * This key identifies both the request and the corresponding replies.
+         */
+        private K key;
+
+        /**
+         * This is the request whose replies are being gathered.
+         */
+        private I request;
+
+        /**
+         * These are the replies that were received so far.
+         * This array is reused, when this gather is recycled.
+         */
+        private Object[] replies = new Object[4];
+
+        /**
+         * This is the number of replies that were received so far.
+         */
+        private int count;
+
+        /**
+         * This is the number of replies that are expected.
+         */
+        private int expected;
+
+        /**
+         * This flag is true, if this gather is closed,
+         * but the deadline could not be cancelled in time;
+         * therefore, the deadline will still be delivered.
+         */
+        private boolean awaitingStaleDeadline;
+
+        /**
+         * This is the scheduled deadline, which will be cancelled, when this gather closes.
+         */
+        private DelayedSender.Handle timer;
+
+        public void open (final K key,
+                          final I request,
+                          final int expected)
+        {
+            this.key = key;
+            this.request = request;
+            this.expected = expected;
+            this.count = 0;
+            this.awaitingStaleDeadline = false;
+            this.timer = null;
+
+            /**
+             * Presize the array, unless a huge number of replies is expected,
+             * in which case the array will grow as replies actually arrive.
+             */
+            if (replies.length < expected)
+            {
+                replies = new Object[Math.min(expected, 64)];
+            }
+        }
+
+        public void recv (final R reply)
+        {
+            if (count == replies.length)
+            {
+                replies = Arrays.copyOf(replies, Math.min(expected, 2 * count));
+            }
+
+            replies[count++] = reply;
+
+            if (count == expected)
+            {
+                /**
+                 * All of the expected replies were received.
+                 */
+                aggregate();
+            }
+        }
+
+        /**
+         * This method is invoked by the engine, whenever the deadline expires.
+         */
+        @Override
+        public void run ()
+        {
+            if (awaitingStaleDeadline)
+            {
+                /**
+                 * The deadline expired concurrently with the final reply arriving.
+                 * Now that the deadline has been delivered, this gather can safely be recycled.
+                 */
+                awaitingStaleDeadline = false;
+                release();
+            }
+            else if (count == 0)
+            {
+                /**
+                 * None of the recipients replied in time.
+                 * Give up and drop the request.
+                 */
+                timer = null;
+                droppedRequestOut.accept(request);
+                close();
+            }
+            else
+            {
+                /**
+                 * Some of the recipients replied in time.
+                 * Aggregate the partial set of replies.
+                 */
+                timer = null;
+                aggregate();
+            }
+        }
+
+        @SuppressWarnings ("unchecked")
+        private void aggregate ()
+        {
+            /**
+             * The aggregator receives its own copy of the replies,
+             * since the array herein will be reused.
+             */
+            final List<R> list = (List<R>) Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(replies, count)));
+            final O result = aggregator.apply(request, list);
+            resultOut.accept(result);
+            close();
+        }
+
+        private void close ()
+        {
+            gathers.remove(key);
+
+            /**
+             * If the deadline is still pending, then cancel it,
+             * so that the delayed-sender only holds deadlines
+             * for requests that are truly outstanding.
+             * If the deadline cannot be cancelled, then it will
+             * be delivered later; therefore, the recycling
+             * of this gather must wait until then.
+             */
+            if (timer != null && timer.cancel() == false)
+            {
+                awaitingStaleDeadline = true;
+                timer = null;
+            }
+            else
+            {
+                release();
+            }
+        }
+
+        private void release ()
+        {
+            Arrays.fill(replies, 0, count, null);
+            key = null;
+            request = null;
+            timer = null;
+            count = 0;
+
+            if (pool.size() < POOL_LIMIT)
+            {
+                pool.push(this);
+            }
+        }
+    }
+
+    /**
+     * Builder.
+     *
+     * @param <K> is the type of the key used to correlate requests and replies.
+     * @param <I> is the type of the request messages.
+     * @param <R> is the type of the reply messages.
+     * @param <O> is the type of message created by combining a request and its replies.
+     */
+    public static final class Builder<K, I, R, O>
+    {
+        private final Stage stage;
+
+        private Function<I, K> keyFuncI;
+
+        private Function<R, K> keyFuncR;
+
+        private ToIntFunction<I> expectedFunc;
+
+        private BiFunction<I, List<R>, O> aggregator;
+
+        private Duration deadline;
+
+        private DelayedSender delayedSender;
+
+        private Builder (final Stage stage)
+        {
+            this.stage = Objects.requireNonNull(stage, "stage");
+        }
+
+        /**
+         * Specify how to extract the key identifier from request-messages.
+         *
+         * @param functor will be used to identify request-messages.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withRequestKeyFunction (final Function<I, K> functor)
+        {
+            this.keyFuncI = Objects.requireNonNull(functor, "functor");
+            return this;
+        }
+
+        /**
+         * Specify how to extract the key identifier from reply-messages.
+         *
+         * @param functor will be used to identify reply-messages.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withReplyKeyFunction (final Function<R, K> functor)
+        {
+            this.keyFuncR = Objects.requireNonNull(functor, "functor");
+            return this;
+        }
+
+        /**
+         * Specify how many replies to expect per request.
+         *
+         * @param count is the number of replies to expect.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withExpectedReplies (final int count)
+        {
+            if (count < 1)
+            {
+                throw new IllegalArgumentException("count < 1");
+            }
+            else
+            {
+                this.expectedFunc = x -> count;
+                return this;
+            }
+        }
+
+        /**
+         * Specify how many replies to expect for each individual request.
+         *
+         * <p>
+         * If the function returns a number less than one,
+         * then the request will be dropped.
+         * </p>
+         *
+         * @param functor will determine the number of replies to expect.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withExpectedReplies (final ToIntFunction<I> functor)
+        {
+            this.expectedFunc = Objects.requireNonNull(functor, "functor");
+            return this;
+        }
+
+        /**
+         * Specify how to combine a request and its replies into a single result.
+         *
+         * <p>
+         * The replies are in the order received.
+         * If the deadline expired, then fewer replies
+         * than expected will be given to the aggregator.
+         * </p>
+         *
+         * @param functor will be used to combine requests and replies.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withAggregator (final BiFunction<I, List<R>, O> functor)
+        {
+            this.aggregator = Objects.requireNonNull(functor, "functor");
+            return this;
+        }
+
+        /**
+         * Specify how long to wait for replies after forwarding a request.
+         *
+         * @param deadline is how long to wait for replies.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withDeadline (final Duration deadline)
+        {
+            this.deadline = Objects.requireNonNull(deadline, "deadline");
+            return this;
+        }
+
+        /**
+         * Provide an actor for internal use.
+         *
+         * @param sender will be used to generate callbacks.
+         * @return this.
+         */
+        public Builder<K, I, R, O> withDelayedSender (final DelayedSender sender)
+        {
+            this.delayedSender = Objects.requireNonNull(sender, "sender");
+            return this;
+        }
+
+        /**
+         * Build.
+         *
+         * @return the new object.
+         */
+        public ScatterGather<K, I, R, O> build ()
+        {
+            return new ScatterGather<>(this);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Multiplexes the ticks of many clocks and oscillators onto few timers.
+ *
+ * <p>
+ * Normally, each clock registers its own periodic task with an executor.
+ * Thus, thousands of clocks cost thousands of periodic tasks,
+ * which the executor must constantly reorder in its queue.
+ * Instead, all of the clocks that use the same tick-scheduler and
+ * have compatible periods share a single periodic task, which sends
+ * a tick to each of the clocks, in a batch, whenever it runs.
+ * A period is compatible with a periodic task, if the period is
+ * a multiple of the period of the task. For example, a clock whose period
+ * is 20ms will share the task of a clock whose period is 10ms,
+ * but only acts upon every second tick of the task.
+ * Thus, the cost is proportional to the number of incompatible periods,
+ * rather than the number of clocks. Likewise, all of the oscillators
+ * that use the same tick-scheduler share a single timing-wheel.
+ * </p>
+ *
+ * <p>
+ * When a clock starts, it joins the compatible periodic task that has the
+ * longest period, if any; otherwise, a new periodic task is created.
+ * Clocks never move between periodic tasks, once started.
+ * </p>
+ *
+ * <p>
+ * The first tick of each clock is scheduled individually, once the initial delay
+ * of the clock has elapsed, just as if the clock was powered by an executor.
+ * Subsequent ticks are aligned with the periodic task that the clock joined;
+ * therefore, the interval between the first and second tick may be shorter than one period.
+ * </p>
+ *
+ * <p>
+ * If a clock throws an exception, when ticked, then the exception is reported
+ * to the uncaught-exception handler of the current thread, and the other
+ * clocks of the periodic task continue to be ticked.
+ * </p>
+ */
+public final class TickScheduler
+{
+    private static volatile TickScheduler instance;
+
+    /**
+     * This executor runs the periodic tasks and the timing-wheel.
+     */
+    private final ScheduledExecutorService service;
+
+    /**
+     * This timing-wheel schedules the ticks of oscillators.
+     */
+    private final TimingWheel wheel;
+
+    /**
+     * This map maps periods, in nanoseconds, to the groups of clocks that have those periods.
+     */
+    private final Map<Long, Group> groups = new ConcurrentHashMap<>();
+
+    /**
+     * This lock prevents groups from being concurrently created and destroyed.
+     * This lock is only acquired, when clocks start or stop.
+     */
+    private final Object lock = new Object();
+
+    private TickScheduler (final ScheduledExecutorService service,
+                           final Duration resolution)
+    {
+        this.service = Objects.requireNonNull(service, "service");
+        this.wheel = new TimingWheel(service, resolution, TimingWheel.DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Get the executor that powers this scheduler.
+     *
+     * @return the underlying executor.
+     */
+    public ScheduledExecutorService service ()
+    {
+        return service;
+    }
+
+    /**
+     * Get the resolution of the timing-wheel that schedules oscillator ticks.
+     *
+     * @return the resolution of the oscillators.
+     */
+    public Duration resolution ()
+    {
+        return wheel.resolution();
+    }
+
+    /**
+     * Get the number of periodic tasks that are currently scheduled,
+     * which is at most the number of distinct periods of the ticking clocks.
+     *
+     * @return the number of periodic tasks.
+     */
+    public int periodicTaskCount ()
+    {
+        return groups.size();
+    }
+
+    /**
+     * Get the number of clocks that are currently ticking.
+     *
+     * @return the number of subscribed clocks.
+     */
+    public int subscriberCount ()
+    {
+        int count = 0;
+
+        for (Group group : groups.values())
+        {
+            count += group.subscribers.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Cause the given action to be performed periodically.
+     *
+     * @param period is the amount of time between invocations.
+     * @param delay is the amount of time before the first invocation.
+     * @param action will be given the time of each tick.
+     * @return an object that can be used to stop the invocations.
+     */
+    Subscription subscribe (final Duration period,
+                            final Duration delay,
+                            final Consumer<Instant> action)
+    {
+        final long periodNanos = period.toNanos();
+
+        if (periodNanos <= 0)
+        {
+            throw new IllegalArgumentException("period <= 0");
+        }
+
+        final Subscription subscription;
+
+        synchronized (lock)
+        {
+            Group group = findCompatibleGroup(periodNanos);
+
+            if (group == null)
+            {
+                group = new Group(periodNanos);
+                groups.put(periodNanos, group);
+                subscription = new Subscription(group, 1, action);
+                group.subscribers.add(subscription);
+                group.future = service.scheduleAtFixedRate(group::onTick, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+            }
+            else
+            {
+                subscription = new Subscription(group, periodNanos / group.periodNanos, action);
+                group.subscribers.add(subscription);
+            }
+
+            subscription.first = service.schedule(subscription::onFirstTick, delay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        return subscription;
+    }
+
+    /**
+     * Find the group with the longest period that evenly divides the given period.
+     *
+     * @param periodNanos is the period of a clock.
+     * @return the group, or null, if no such group exists.
+     */
+    private Group findCompatibleGroup (final long periodNanos)
+    {
+        Group best = null;
+
+        for (Group group : groups.values())
+        {
+            if (periodNanos % group.periodNanos == 0 && (best == null || group.periodNanos > best.periodNanos))
+            {
+                best = group;
+            }
+        }
+
+        return best;
+    }
+
+    private void unsubscribe (final Subscription subscription)
+    {
+        synchronized (lock)
+        {
+            final boolean interrupt = false;
+            final Group group = subscription.group;
+
+            if (subscription.first != null)
+            {
+                subscription.first.cancel(interrupt);
+            }
+
+            if (group.subscribers.remove(subscription) && group.subscribers.isEmpty())
+            {
+                groups.remove(group.periodNanos);
+                group.future.cancel(interrupt);
+            }
+        }
+    }
+
+    /**
+     * Schedule sending a message to an actor.
+     *
+     * @param <T> is the type of the message.
+     * @param destination is who the message will be sent to.
+     * @param message is the message to send.
+     * @param delay is how long to wait before sending the message.
+     * @return a handle that can be used to cancel the send.
+     */
+    <T> DelayedSender.Handle schedule (final Input<? super T> destination,
+                                       final T message,
+                                       final Duration delay)
+    {
+        return wheel.schedule(destination, message, delay.toNanos());
+    }
+
+    /**
+     * Get the shared tick-scheduler, which is powered by the default-executor,
+     * creating it, if necessary.
+     *
+     * <p>
+     * The resolution of the shared scheduler is one millisecond.
+     * </p>
+     *
+     * @return the shared tick-scheduler.
+     */
+    public static TickScheduler instance ()
+    {
+        synchronized (TickScheduler.class)
+        {
+            if (instance == null)
+            {
+                instance = new TickScheduler(DefaultExecutor.instance().service(), Duration.ofMillis(1));
+            }
+        }
+
+        return instance;
+    }
+
+    /**
+     * Factory Method.
+     *
+     * @param service will power the new scheduler.
+     * @param resolution is the resolution of the oscillator ticks.
+     * @return the new scheduler.
+     */
+    public static TickScheduler newTickScheduler (final ScheduledExecutorService service,
+                                                  final Duration resolution)
+    {
+        return new TickScheduler(service, resolution);
+    }
+
+    /**
+     * The clocks that have compatible periods.
+     */
+    private static final class Group
+    {
+        public final long periodNanos;
+
+        public final CopyOnWriteArrayList<Subscription> subscribers = new CopyOnWriteArrayList<>();
+
+        public volatile Future<?> future;
+
+        private Group (final long periodNanos)
+        {
+            this.periodNanos = periodNanos;
+        }
+
+        private void onTick ()
+        {
+            /**
+             * A single timestamp is shared by the entire batch,
+             * since the ticks are simultaneous, for all practical purposes.
+             */
+            final Instant time = Instant.now();
+
+            for (Subscription subscription : subscribers)
+            {
+                try
+                {
+                    subscription.onTick(time);
+                }
+                catch (Throwable ex)
+                {
+                    TimingWheel.report(ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * A single clock that is subscribed to a periodic task.
+     */
+    final class Subscription
+    {
+        private final Group group;
+
+        /**
+         * This is the number of ticks of the periodic task per tick of the clock.
+         */
+        private final long stride;
+
+        private final Consumer<Instant> action;
+
+        /**
+         * This is the number of ticks of the periodic task until the next tick of the clock.
+         * This field is only accessed by the periodic task.
+         */
+        private long countdown;
+
+        /**
+         * This flag becomes true, once the first tick has been sent.
+         */
+        private volatile boolean active = false;
+
+        /**
+         * This task sends the first tick, once the initial delay has elapsed.
+         */
+        private volatile Future<?> first;
+
+        private Subscription (final Group group,
+                              final long stride,
+                              final Consumer<Instant> action)
+        {
+            this.group = group;
+            this.stride = stride;
+            this.countdown = stride;
+            this.action = action;
+        }
+
+        private void onFirstTick ()
+        {
+            try
+            {
+                action.accept(Instant.now());
+            }
+            catch (Throwable ex)
+            {
+                TimingWheel.report(ex);
+            }
+
+            active = true;
+        }
+
+        private void onTick (final Instant time)
+        {
+            if (active && --countdown == 0)
+            {
+                countdown = stride;
+                action.accept(time);
+            }
+        }
+
+        /**
+         * Stop the invocations of the action.
+         */
+        public void cancel ()
+        {
+            unsubscribe(this);
+        }
+    }
+}
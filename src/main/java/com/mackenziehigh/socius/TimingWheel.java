@@ -0,0 +1,469 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A hashed timing-wheel that sends messages to actors after delays.
+ *
+ * <p>
+ * The wheel is a circular array of buckets. Each bucket is a linked-list
+ * of the timeouts that expire during the ticks that hash to that bucket.
+ * A single periodic task advances the wheel one bucket per tick and
+ * sends the messages of all of the expired timeouts therein, in a batch.
+ * Timeouts that will expire after more than one revolution of the wheel
+ * simply remain in their bucket until the revolution in which they expire.
+ * </p>
+ *
+ * <p>
+ * The periodic task only runs while timeouts are pending.
+ * Once the wheel is empty, the task stops rescheduling itself,
+ * and the next timeout that is scheduled restarts the task.
+ * Thus, an idle wheel costs nothing and can simply be discarded.
+ * </p>
+ *
+ * <p>
+ * Scheduling a timeout merely appends it to a lock-free queue, which is O(1).
+ * Likewise, cancelling a timeout merely marks it as cancelled and appends
+ * it to another lock-free queue, which is O(1). The periodic task drains
+ * both queues on each tick, which links and unlinks the timeouts
+ * into and out of the buckets in O(1) per timeout.
+ * Only the periodic task ever touches the buckets; therefore, no locks are needed.
+ * </p>
+ *
+ * <p>
+ * Delays are rounded up to a whole number of ticks.
+ * Thus, the resolution of the wheel is the duration of a tick.
+ * </p>
+ *
+ * <p>
+ * If sending the message of a timeout throws an exception, then the exception
+ * is reported to the uncaught-exception handler of the current thread and the
+ * wheel continues, since an exception that escaped the periodic task
+ * would silently cancel the task, which would strand every other timeout.
+ * </p>
+ */
+final class TimingWheel
+{
+    /**
+     * This is the default number of buckets in the wheel.
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * This is the maximum number of buckets in the wheel.
+     */
+    public static final int MAX_WHEEL_SIZE = 1 << 24;
+
+    /**
+     * This executor runs the periodic task that advances the wheel.
+     */
+    private final ScheduledExecutorService service;
+
+    /**
+     * This is the duration of a single tick in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * These are the heads of the linked-lists of timeouts.
+     */
+    private final Timeout[] buckets;
+
+    /**
+     * This mask maps a tick number to a bucket index.
+     */
+    private final int mask;
+
+    /**
+     * These timeouts were scheduled, but are not yet in a bucket.
+     */
+    private final Queue<Timeout> additions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * These timeouts were cancelled and may need to be removed from a bucket.
+     */
+    private final Queue<Timeout> cancellations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * This flag is true, while the periodic task is scheduled.
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * This is the time, per the monotonic clock, that tick zero began.
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * This is the number of the next tick to process.
+     * This field is only accessed by the periodic task.
+     */
+    private long tick = 0;
+
+    /**
+     * This is the number of timeouts that are currently in a bucket.
+     * This field is only accessed by the periodic task.
+     */
+    private int linked = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param service will run the periodic task that advances the wheel.
+     * @param resolution is the duration of a single tick.
+     * @param wheelSize is the minimum number of buckets in the wheel,
+     * which will be rounded up to the next power-of-two.
+     */
+    public TimingWheel (final ScheduledExecutorService service,
+                        final Duration resolution,
+                        final int wheelSize)
+    {
+        this.service = Objects.requireNonNull(service, "service");
+        Objects.requireNonNull(resolution, "resolution");
+
+        if (resolution.isNegative() || resolution.isZero())
+        {
+            throw new IllegalArgumentException("resolution <= 0");
+        }
+        else if (wheelSize < 1)
+        {
+            throw new IllegalArgumentException("wheelSize < 1");
+        }
+        else if (wheelSize > MAX_WHEEL_SIZE)
+        {
+            throw new IllegalArgumentException("wheelSize > " + MAX_WHEEL_SIZE);
+        }
+
+        this.tickNanos = resolution.toNanos();
+        this.buckets = new Timeout[Integer.highestOneBit(wheelSize * 2 - 1)];
+        this.mask = buckets.length - 1;
+    }
+
+    /**
+     * Get the duration of a single tick.
+     *
+     * @return the resolution of the wheel.
+     */
+    public Duration resolution ()
+    {
+        return Duration.ofNanos(tickNanos);
+    }
+
+    /**
+     * Schedule sending a message to an actor.
+     *
+     * @param <T> is the type of the message.
+     * @param destination is who the message will be sent to.
+     * @param message is the message to send.
+     * @param delayNanos is how long to wait before sending the message.
+     * @return the new timeout, which can be used to cancel the send.
+     */
+    public <T> Timeout schedule (final Input<? super T> destination,
+                                 final T message,
+                                 final long delayNanos)
+    {
+        /**
+         * Round the deadline up to the first tick that begins at, or after, the due time.
+         * Since a tick is only processed once it has begun, the timeout never expires early.
+         * If that tick was already processed, then the timeout will be clamped
+         * to the next tick, when it is added to the wheel.
+         */
+        final long elapsed = System.nanoTime() - startNanos;
+        final long deadline = (elapsed + Math.max(delayNanos, 0) + tickNanos - 1) / tickNanos;
+        final Timeout timeout = new Timeout(this, destination, message, deadline);
+        additions.add(timeout);
+        start();
+        return timeout;
+    }
+
+    /**
+     * Determine whether the periodic task is currently scheduled.
+     *
+     * @return true, if the periodic task is running.
+     */
+    boolean isRunning ()
+    {
+        return running.get();
+    }
+
+    private void start ()
+    {
+        if (running.get() == false && running.compareAndSet(false, true))
+        {
+            reschedule();
+        }
+    }
+
+    /**
+     * Schedule the next run of the periodic task at the start of the next tick.
+     */
+    private void reschedule ()
+    {
+        final long elapsed = System.nanoTime() - startNanos;
+        final long delayNanos = Math.max((elapsed / tickNanos + 1) * tickNanos - elapsed, 0);
+        service.schedule(this::onTick, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * This method is invoked periodically in order to advance the wheel.
+     *
+     * <p>
+     * If the executor fell behind, due to a long pause, then this method
+     * will process all of the ticks that should have already occurred.
+     * </p>
+     */
+    private void onTick ()
+    {
+        final long now = (System.nanoTime() - startNanos) / tickNanos;
+
+        /**
+         * If the wheel was idle, then the buckets are empty;
+         * therefore, the ticks that passed in the meantime can be skipped.
+         */
+        if (linked == 0)
+        {
+            tick = Math.max(tick, now);
+        }
+
+        while (tick <= now)
+        {
+            drainCancellations();
+            drainAdditions();
+            expire(tick);
+            ++tick;
+        }
+
+        if (linked > 0 || additions.isEmpty() == false)
+        {
+            reschedule();
+            return;
+        }
+
+        /**
+         * The wheel is empty, so stop the periodic task.
+         * A timeout may have been added after the emptiness check,
+         * but before the flag was cleared, in which case the scheduling
+         * thread saw the task as running and did not restart the task.
+         * Therefore, check again, after clearing the flag.
+         */
+        running.set(false);
+
+        if (additions.isEmpty() == false)
+        {
+            start();
+        }
+    }
+
+    private void drainAdditions ()
+    {
+        for (Timeout timeout = additions.poll(); timeout != null; timeout = additions.poll())
+        {
+            if (timeout.state == Timeout.PENDING)
+            {
+                /**
+                 * If the deadline has already passed, then the timeout
+                 * must be placed in the current bucket, so that the timeout
+                 * expires now, rather than after a full revolution of the wheel.
+                 */
+                link(timeout, Math.max(timeout.deadline, tick));
+            }
+        }
+    }
+
+    private void drainCancellations ()
+    {
+        for (Timeout timeout = cancellations.poll(); timeout != null; timeout = cancellations.poll())
+        {
+            unlink(timeout);
+        }
+    }
+
+    private void expire (final long currentTick)
+    {
+        Timeout timeout = buckets[(int) (currentTick & mask)];
+
+        while (timeout != null)
+        {
+            final Timeout next = timeout.next;
+
+            if (timeout.deadline <= currentTick)
+            {
+                unlink(timeout);
+
+                if (Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED))
+                {
+                    try
+                    {
+                        timeout.fire();
+                    }
+                    catch (Throwable ex)
+                    {
+                        report(ex);
+                    }
+                }
+            }
+
+            timeout = next;
+        }
+    }
+
+    /**
+     * Report an exception that was thrown by a periodic task,
+     * which cannot be allowed to propagate out of the task.
+     *
+     * @param ex was thrown by the task.
+     */
+    static void report (final Throwable ex)
+    {
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+    }
+
+    private void link (final Timeout timeout,
+                       final long targetTick)
+    {
+        final int index = (int) (targetTick & mask);
+        final Timeout head = buckets[index];
+        timeout.bucket = index;
+        timeout.prev = null;
+        timeout.next = head;
+
+        if (head != null)
+        {
+            head.prev = timeout;
+        }
+
+        buckets[index] = timeout;
+        ++linked;
+    }
+
+    private void unlink (final Timeout timeout)
+    {
+        if (timeout.bucket < 0)
+        {
+            return;
+        }
+
+        if (timeout.prev == null)
+        {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        else
+        {
+            timeout.prev.next = timeout.next;
+        }
+
+        if (timeout.next != null)
+        {
+            timeout.next.prev = timeout.prev;
+        }
+
+        timeout.bucket = -1;
+        timeout.prev = null;
+        timeout.next = null;
+        --linked;
+    }
+
+    /**
+     * A single scheduled send.
+     */
+    static final class Timeout
+            implements DelayedSender.Handle
+    {
+        private static final int PENDING = 0;
+
+        private static final int EXPIRED = 1;
+
+        private static final int CANCELLED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel wheel;
+
+        private final Input<Object> destination;
+
+        private final Object message;
+
+        /**
+         * This is the tick during which this timeout will expire.
+         */
+        private final long deadline;
+
+        private volatile int state = PENDING;
+
+        /**
+         * These fields are only accessed by the periodic task.
+         */
+        private int bucket = -1;
+
+        private Timeout prev;
+
+        private Timeout next;
+
+        @SuppressWarnings ("unchecked")
+        private Timeout (final TimingWheel wheel,
+                         final Input<?> destination,
+                         final Object message,
+                         final long deadline)
+        {
+            this.wheel = wheel;
+            this.destination = (Input<Object>) destination;
+            this.message = message;
+            this.deadline = deadline;
+        }
+
+        private void fire ()
+        {
+            destination.send(message);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean cancel ()
+        {
+            if (STATE.compareAndSet(this, PENDING, CANCELLED))
+            {
+                wheel.cancellations.add(this);
+                return true;
+            }
+            else
+            {
+                return false;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isPending ()
+        {
+            return state == PENDING;
+        }
+    }
+}
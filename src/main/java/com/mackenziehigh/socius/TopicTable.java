@@ -0,0 +1,328 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntFunction;
+
+/**
+ * An immutable trie that maps hierarchical topic patterns to values.
+ *
+ * <p>
+ * A topic is a sequence of levels separated by periods (<code>orders.eu.fr</code>).
+ * A pattern is a topic, whose levels may be wildcards.
+ * The single-level wildcard (<code>*</code>) matches exactly one level.
+ * The multi-level wildcard (<code>#</code>) matches zero-or-more levels,
+ * but may only be the last level of a pattern.
+ * For example, <code>orders.*.fr</code> matches <code>orders.eu.fr</code>,
+ * and <code>orders.#</code> matches both <code>orders</code> and <code>orders.eu.fr</code>.
+ * A wildcard character that is only part of a level is not a wildcard.
+ * </p>
+ *
+ * <p>
+ * Each level of the trie is a <code>RouteTable</code>; therefore, adding or removing
+ * a pattern only copies the path to the pattern, which is O(depth * log n).
+ * Matching a topic visits one path per single-level wildcard that could match,
+ * which is O(depth), regardless of the number of patterns in the trie,
+ * since a multi-level wildcard always ends a path, rather than forking it.
+ * </p>
+ *
+ * <p>
+ * Moreover, the result of matching a topic is cached in this version
+ * of the trie, so that subsequent matches of the same topic neither
+ * traverse the trie, nor allocate any objects. At most <code>CACHE_LIMIT</code>
+ * topics are cached per version. Once the limit is reached, the cache is cleared,
+ * so that the topics that are currently in use are cached again, rather than
+ * the topics that happened to be seen first. Thus, if more distinct topics are
+ * in use than the limit, then some matches will traverse the trie and allocate.
+ * The result arrays are interned, so that the many topics that match the
+ * same values share a single array, which keeps the cache small.
+ * Since each version of the trie has its own cache, the cache
+ * starts empty, whenever a pattern is added or removed.
+ * </p>
+ *
+ * @param <V> is the type of the values.
+ */
+final class TopicTable<V>
+{
+    /**
+     * This is the separator between the levels of a topic.
+     */
+    public static final String SEPARATOR = ".";
+
+    /**
+     * This is the wildcard that matches exactly one level.
+     */
+    public static final String SINGLE_LEVEL_WILDCARD = "*";
+
+    /**
+     * This is the wildcard that matches zero-or-more levels.
+     */
+    public static final String MULTI_LEVEL_WILDCARD = "#";
+
+    /**
+     * This is the maximum number of match results that will be cached,
+     * which prevents unbounded memory growth, if the topics are unbounded.
+     */
+    static final int CACHE_LIMIT = 1 << 16;
+
+    private final Node<V> root;
+
+    private final IntFunction<V[]> arrays;
+
+    private final V[] none;
+
+    /**
+     * This map caches the results of matching topics against this version of the trie.
+     * Since the trie is immutable, the cached results never become stale.
+     */
+    private final ConcurrentMap<String, V[]> cache = new ConcurrentHashMap<>();
+
+    /**
+     * This map interns the result arrays, so that identical results share one array.
+     */
+    private final ConcurrentMap<List<V>, V[]> interned = new ConcurrentHashMap<>();
+
+    private TopicTable (final Node<V> root,
+                        final IntFunction<V[]> arrays)
+    {
+        this.root = root;
+        this.arrays = arrays;
+        this.none = arrays.apply(0);
+    }
+
+    /**
+     * Get an empty trie.
+     *
+     * @param <V> is the type of the values.
+     * @param arrays will be used to create arrays of values.
+     * @return the empty trie.
+     */
+    public static <V> TopicTable<V> empty (final IntFunction<V[]> arrays)
+    {
+        Objects.requireNonNull(arrays, "arrays");
+        return new TopicTable<>(new Node<>(RouteTable.empty(), arrays.apply(0)), arrays);
+    }
+
+    /**
+     * Get the values that are associated with a given pattern.
+     *
+     * <p>
+     * This method does not perform any wildcard matching.
+     * </p>
+     *
+     * @param pattern identifies the values.
+     * @return the values, or an empty array, if no such values exist.
+     */
+    public V[] get (final String pattern)
+    {
+        Objects.requireNonNull(pattern, "pattern");
+
+        Node<V> node = root;
+
+        for (String level : split(pattern))
+        {
+            node = node.children.get(level);
+
+            if (node == null)
+            {
+                return none;
+            }
+        }
+
+        return node.values;
+    }
+
+    /**
+     * Create a new trie that is the same as this trie,
+     * except that the given pattern is associated with the given values.
+     *
+     * @param pattern identifies the values.
+     * @param values will be associated with the pattern, or removed, if empty.
+     * @return the new trie.
+     * @throws IllegalArgumentException if the pattern is malformed.
+     */
+    public TopicTable<V> with (final String pattern,
+                               final V[] values)
+    {
+        checkPattern(pattern);
+        Objects.requireNonNull(values, "values");
+        final Node<V> modified = root.with(split(pattern), 0, values);
+        return new TopicTable<>(modified != null ? modified : new Node<>(RouteTable.empty(), none), arrays);
+    }
+
+    /**
+     * Verify that a multi-level wildcard only appears as the last level of a pattern,
+     * since a multi-level wildcard elsewhere would make matching super-linear.
+     *
+     * @param pattern is the pattern to check.
+     * @throws IllegalArgumentException if the pattern is malformed.
+     */
+    public static void checkPattern (final String pattern)
+    {
+        Objects.requireNonNull(pattern, "pattern");
+
+        final String[] levels = split(pattern);
+
+        for (int i = 0; i < levels.length - 1; i++)
+        {
+            if (levels[i].equals(MULTI_LEVEL_WILDCARD))
+            {
+                throw new IllegalArgumentException("multi-level wildcard is not last");
+            }
+        }
+    }
+
+    /**
+     * Find all of the values whose patterns match the given topic.
+     *
+     * @param topic is the topic to match.
+     * @return the distinct values, in an array that must not be modified.
+     */
+    public V[] match (final String topic)
+    {
+        Objects.requireNonNull(topic, "topic");
+
+        final V[] cached = cache.get(topic);
+
+        if (cached != null)
+        {
+            return cached;
+        }
+
+        final Set<V> results = new LinkedHashSet<>();
+        match(root, split(topic), 0, results);
+        final V[] matches = results.isEmpty() ? none : interned.computeIfAbsent(new ArrayList<>(results), x -> x.toArray(arrays.apply(x.size())));
+
+        /**
+         * Concurrent clears and puts may briefly exceed the limit, which is harmless.
+         */
+        if (cache.size() >= CACHE_LIMIT)
+        {
+            cache.clear();
+            interned.clear();
+        }
+
+        cache.put(topic, matches);
+        return matches;
+    }
+
+    private static <V> void match (final Node<V> node,
+                                   final String[] levels,
+                                   final int index,
+                                   final Set<V> results)
+    {
+        /**
+         * The multi-level wildcard consumes all of the remaining levels, if any.
+         * Since the multi-level wildcard is always the last level of a pattern,
+         * the wildcard node only has values, rather than children.
+         */
+        final Node<V> multi = node.children.get(MULTI_LEVEL_WILDCARD);
+
+        if (multi != null)
+        {
+            for (V value : multi.values)
+            {
+                results.add(value);
+            }
+        }
+
+        if (index == levels.length)
+        {
+            for (V value : node.values)
+            {
+                results.add(value);
+            }
+
+            return;
+        }
+
+        final Node<V> exact = node.children.get(levels[index]);
+
+        if (exact != null)
+        {
+            match(exact, levels, index + 1, results);
+        }
+
+        final Node<V> single = node.children.get(SINGLE_LEVEL_WILDCARD);
+
+        if (single != null)
+        {
+            match(single, levels, index + 1, results);
+        }
+    }
+
+    private static String[] split (final String topic)
+    {
+        return topic.split("\\.", -1);
+    }
+
+    /**
+     * A single level of the trie.
+     */
+    private static final class Node<V>
+    {
+        public final RouteTable<String, Node<V>> children;
+
+        public final V[] values;
+
+        public Node (final RouteTable<String, Node<V>> children,
+                     final V[] values)
+        {
+            this.children = children;
+            this.values = values;
+        }
+
+        /**
+         * Create a copy of this node, such that the values at the end
+         * of the path through the trie, which is described by the levels
+         * starting at the given index, are replaced with the given values.
+         *
+         * @return the new node, or null, if the new node would be empty.
+         */
+        public Node<V> with (final String[] levels,
+                             final int index,
+                             final V[] replacement)
+        {
+            final Node<V> result;
+
+            if (index == levels.length)
+            {
+                result = new Node<>(children, replacement);
+            }
+            else
+            {
+                final String level = levels[index];
+                final Node<V> child = children.get(level);
+                final Node<V> base = child != null ? child : new Node<>(RouteTable.empty(), Arrays.copyOf(values, 0));
+                final Node<V> modified = base.with(levels, index + 1, replacement);
+                result = new Node<>(modified == null ? children.without(level) : children.with(level, modified), values);
+            }
+
+            /**
+             * Prune the branches that no longer lead to any values.
+             */
+            return result.values.length == 0 && result.children.size() == 0 ? null : result;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.cascade.Cascade.Stage;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Context;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Input;
+import com.mackenziehigh.cascade.Cascade.Stage.Actor.Output;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Splits incoming batches into the individual messages therein.
+ *
+ * <p>
+ * The messages are sent in the order that they occur in the batch.
+ * Once a batch has been split, the batch itself is sent to the
+ * recycle-output, which can be connected to the recycle-input
+ * of a <code>Batcher</code>, so that the batch can be reused.
+ * </p>
+ *
+ * @param <T> is the type of the messages in the batches.
+ */
+public final class Unbatcher<T>
+        implements Pipeline<List<T>, T>
+{
+    /**
+     * Provides the data-input and data-output connectors.
+     */
+    private final Pipeline<List<T>, T> splitter;
+
+    /**
+     * Provides the recycle-output connector.
+     */
+    private final Processor<List<T>> recycleOut;
+
+    private Unbatcher (final Stage stage)
+    {
+        this.splitter = Pipeline.fromContextScript(stage, this::onBatch);
+        this.recycleOut = Processor.fromIdentityScript(stage);
+    }
+
+    private void onBatch (final Context<List<T>, T> context,
+                          final List<T> batch)
+    {
+        if (batch instanceof RandomAccess)
+        {
+            /**
+             * Avoid allocating an iterator.
+             */
+            final int size = batch.size();
+
+            for (int i = 0; i < size; i++)
+            {
+                context.sendFrom(batch.get(i));
+            }
+        }
+        else
+        {
+            for (T message : batch)
+            {
+                context.sendFrom(message);
+            }
+        }
+
+        recycleOut.accept(batch);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Input<List<T>> dataIn ()
+    {
+        return splitter.dataIn();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Output<T> dataOut ()
+    {
+        return splitter.dataOut();
+    }
+
+    /**
+     * Batches will be sent to this output, after they are split.
+     *
+     * @return the recycle-output.
+     */
+    public Output<List<T>> recycleOut ()
+    {
+        return recycleOut.dataOut();
+    }
+
+    /**
+     * Factory Method.
+     *
+     * @param <T> is the type of the messages in the batches.
+     * @param stage will be used to create private actors.
+     * @return the new object.
+     */
+    public static <T> Unbatcher<T> newUnbatcher (final Stage stage)
+    {
+        Objects.requireNonNull(stage, "stage");
+        return new Unbatcher<>(stage);
+    }
+}
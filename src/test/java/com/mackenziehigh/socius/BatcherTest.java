@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class BatcherTest
+{
+    private final AsyncTestTool tester = new AsyncTestTool();
+
+    /**
+     * Test: 20261016180211403118
+     *
+     * <p>
+     * Case: Batches are sent, when they reach the maximum size.
+     * </p>
+     */
+    @Test
+    public void test20261016180211403118 ()
+    {
+        final Batcher<String> batcher = Batcher.<String>newBatcher(tester.stage()).withMaxSize(3).build();
+        tester.connect(batcher.dataOut());
+
+        Arrays.asList("A", "B", "C", "D", "E", "F", "G").forEach(x -> batcher.dataIn().send(x));
+
+        tester.awaitEquals(batcher.dataOut(), Arrays.asList("A", "B", "C"));
+        tester.awaitEquals(batcher.dataOut(), Arrays.asList("D", "E", "F"));
+        tester.awaitSteadyState();
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016180211403207
+     *
+     * <p>
+     * Case: Batches are sent, when they reach the maximum weight.
+     * </p>
+     */
+    @Test
+    public void test20261016180211403207 ()
+    {
+        final Batcher<String> batcher = Batcher
+                .<String>newBatcher(tester.stage())
+                .withMaxWeight(5, String::length)
+                .build();
+        tester.connect(batcher.dataOut());
+
+        Arrays.asList("AA", "BB", "CCC", "DDDDDD", "E").forEach(x -> batcher.dataIn().send(x));
+
+        tester.awaitEquals(batcher.dataOut(), Arrays.asList("AA", "BB", "CCC"));
+        tester.awaitEquals(batcher.dataOut(), Arrays.asList("DDDDDD"));
+        tester.awaitSteadyState();
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016180211403235
+     *
+     * <p>
+     * Case: Partial batches are sent, when the linger time expires.
+     * </p>
+     */
+    @Test
+    public void test20261016180211403235 ()
+    {
+        final Batcher<String> batcher = Batcher
+                .<String>newBatcher(tester.stage())
+                .withMaxSize(3)
+                .withMaxLinger(Duration.ofMillis(100))
+                .build();
+        tester.connect(batcher.dataOut());
+
+        /**
+         * Full batches are sent immediately.
+         */
+        Arrays.asList("A", "B", "C", "D").forEach(x -> batcher.dataIn().send(x));
+        tester.awaitEquals(batcher.dataOut(), Arrays.asList("A", "B", "C"));
+
+        /**
+         * The remainder is sent once the linger time expires.
+         */
+        tester.awaitEquals(batcher.dataOut(), Arrays.asList("D"));
+
+        batcher.dataIn().send("E");
+        batcher.dataIn().send("F");
+        tester.awaitEquals(batcher.dataOut(), Arrays.asList("E", "F"));
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016180211403261
+     *
+     * <p>
+     * Case: Recycled batches are reused.
+     * </p>
+     */
+    @Test
+    public void test20261016180211403261 ()
+    {
+        final Batcher<String> batcher = Batcher.<String>newBatcher(tester.stage()).withMaxSize(2).build();
+        final List<List<String>> batches = new ArrayList<>();
+        final Processor<List<String>> collector = Processor.fromConsumerScript(tester.stage(), x -> batches.add(x));
+        batcher.dataOut().connect(collector.dataIn());
+
+        batcher.dataIn().send("A");
+        batcher.dataIn().send("B");
+        tester.awaitTrue(() -> batches.size() == 1);
+        final List<String> first = batches.get(0);
+        assertEquals(Arrays.asList("A", "B"), first);
+
+        /**
+         * Lists that are not known to be mutable are not pooled.
+         */
+        batcher.recycleIn().send(Arrays.asList("X"));
+        batcher.recycleIn().send(first);
+        tester.awaitTrue(() -> batcher.pooledBatchCount() == 1);
+        assertTrue(first.isEmpty());
+
+        batcher.dataIn().send("C");
+        batcher.dataIn().send("D");
+        tester.awaitTrue(() -> batches.size() == 2);
+        assertSame(first, batches.get(1));
+        assertEquals(Arrays.asList("C", "D"), batches.get(1));
+        assertEquals(0, batcher.pooledBatchCount());
+    }
+
+    /**
+     * Test: 20261016180211403288
+     *
+     * <p>
+     * Case: A batcher and an unbatcher can be connected in a loop,
+     * so that batches are recycled automatically.
+     * </p>
+     */
+    @Test
+    public void test20261016180211403288 ()
+    {
+        final Batcher<String> batcher = Batcher.<String>newBatcher(tester.stage()).withMaxSize(2).build();
+        final Unbatcher<String> unbatcher = Unbatcher.newUnbatcher(tester.stage());
+        batcher.dataOut().connect(unbatcher.dataIn());
+        unbatcher.recycleOut().connect(batcher.recycleIn());
+        tester.connect(unbatcher.dataOut());
+
+        Arrays.asList("A", "B", "C", "D").forEach(x -> batcher.dataIn().send(x));
+
+        tester.awaitEquals(unbatcher.dataOut(), "A");
+        tester.awaitEquals(unbatcher.dataOut(), "B");
+        tester.awaitEquals(unbatcher.dataOut(), "C");
+        tester.awaitEquals(unbatcher.dataOut(), "D");
+        tester.awaitTrue(() -> batcher.pooledBatchCount() > 0);
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016180211403314
+     *
+     * <p>
+     * Case: Invalid builder settings.
+     * </p>
+     */
+    @Test
+    public void test20261016180211403314 ()
+    {
+        final Batcher.Builder<String> builder = Batcher.newBatcher(tester.stage());
+
+        try
+        {
+            builder.build();
+            fail();
+        }
+        catch (IllegalStateException ex)
+        {
+            assertEquals("No Flush Condition", ex.getMessage());
+        }
+
+        try
+        {
+            builder.withMaxSize(0);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("limit < 1", ex.getMessage());
+        }
+
+        try
+        {
+            builder.withMaxLinger(Duration.ZERO);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("limit <= 0", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class CalendarClockTest
+{
+    private final AsyncTestTool tester = new AsyncTestTool();
+
+    private final ScheduledThreadPoolExecutor service = new ScheduledThreadPoolExecutor(1);
+
+    @After
+    public void destroy ()
+    {
+        service.shutdownNow();
+    }
+
+    /**
+     * Test: 20261016210332719044
+     *
+     * <p>
+     * Case: Starting schedules a single task, and stopping cancels the task.
+     * </p>
+     */
+    @Test
+    public void test20261016210332719044 ()
+    {
+        service.setRemoveOnCancelPolicy(true);
+
+        final CalendarClock clock = CalendarClock
+                .newCalendarClock(tester.stage())
+                .withSchedule("0 0 * * *")
+                .withZone(ZoneId.of("America/New_York"))
+                .poweredBy(service)
+                .build();
+
+        assertEquals("0 0 * * *", clock.schedule());
+        assertEquals(ZoneId.of("America/New_York"), clock.zone());
+        assertFalse(clock.isUsingDefaultExecutor());
+        assertFalse(clock.isTicking());
+        assertFalse(clock.scheduledTick().isPresent());
+
+        final Instant before = Instant.now();
+        clock.start();
+        clock.start(); // Duplicate should be ignored.
+
+        assertTrue(clock.isTicking());
+        assertEquals(1, service.getQueue().size());
+        assertEquals(clock.nextTickAfter(before), clock.scheduledTick().get());
+
+        clock.stop();
+        clock.stop(); // Duplicate should be ignored.
+
+        assertFalse(clock.isTicking());
+        assertFalse(clock.scheduledTick().isPresent());
+        assertEquals(0, service.getQueue().size());
+        assertEquals(0, clock.tickCount());
+    }
+
+    /**
+     * Test: 20261016210332719131
+     *
+     * <p>
+     * Method: <code>nextTickAfter</code>
+     * </p>
+     *
+     * <p>
+     * Case: The schedule is interpreted in the time-zone of the clock.
+     * </p>
+     */
+    @Test
+    public void test20261016210332719131 ()
+    {
+        final CalendarClock utc = CalendarClock.newCalendarClock(tester.stage()).withSchedule("30 6 * * *").build();
+        final CalendarClock tokyo = CalendarClock
+                .newCalendarClock(tester.stage())
+                .withSchedule("30 6 * * *")
+                .withZone(ZoneOffset.ofHours(9))
+                .build();
+
+        final Instant now = Instant.parse("2026-10-16T00:00:00Z");
+        assertEquals(ZoneOffset.UTC, utc.zone());
+        assertEquals(Instant.parse("2026-10-16T06:30:00Z"), utc.nextTickAfter(now));
+        assertEquals(Instant.parse("2026-10-16T21:30:00Z"), tokyo.nextTickAfter(now));
+    }
+}
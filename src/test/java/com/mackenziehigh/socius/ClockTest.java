@@ -146,4 +146,229 @@ public final class ClockTest
         assertFalse(clock.isTicking());
         assertTrue(clock.isUsingDefaultExecutor());
     }
+
+    private Clock newClock (final Clock.Builder builder)
+    {
+        /**
+         * The first tick will never actually be scheduled to occur during the test.
+         * Instead, the test will advance the clock manually.
+         */
+        return builder.withDelay(Duration.ofHours(1)).withPeriod(Duration.ofMillis(1)).build();
+    }
+
+    /**
+     * Test: 20261016201507318420
+     *
+     * <p>
+     * Case: Missed Tick Policy = COALESCE.
+     * </p>
+     */
+    @Test
+    public void test20261016201507318420 ()
+    {
+        final AsyncTestTool tester = new AsyncTestTool();
+        final Clock clock = newClock(Clock.newClock().withMissedTickPolicy(Clock.MissedTickPolicy.COALESCE));
+        tester.connect(clock.tickOut());
+        clock.start();
+
+        final long origin = clock.originNanos();
+        final long period = clock.period().toNanos();
+
+        clock.advance(origin - 1);
+        clock.advance(origin);
+        Clock.Tick tick = tester.awaitMessage(clock.tickOut());
+        assertEquals(0, tick.sequenceNumber());
+        assertEquals(0, tick.missed());
+        assertEquals(origin, tick.scheduledNanos());
+
+        /**
+         * Waking early, or twice for the same tick, does not send a tick.
+         */
+        clock.advance(origin + period / 2);
+
+        clock.advance(origin + 10 * period);
+        tick = tester.awaitMessage(clock.tickOut());
+        assertEquals(10, tick.sequenceNumber());
+        assertEquals(9, tick.missed());
+        assertEquals(origin + 10 * period, tick.scheduledNanos());
+        assertEquals(origin + 10 * period, tick.nanoTime());
+
+        assertEquals(2, clock.tickCount());
+        assertEquals(9, clock.missedTickCount());
+        tester.assertEmptyOutputs();
+        clock.stop();
+    }
+
+    /**
+     * Test: 20261016201507318511
+     *
+     * <p>
+     * Case: Missed Tick Policy = SKIP.
+     * </p>
+     */
+    @Test
+    public void test20261016201507318511 ()
+    {
+        final AsyncTestTool tester = new AsyncTestTool();
+        final Clock clock = newClock(Clock.newClock().withMissedTickPolicy(Clock.MissedTickPolicy.SKIP));
+        tester.connect(clock.tickOut());
+        clock.start();
+
+        final long origin = clock.originNanos();
+        final long period = clock.period().toNanos();
+
+        clock.advance(origin + 5 * period);
+        final Clock.Tick tick = tester.awaitMessage(clock.tickOut());
+        assertEquals(5, tick.sequenceNumber());
+        assertEquals(0, tick.missed());
+        assertEquals(5, clock.missedTickCount());
+        tester.assertEmptyOutputs();
+        clock.stop();
+    }
+
+    /**
+     * Test: 20261016201507318547
+     *
+     * <p>
+     * Case: Missed Tick Policy = CATCH_UP, with a bounded burst.
+     * </p>
+     */
+    @Test
+    public void test20261016201507318547 ()
+    {
+        final AsyncTestTool tester = new AsyncTestTool();
+        final Clock clock = newClock(Clock.newClock().withMaxBurst(3));
+        assertEquals(Clock.MissedTickPolicy.CATCH_UP, clock.missedTickPolicy());
+        tester.connect(clock.tickOut());
+        clock.start();
+
+        final long origin = clock.originNanos();
+        final long period = clock.period().toNanos();
+
+        /**
+         * Six ticks are due, but only the most recent three are sent.
+         */
+        clock.advance(origin + 5 * period);
+        assertEquals(3, tester.awaitMessage(clock.tickOut()).sequenceNumber());
+        assertEquals(4, tester.awaitMessage(clock.tickOut()).sequenceNumber());
+        assertEquals(5, tester.awaitMessage(clock.tickOut()).sequenceNumber());
+        assertEquals(3, clock.missedTickCount());
+
+        clock.advance(origin + 7 * period);
+        assertEquals(6, tester.awaitMessage(clock.tickOut()).sequenceNumber());
+        assertEquals(7, tester.awaitMessage(clock.tickOut()).sequenceNumber());
+        assertEquals(3, clock.missedTickCount());
+        assertEquals(5, clock.tickCount());
+        tester.assertEmptyOutputs();
+        clock.stop();
+    }
+
+    /**
+     * Test: 20261016201507318583
+     *
+     * <p>
+     * Case: A clock with a missed-tick policy actually ticks on schedule,
+     * sending both ticks and instants.
+     * </p>
+     */
+    @Test
+    public void test20261016201507318583 ()
+    {
+        final AsyncTestTool tester = new AsyncTestTool();
+        final Clock clock = Clock
+                .newClock()
+                .withPeriod(Duration.ofMillis(10))
+                .withMissedTickPolicy(Clock.MissedTickPolicy.COALESCE)
+                .build();
+        tester.connect(clock.tickOut());
+        tester.connect(clock.dataOut());
+        clock.start();
+        assertTrue(clock.isTicking());
+
+        final Clock.Tick tick1 = tester.awaitMessage(clock.tickOut());
+        final Clock.Tick tick2 = tester.awaitMessage(clock.tickOut());
+        assertTrue(tick2.sequenceNumber() > tick1.sequenceNumber());
+        assertTrue(tick2.nanoTime() >= tick2.scheduledNanos());
+        assertNotNull(tester.awaitMessage(clock.dataOut()));
+
+        clock.stop();
+        assertFalse(clock.isTicking());
+    }
+
+    /**
+     * Test: 20261016201507318619
+     *
+     * <p>
+     * Case: Invalid maximum burst size.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016201507318619 ()
+    {
+        Clock.newClock().withMaxBurst(0);
+    }
+
+    /**
+     * Test: 20261017010233784105
+     *
+     * <p>
+     * Method: <code>tickOut</code>
+     * </p>
+     *
+     * <p>
+     * Case: The tick-output is unavailable without a missed-tick policy.
+     * </p>
+     */
+    @Test
+    public void test20261017010233784105 ()
+    {
+        try
+        {
+            Clock.newClock().build().tickOut();
+            fail();
+        }
+        catch (IllegalStateException ex)
+        {
+            assertEquals("no missed-tick policy", ex.getMessage());
+        }
+
+        try
+        {
+            Clock.newClock().poweredBy(TickScheduler.instance()).build().tickOut();
+            fail();
+        }
+        catch (IllegalStateException ex)
+        {
+            assertEquals("no missed-tick policy", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test: 20261017010233784172
+     *
+     * <p>
+     * Method: <code>dataOut</code>
+     * </p>
+     *
+     * <p>
+     * Case: A clock with a missed-tick policy only sends instants, if the tick-output is unused.
+     * </p>
+     */
+    @Test
+    public void test20261017010233784172 ()
+    {
+        final AsyncTestTool tester = new AsyncTestTool();
+        final Clock clock = newClock(Clock.newClock().withMissedTickPolicy(Clock.MissedTickPolicy.SKIP));
+        tester.connect(clock.dataOut());
+        clock.start();
+
+        final long origin = clock.originNanos();
+        final long period = clock.period().toNanos();
+
+        clock.advance(origin + 2 * period);
+        assertNotNull(tester.awaitMessage(clock.dataOut()));
+        assertEquals(1, clock.tickCount());
+        tester.assertEmptyOutputs();
+        clock.stop();
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import com.mackenziehigh.socius.CollectionSink.OverflowPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class CollectionSinkTest
+{
+    private final AsyncTestTool tester = new AsyncTestTool();
+
+    private CollectionSink<String> newSink (final OverflowPolicy policy)
+    {
+        final CollectionSink<String> sink = CollectionSink
+                .<String>newCollectionSink(tester.stage())
+                .withCapacity(2)
+                .withOverflowPolicy(policy)
+                .build();
+        tester.connect(sink.droppedOut());
+        return sink;
+    }
+
+    /**
+     * Test: 20261016182316620115
+     *
+     * <p>
+     * Method: <code>poll</code> and <code>drainTo</code>
+     * </p>
+     *
+     * <p>
+     * Case: Messages are retrieved in the order that they were received.
+     * </p>
+     */
+    @Test
+    public void test20261016182316620115 ()
+    {
+        final CollectionSink<String> sink = CollectionSink.<String>newCollectionSink(tester.stage()).withCapacity(8).build();
+        assertEquals(8, sink.capacity());
+        assertTrue(sink.isEmpty());
+        assertNull(sink.poll());
+
+        Arrays.asList("A", "B", "C", "D").forEach(sink);
+        tester.awaitTrue(() -> sink.size() == 4);
+
+        assertEquals("A", sink.poll());
+
+        final List<String> out = new ArrayList<>();
+        assertEquals(2, sink.drainTo(out, 2));
+        assertEquals(Arrays.asList("B", "C"), out);
+        assertEquals(1, sink.drainTo(out));
+        assertEquals(Arrays.asList("B", "C", "D"), out);
+        assertTrue(sink.isEmpty());
+    }
+
+    /**
+     * Test: 20261016182316620202
+     *
+     * <p>
+     * Case: Overflow Policy = DROP_NEWEST.
+     * </p>
+     */
+    @Test
+    public void test20261016182316620202 ()
+    {
+        final CollectionSink<String> sink = newSink(OverflowPolicy.DROP_NEWEST);
+
+        Arrays.asList("A", "B", "C", "D").forEach(sink);
+        tester.awaitEquals(sink.droppedOut(), "C");
+        tester.awaitEquals(sink.droppedOut(), "D");
+
+        final List<String> out = new ArrayList<>();
+        sink.drainTo(out);
+        assertEquals(Arrays.asList("A", "B"), out);
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016182316620231
+     *
+     * <p>
+     * Case: Overflow Policy = DROP_OLDEST.
+     * </p>
+     */
+    @Test
+    public void test20261016182316620231 ()
+    {
+        final CollectionSink<String> sink = newSink(OverflowPolicy.DROP_OLDEST);
+
+        Arrays.asList("A", "B", "C", "D").forEach(sink);
+        tester.awaitEquals(sink.droppedOut(), "A");
+        tester.awaitEquals(sink.droppedOut(), "B");
+
+        final List<String> out = new ArrayList<>();
+        sink.drainTo(out);
+        assertEquals(Arrays.asList("C", "D"), out);
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016182316620257
+     *
+     * <p>
+     * Case: Overflow Policy = BLOCK.
+     * </p>
+     */
+    @Test
+    public void test20261016182316620257 ()
+    {
+        final CollectionSink<String> sink = newSink(OverflowPolicy.BLOCK);
+
+        Arrays.asList("A", "B", "C", "D").forEach(sink);
+        tester.awaitTrue(() -> sink.size() == 2);
+
+        final List<String> out = new ArrayList<>();
+
+        while (out.size() < 4)
+        {
+            sink.drainTo(out);
+        }
+
+        assertEquals(Arrays.asList("A", "B", "C", "D"), out);
+        tester.assertEmptyOutputs();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class CronScheduleTest
+{
+    private static ZonedDateTime at (final int year,
+                                     final int month,
+                                     final int day,
+                                     final int hour,
+                                     final int minute)
+    {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Test: 20261016205744310251
+     *
+     * <p>
+     * Method: <code>next</code>
+     * </p>
+     *
+     * <p>
+     * Case: Every minute.
+     * </p>
+     */
+    @Test
+    public void test20261016205744310251 ()
+    {
+        final CronSchedule schedule = CronSchedule.parse("* * * * *");
+        assertEquals(at(2026, 10, 16, 20, 58), schedule.next(at(2026, 10, 16, 20, 57).plusSeconds(13)));
+        assertEquals(at(2026, 10, 16, 20, 58), schedule.next(at(2026, 10, 16, 20, 57)));
+        assertEquals(at(2027, 1, 1, 0, 0), schedule.next(at(2026, 12, 31, 23, 59)));
+    }
+
+    /**
+     * Test: 20261016205744310338
+     *
+     * <p>
+     * Method: <code>next</code>
+     * </p>
+     *
+     * <p>
+     * Case: Steps, ranges, and lists.
+     * </p>
+     */
+    @Test
+    public void test20261016205744310338 ()
+    {
+        final CronSchedule schedule = CronSchedule.parse("*/15 9-17 * * 1-5");
+
+        /**
+         * 2026-10-16 is a Friday.
+         */
+        assertEquals(at(2026, 10, 16, 9, 0), schedule.next(at(2026, 10, 16, 3, 0)));
+        assertEquals(at(2026, 10, 16, 9, 15), schedule.next(at(2026, 10, 16, 9, 0)));
+        assertEquals(at(2026, 10, 16, 17, 45), schedule.next(at(2026, 10, 16, 17, 30)));
+        assertEquals(at(2026, 10, 19, 9, 0), schedule.next(at(2026, 10, 16, 17, 45)));
+
+        final CronSchedule list = CronSchedule.parse("5,10/20 0 1 1,7 *");
+        assertEquals(at(2027, 1, 1, 0, 5), list.next(at(2026, 10, 16, 0, 0)));
+        assertEquals(at(2027, 1, 1, 0, 10), list.next(at(2027, 1, 1, 0, 5)));
+        assertEquals(at(2027, 1, 1, 0, 30), list.next(at(2027, 1, 1, 0, 10)));
+        assertEquals(at(2027, 1, 1, 0, 50), list.next(at(2027, 1, 1, 0, 30)));
+        assertEquals(at(2027, 7, 1, 0, 5), list.next(at(2027, 1, 1, 0, 50)));
+    }
+
+    /**
+     * Test: 20261016205744310372
+     *
+     * <p>
+     * Method: <code>next</code>
+     * </p>
+     *
+     * <p>
+     * Case: Day-of-month or day-of-week, including Sunday as seven.
+     * </p>
+     */
+    @Test
+    public void test20261016205744310372 ()
+    {
+        /**
+         * Either the 20th or any Sunday.
+         */
+        final CronSchedule schedule = CronSchedule.parse("0 12 20 * 7");
+        assertEquals(at(2026, 10, 18, 12, 0), schedule.next(at(2026, 10, 16, 0, 0)));
+        assertEquals(at(2026, 10, 20, 12, 0), schedule.next(at(2026, 10, 18, 12, 0)));
+        assertEquals(at(2026, 10, 25, 12, 0), schedule.next(at(2026, 10, 20, 12, 0)));
+
+        final CronSchedule leap = CronSchedule.parse("0 0 29 2 *");
+        assertEquals(at(2028, 2, 29, 0, 0), leap.next(at(2026, 10, 16, 0, 0)));
+    }
+
+    /**
+     * Test: 20261016205744310405
+     *
+     * <p>
+     * Case: Malformed and impossible schedules.
+     * </p>
+     */
+    @Test
+    public void test20261016205744310405 ()
+    {
+        for (String text : new String[]{"* * * *", "60 * * * *", "* 24 * * *", "* * 0 * *", "a * * * *", "5-1 * * * *", "*/0 * * * *"})
+        {
+            try
+            {
+                CronSchedule.parse(text);
+                fail(text);
+            }
+            catch (IllegalArgumentException ex)
+            {
+                assertEquals("Invalid Cron Expression: " + text, ex.getMessage());
+            }
+        }
+
+        try
+        {
+            CronSchedule.parse("0 0 31 2 *").next(at(2026, 1, 1, 0, 0));
+            fail();
+        }
+        catch (IllegalStateException ex)
+        {
+            assertEquals("No Matching Time: 0 0 31 2 *", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test: 20261017111240713529
+     *
+     * <p>
+     * Method: <code>next</code>
+     * </p>
+     *
+     * <p>
+     * Case: A local time that occurs twice, when daylight-saving time ends, only matches once.
+     * </p>
+     */
+    @Test
+    public void test20261017111240713529 ()
+    {
+        final ZoneId zone = ZoneId.of("America/New_York");
+        final CronSchedule schedule = CronSchedule.parse("30 1 * * *");
+
+        /**
+         * On 2026-11-01, the clocks go back from 02:00 EDT to 01:00 EST.
+         */
+        final ZonedDateTime midnight = ZonedDateTime.of(2026, 11, 1, 0, 0, 0, 0, zone);
+        final ZonedDateTime first = schedule.next(midnight);
+        assertEquals(ZonedDateTime.of(2026, 11, 1, 1, 30, 0, 0, zone).withEarlierOffsetAtOverlap(), first);
+
+        final ZonedDateTime second = schedule.next(first);
+        assertEquals(ZonedDateTime.of(2026, 11, 2, 1, 30, 0, 0, zone), second);
+    }
+
+    /**
+     * Test: 20261017111240713611
+     *
+     * <p>
+     * Method: <code>next</code>
+     * </p>
+     *
+     * <p>
+     * Case: A schedule that matches every hour matches during both occurrences of the repeated hour.
+     * </p>
+     */
+    @Test
+    public void test20261017111240713611 ()
+    {
+        final ZoneId zone = ZoneId.of("America/New_York");
+        final CronSchedule schedule = CronSchedule.parse("30 * * * *");
+
+        final ZonedDateTime first = schedule.next(ZonedDateTime.of(2026, 11, 1, 1, 0, 0, 0, zone).withEarlierOffsetAtOverlap());
+        final ZonedDateTime second = schedule.next(first);
+
+        assertEquals(first.withLaterOffsetAtOverlap(), second);
+        assertEquals(3600, second.toEpochSecond() - first.toEpochSecond());
+    }
+}
@@ -15,6 +15,10 @@
  */
 package com.mackenziehigh.socius;
 
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
@@ -94,4 +98,210 @@ public final class DefaultExecutorTest
     {
         assertEquals("com.mackenziehigh.socius.DefaultExecutor.threadCount", DefaultExecutor.PROPERTY_NAME);
     }
+
+    /**
+     * Test: 20261016192433105771
+     *
+     * <p>
+     * Method: <code>service</code>
+     * </p>
+     *
+     * <p>
+     * Case: Each mode runs both timed tasks and plain tasks,
+     * and names its threads using the configured prefix.
+     * </p>
+     *
+     * @throws java.lang.Exception if something goes unexpectedly wrong.
+     */
+    @Test
+    public void test20261016192433105771 ()
+            throws Exception
+    {
+        for (DefaultExecutor.Mode mode : DefaultExecutor.Mode.values())
+        {
+            final DefaultExecutor executor = new DefaultExecutor("2", mode.name().toLowerCase(), "test");
+            assertEquals(mode, executor.mode());
+            assertEquals("test", executor.threadName());
+
+            final ScheduledExecutorService service = executor.service();
+
+            try
+            {
+                final String timed = service.schedule(() -> Thread.currentThread().getName(), 1, TimeUnit.MILLISECONDS).get();
+                final String plain = service.submit(() -> Thread.currentThread().getName()).get();
+
+                if (mode == DefaultExecutor.Mode.SCHEDULED)
+                {
+                    assertTrue(timed.startsWith("test-"));
+                    assertTrue(plain.startsWith("test-"));
+                }
+                else
+                {
+                    assertTrue(timed.startsWith("test-timer-"));
+                    assertFalse(plain.startsWith("test-timer-"));
+                }
+
+                if (mode == DefaultExecutor.Mode.VIRTUAL)
+                {
+                    assertTrue(executor.threadCount().isEmpty());
+                }
+                else
+                {
+                    assertEquals(2, executor.threadCount().getAsInt());
+                }
+            }
+            finally
+            {
+                service.shutdownNow();
+            }
+
+            assertTrue(service.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Test: 20261016192433105846
+     *
+     * <p>
+     * Case: Default and invalid settings.
+     * </p>
+     */
+    @Test
+    public void test20261016192433105846 ()
+    {
+        final DefaultExecutor executor = new DefaultExecutor("", "X", " ");
+        assertEquals(DefaultExecutor.Mode.SCHEDULED, executor.mode());
+        assertEquals("socius", executor.threadName());
+        assertEquals("com.mackenziehigh.socius.DefaultExecutor.mode", DefaultExecutor.MODE_PROPERTY_NAME);
+        assertEquals("com.mackenziehigh.socius.DefaultExecutor.threadName", DefaultExecutor.THREAD_NAME_PROPERTY_NAME);
+    }
+
+    /**
+     * Test: 20261016194902551630
+     *
+     * <p>
+     * Method: <code>metrics</code>
+     * </p>
+     *
+     * <p>
+     * Case: Queued and active tasks are reported, while the workers are busy.
+     * </p>
+     *
+     * @throws java.lang.Exception if something goes unexpectedly wrong.
+     */
+    @Test
+    public void test20261016194902551630 ()
+            throws Exception
+    {
+        assertFalse(new DefaultExecutor("1").isMetricsEnabled());
+        assertFalse(new DefaultExecutor("1").metrics().isPresent());
+
+        final DefaultExecutor executor = new DefaultExecutor("1", "fixed", "test", "true");
+        assertTrue(executor.isMetricsEnabled());
+
+        final ScheduledExecutorService service = executor.service();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        try
+        {
+            service.execute(() -> awaitQuietly(latch));
+            service.execute(() -> awaitQuietly(latch));
+            service.schedule(() -> latch.countDown(), 1, TimeUnit.HOURS);
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+            while (executor.metrics().get().activeTaskCount() == 0 && System.nanoTime() < deadline)
+            {
+                Thread.sleep(1);
+            }
+
+            final DefaultExecutor.Metrics busy = executor.metrics().get();
+            assertEquals(2, busy.submittedTaskCount());
+            assertEquals(0, busy.completedTaskCount());
+            assertEquals(1, busy.activeTaskCount());
+            assertEquals(1, busy.queuedTaskCount());
+            assertEquals(1, busy.scheduledTaskCount());
+            assertEquals(1, busy.threadCount().getAsInt());
+            assertTrue(busy.isSaturated());
+
+            latch.countDown();
+
+            while (executor.metrics().get().completedTaskCount() < 2 && System.nanoTime() < deadline)
+            {
+                Thread.sleep(1);
+            }
+
+            final DefaultExecutor.Metrics idle = executor.metrics().get();
+            assertEquals(2, idle.completedTaskCount());
+            assertEquals(0, idle.activeTaskCount());
+            assertEquals(0, idle.queuedTaskCount());
+            assertFalse(idle.isSaturated());
+            assertTrue(idle.latency(100).compareTo(idle.latency(0)) >= 0);
+        }
+        finally
+        {
+            service.shutdownNow();
+        }
+    }
+
+    /**
+     * Test: 20261016194902551712
+     *
+     * <p>
+     * Method: <code>newMonitor</code>
+     * </p>
+     *
+     * <p>
+     * Case: Snapshots are sent periodically, once the monitor is started.
+     * </p>
+     */
+    @Test
+    public void test20261016194902551712 ()
+    {
+        final AsyncTestTool tester = new AsyncTestTool();
+        final DefaultExecutor executor = new DefaultExecutor("1", "scheduled", "test", "true");
+
+        try
+        {
+            final DefaultExecutor.Monitor monitor = executor.newMonitor(tester.stage(), Duration.ofMillis(10));
+            tester.connect(monitor.dataOut());
+            monitor.start();
+            assertNotNull(tester.awaitMessage(monitor.dataOut()));
+            assertNotNull(tester.awaitMessage(monitor.dataOut()));
+            monitor.stop();
+        }
+        finally
+        {
+            executor.service().shutdownNow();
+        }
+    }
+
+    /**
+     * Test: 20261016194902551748
+     *
+     * <p>
+     * Method: <code>newMonitor</code>
+     * </p>
+     *
+     * <p>
+     * Case: Instrumentation is not enabled.
+     * </p>
+     */
+    @Test (expected = IllegalStateException.class)
+    public void test20261016194902551748 ()
+    {
+        new DefaultExecutor("1").newMonitor(new AsyncTestTool().stage(), Duration.ofSeconds(1));
+    }
+
+    private static void awaitQuietly (final CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
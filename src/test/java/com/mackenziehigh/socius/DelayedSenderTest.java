@@ -17,6 +17,7 @@ package com.mackenziehigh.socius;
 
 import java.time.Duration;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
@@ -98,4 +99,256 @@ public final class DelayedSenderTest
                 .newDelayedSender(Executors.newSingleThreadScheduledExecutor())
                 .isUsingDefaultExecutor());
     }
+
+    /**
+     * Test: 20261016101523718402
+     *
+     * <p>
+     * Method: <code>newTimingWheelSender</code>
+     * </p>
+     *
+     * <p>
+     * Case: Messages are sent in order of their delays.
+     * </p>
+     */
+    @Test
+    public void test20261016101523718402 ()
+    {
+        final Processor<String> sink = Processor.fromIdentityScript(tester.stage());
+        tester.connect(sink.dataOut());
+
+        final DelayedSender clock = DelayedSender.newTimingWheelSender(Duration.ofMillis(10));
+
+        assertTrue(clock.isUsingTimingWheel());
+        assertTrue(clock.isUsingDefaultExecutor());
+        assertEquals(Duration.ofMillis(10), clock.resolution());
+
+        clock.send(sink.dataIn(), "X", Duration.ofMillis(300));
+        clock.send(sink.dataIn(), "Y", Duration.ofMillis(100));
+        clock.send(sink.dataIn(), "Z", Duration.ofMillis(200));
+        clock.send(sink.dataIn(), "W", Duration.ZERO);
+
+        tester.awaitEquals(sink.dataOut(), "W"); // First, due to zero delay.
+        tester.awaitEquals(sink.dataOut(), "Y");
+        tester.awaitEquals(sink.dataOut(), "Z");
+        tester.awaitEquals(sink.dataOut(), "X"); // Last, due to longest delay.
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016101523718479
+     *
+     * <p>
+     * Method: <code>newTimingWheelSender</code>
+     * </p>
+     *
+     * <p>
+     * Case: Delays longer than a single revolution of the wheel.
+     * </p>
+     */
+    @Test
+    public void test20261016101523718479 ()
+    {
+        final Processor<String> sink = Processor.fromIdentityScript(tester.stage());
+        tester.connect(sink.dataOut());
+
+        final DelayedSender clock = DelayedSender.newTimingWheelSender(Executors.newSingleThreadScheduledExecutor(),
+                                                                       Duration.ofMillis(10),
+                                                                       4);
+
+        assertFalse(clock.isUsingDefaultExecutor());
+
+        clock.send(sink.dataIn(), "X", Duration.ofMillis(250));
+        clock.send(sink.dataIn(), "Y", Duration.ofMillis(15));
+        clock.send(sink.dataIn(), "Z", Duration.ofMillis(120));
+
+        tester.awaitEquals(sink.dataOut(), "Y");
+        tester.awaitEquals(sink.dataOut(), "Z");
+        tester.awaitEquals(sink.dataOut(), "X");
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016101523718533
+     *
+     * <p>
+     * Method: <code>newTimingWheelSender</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Arguments.
+     * </p>
+     */
+    @Test
+    public void test20261016101523718533 ()
+    {
+        assertFalse(DelayedSender.newDelayedSender().isUsingTimingWheel());
+        assertEquals(Duration.ZERO, DelayedSender.newDelayedSender().resolution());
+
+        try
+        {
+            DelayedSender.newTimingWheelSender(Duration.ZERO);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("resolution <= 0", ex.getMessage());
+        }
+
+        try
+        {
+            DelayedSender.newTimingWheelSender(Executors.newSingleThreadScheduledExecutor(), Duration.ofMillis(1), 0);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("wheelSize < 1", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test: 20261016113045128902
+     *
+     * <p>
+     * Method: <code>send</code>
+     * </p>
+     *
+     * <p>
+     * Case: Cancellation, when using the executor.
+     * </p>
+     */
+    @Test
+    public void test20261016113045128902 ()
+    {
+        final Processor<String> sink = Processor.fromIdentityScript(tester.stage());
+        tester.connect(sink.dataOut());
+
+        final DelayedSender clock = DelayedSender.newDelayedSender();
+
+        final DelayedSender.Handle handleX = clock.send(sink.dataIn(), "X", Duration.ofMillis(100));
+        clock.send(sink.dataIn(), "Y", Duration.ofMillis(200));
+        final DelayedSender.Handle handleZ = clock.send(sink.dataIn(), "Z", Duration.ZERO);
+
+        assertTrue(handleX.isPending());
+        assertTrue(handleX.cancel());
+        assertFalse(handleX.isPending());
+        assertFalse(handleX.cancel());
+        assertFalse(handleZ.isPending());
+        assertFalse(handleZ.cancel());
+
+        tester.awaitEquals(sink.dataOut(), "Z");
+        tester.awaitEquals(sink.dataOut(), "Y");
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016113045128966
+     *
+     * <p>
+     * Method: <code>send</code>
+     * </p>
+     *
+     * <p>
+     * Case: Cancellation, when using a timing-wheel.
+     * </p>
+     */
+    @Test
+    public void test20261016113045128966 ()
+    {
+        final Processor<String> sink = Processor.fromIdentityScript(tester.stage());
+        tester.connect(sink.dataOut());
+
+        final DelayedSender clock = DelayedSender.newTimingWheelSender(Duration.ofMillis(10));
+
+        final DelayedSender.Handle handleX = clock.send(sink.dataIn(), "X", Duration.ofMillis(100));
+        final DelayedSender.Handle handleY = clock.send(sink.dataIn(), "Y", Duration.ofMillis(200));
+
+        assertTrue(handleX.isPending());
+        assertTrue(handleX.cancel());
+        assertFalse(handleX.isPending());
+        assertFalse(handleX.cancel());
+
+        tester.awaitEquals(sink.dataOut(), "Y");
+        tester.assertEmptyOutputs();
+        assertFalse(handleY.isPending());
+        assertFalse(handleY.cancel());
+    }
+
+    /**
+     * Test: 20261017090412338170
+     *
+     * <p>
+     * Method: <code>TimingWheel.schedule</code>
+     * </p>
+     *
+     * <p>
+     * Case: If sending one message throws, then later timeouts still fire.
+     * </p>
+     */
+    @Test
+    public void test20261017090412338170 ()
+    {
+        final Processor<String> sink = Processor.fromIdentityScript(tester.stage());
+        tester.connect(sink.dataOut());
+
+        final TimingWheel wheel = new TimingWheel(Executors.newSingleThreadScheduledExecutor(), Duration.ofMillis(10), 8);
+
+        /**
+         * The destination will reject the null message by throwing an exception.
+         */
+        wheel.schedule(sink.dataIn(), null, Duration.ofMillis(10).toNanos());
+        wheel.schedule(sink.dataIn(), "X", Duration.ofMillis(10).toNanos());
+        wheel.schedule(sink.dataIn(), "Y", Duration.ofMillis(200).toNanos());
+
+        tester.awaitEquals(sink.dataOut(), "X");
+        tester.awaitEquals(sink.dataOut(), "Y");
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261017001245913307
+     *
+     * <p>
+     * Method: <code>TimingWheel.schedule</code>
+     * </p>
+     *
+     * <p>
+     * Case: The periodic task stops when the wheel is empty and restarts on demand.
+     * </p>
+     */
+    @Test
+    public void test20261017001245913307 ()
+    {
+        final Processor<String> sink = Processor.fromIdentityScript(tester.stage());
+        tester.connect(sink.dataOut());
+
+        final ScheduledThreadPoolExecutor service = new ScheduledThreadPoolExecutor(1);
+        final TimingWheel wheel = new TimingWheel(service, Duration.ofMillis(1), 8);
+        assertFalse(wheel.isRunning());
+
+        /**
+         * Expiration empties the wheel.
+         */
+        wheel.schedule(sink.dataIn(), "X", Duration.ofMillis(20).toNanos());
+        assertTrue(wheel.isRunning());
+        tester.awaitEquals(sink.dataOut(), "X");
+        tester.awaitTrue(() -> !wheel.isRunning() && service.getQueue().isEmpty());
+
+        /**
+         * Cancellation empties the wheel.
+         */
+        final DelayedSender.Handle handle = wheel.schedule(sink.dataIn(), "Y", Duration.ofHours(1).toNanos());
+        assertTrue(wheel.isRunning());
+        assertTrue(handle.cancel());
+        tester.awaitTrue(() -> !wheel.isRunning() && service.getQueue().isEmpty());
+
+        /**
+         * The wheel restarts, when a timeout is scheduled.
+         */
+        wheel.schedule(sink.dataIn(), "Z", Duration.ofMillis(20).toNanos());
+        tester.awaitEquals(sink.dataOut(), "Z");
+        tester.awaitTrue(() -> !wheel.isRunning() && service.getQueue().isEmpty());
+        tester.assertEmptyOutputs();
+        service.shutdown();
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class HistogramTest
+{
+    /**
+     * Test: 20261016150418264017
+     *
+     * <p>
+     * Method: <code>indexOf</code> and <code>highestEquivalentValue</code>
+     * </p>
+     *
+     * <p>
+     * Case: Every value falls within the range of its bucket.
+     * </p>
+     */
+    @Test
+    public void test20261016150418264017 ()
+    {
+        final Random random = new Random(17);
+
+        for (int i = 0; i < 100_000; i++)
+        {
+            final long value = random.nextLong() >>> (1 + random.nextInt(Long.SIZE - 1));
+            final int index = Histogram.indexOf(value);
+            assertTrue(index >= 0 && index < Histogram.BUCKETS);
+            assertTrue(value <= Histogram.highestEquivalentValue(index));
+            assertTrue(index == 0 || value > Histogram.highestEquivalentValue(index - 1));
+        }
+
+        assertEquals(0, Histogram.indexOf(0));
+        assertEquals(15, Histogram.indexOf(15));
+        assertEquals(16, Histogram.indexOf(16));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.indexOf(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, Histogram.highestEquivalentValue(Histogram.BUCKETS - 1));
+    }
+
+    /**
+     * Test: 20261016150418264102
+     *
+     * <p>
+     * Method: <code>percentile</code>
+     * </p>
+     *
+     * <p>
+     * Case: Percentiles are accurate to within the precision of the buckets.
+     * </p>
+     */
+    @Test
+    public void test20261016150418264102 ()
+    {
+        final Histogram histogram = new Histogram();
+
+        assertEquals(0, Histogram.percentile(histogram.snapshot(), 50));
+
+        for (int i = 1; i <= 10_000; i++)
+        {
+            histogram.record(i * 1000L);
+        }
+
+        final long[] counts = histogram.snapshot();
+
+        assertEquals(10_000, Histogram.count(counts));
+        assertEquals(5_000_000, Histogram.percentile(counts, 50), 5_000_000 / 16);
+        assertEquals(9_900_000, Histogram.percentile(counts, 99), 9_900_000 / 16);
+        assertEquals(9_990_000, Histogram.percentile(counts, 99.9), 9_990_000 / 16);
+        assertEquals(10_000_000, Histogram.percentile(counts, 100), 10_000_000 / 16);
+        assertEquals(1000, Histogram.percentile(counts, 0), 1000 / 16);
+    }
+
+    /**
+     * Test: 20261016150418264177
+     *
+     * <p>
+     * Method: <code>percentile</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Percentile.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016150418264177 ()
+    {
+        Histogram.percentile(new Histogram().snapshot(), 101);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.Instant;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class MarkovTest
+{
+    private final AsyncTestTool tester = new AsyncTestTool();
+
+    /**
+     * Test: 20261016184120511307
+     *
+     * <p>
+     * Case: Deterministic transitions, with multiple transitions per tick.
+     * </p>
+     */
+    @Test
+    public void test20261016184120511307 ()
+    {
+        final Markov<String> markov = Markov
+                .<String>newMarkov(tester.stage())
+                .withTransition("A", "B", 1)
+                .withTransition("B", "C", 1)
+                .withTransition("C", "A", 1)
+                .withTransitionsPerTick(2)
+                .build();
+        tester.connect(markov.dataOut());
+
+        assertEquals(3, markov.stateCount());
+        assertEquals(3, markov.transitionCount());
+
+        markov.dataIn().send(Instant.now());
+        tester.awaitEquals(markov.dataOut(), "B");
+        tester.awaitEquals(markov.dataOut(), "C");
+
+        markov.dataIn().send(Instant.now());
+        tester.awaitEquals(markov.dataOut(), "A");
+        tester.awaitEquals(markov.dataOut(), "B");
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016184120511392
+     *
+     * <p>
+     * Method: <code>next</code>
+     * </p>
+     *
+     * <p>
+     * Case: The observed frequencies match the transition weights.
+     * </p>
+     */
+    @Test
+    public void test20261016184120511392 ()
+    {
+        final Markov<Integer> markov = Markov
+                .<Integer>newMarkov(tester.stage())
+                .withTransition(0, 0, 1)
+                .withTransition(0, 1, 2)
+                .withTransition(0, 2, 3)
+                .withTransition(0, 3, 4)
+                .withTransition(1, 0, 1)
+                .withTransition(2, 0, 1)
+                .withTransition(3, 0, 1)
+                .withSeed(13)
+                .build();
+
+        final int trials = 1_000_000;
+        final int[] counts = new int[4];
+
+        for (int i = 0; i < trials; i++)
+        {
+            ++counts[markov.next(0)];
+        }
+
+        for (int i = 0; i < counts.length; i++)
+        {
+            final double expected = (i + 1) / 10.0;
+            assertEquals(expected, counts[i] / (double) trials, 0.005);
+        }
+
+        assertEquals(0, markov.next(3));
+    }
+
+    /**
+     * Test: 20261016184120511421
+     *
+     * <p>
+     * Case: The same seed produces the same sequence.
+     * </p>
+     */
+    @Test
+    public void test20261016184120511421 ()
+    {
+        final Markov.Builder<Integer> builder = Markov
+                .<Integer>newMarkov(tester.stage())
+                .withTransition(0, 0, 0.5)
+                .withTransition(0, 1, 0.5)
+                .withTransition(1, 0, 0.7)
+                .withTransition(1, 1, 0.3)
+                .withSeed(7);
+
+        final Markov<Integer> markov1 = builder.build();
+        final Markov<Integer> markov2 = builder.build();
+
+        int state1 = 0;
+        int state2 = 0;
+
+        for (int i = 0; i < 1000; i++)
+        {
+            state1 = markov1.next(state1);
+            state2 = markov2.next(state2);
+            assertEquals(state1, state2);
+        }
+    }
+
+    /**
+     * Test: 20261016184120511448
+     *
+     * <p>
+     * Case: A transition leads to a state with no outgoing transitions.
+     * </p>
+     */
+    @Test (expected = IllegalStateException.class)
+    public void test20261016184120511448 ()
+    {
+        Markov.<String>newMarkov(tester.stage()).withTransition("A", "B", 1).build();
+    }
+
+    /**
+     * Test: 20261016184120511474
+     *
+     * <p>
+     * Case: Invalid weight.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016184120511474 ()
+    {
+        Markov.<String>newMarkov(tester.stage()).withTransition("A", "A", 0);
+    }
+}
@@ -57,5 +57,7 @@ public final class MinutemanTest
 
         clock.stop();
         clock.stop(); // Duplicate should be ignored.
+
+        assertFalse(clock.scheduledTick().isPresent());
     }
 }
@@ -22,6 +22,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.LongFunction;
 import static org.junit.Assert.*;
 import org.junit.Test;
@@ -31,6 +32,8 @@ import org.junit.Test;
  */
 public final class OscillatorTest
 {
+    private final AsyncTestTool tester = new AsyncTestTool();
+
     /**
      * Case: Throughput.
      *
@@ -111,4 +114,354 @@ public final class OscillatorTest
             assertEquals(oneSecond, waveform.apply(i));
         }
     }
+
+    /**
+     * Test: 20261016120001000001
+     *
+     * <p>
+     * Method: <code>withWaveformTable</code>
+     * </p>
+     *
+     * <p>
+     * Case: The table repeats, once exhausted.
+     * </p>
+     */
+    @Test
+    public void test20261016120001000001 ()
+    {
+        final LongFunction<Duration> waveform = Oscillator
+                .newOscillator()
+                .withWaveformTable(new long[]{ 1, 2, 3 })
+                .build()
+                .waveform();
+
+        assertEquals(Duration.ofNanos(1), waveform.apply(0));
+        assertEquals(Duration.ofNanos(2), waveform.apply(1));
+        assertEquals(Duration.ofNanos(3), waveform.apply(2));
+        assertEquals(Duration.ofNanos(1), waveform.apply(3));
+        assertEquals(Duration.ofNanos(3), waveform.apply(3_000_000_002L));
+    }
+
+    /**
+     * Test: 20261016120001000002
+     *
+     * <p>
+     * Method: <code>withWaveformTable</code>
+     * </p>
+     *
+     * <p>
+     * Case: Precompute a table from a waveform function.
+     * </p>
+     */
+    @Test
+    public void test20261016120001000002 ()
+    {
+        final LongFunction<Duration> waveform = Oscillator
+                .newOscillator()
+                .withWaveformTable(x -> Duration.ofMillis(x + 1), 2)
+                .build()
+                .waveform();
+
+        assertEquals(Duration.ofMillis(1), waveform.apply(0));
+        assertEquals(Duration.ofMillis(2), waveform.apply(1));
+        assertEquals(Duration.ofMillis(1), waveform.apply(2));
+    }
+
+    /**
+     * Test: 20261016120001000003
+     *
+     * <p>
+     * Method: <code>withWaveformTable</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Tables.
+     * </p>
+     */
+    @Test
+    public void test20261016120001000003 ()
+    {
+        final Oscillator.Builder builder = Oscillator.newOscillator();
+
+        try
+        {
+            builder.withWaveformTable(new long[0]);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("periods.length < 1", ex.getMessage());
+        }
+
+        try
+        {
+            builder.withWaveformTable(new long[]{ 1, 0 });
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("period <= 0", ex.getMessage());
+        }
+
+        try
+        {
+            builder.withWaveformTable(x -> Duration.ZERO, 0);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("length < 1", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test: 20261016120001000004
+     *
+     * <p>
+     * Case: A table-driven oscillator ticks via the executor.
+     * </p>
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void test20261016120001000004 ()
+            throws InterruptedException
+    {
+        final Stage stage = Cascade.newStage();
+        final List<Instant> ticks = new CopyOnWriteArrayList<>();
+        final Processor<Instant> sink = Processor.fromConsumerScript(stage, (Instant x) -> ticks.add(x));
+
+        final Oscillator clock = Oscillator
+                .newOscillator()
+                .withWaveformTable(new long[]{ 1_000_000, 2_000_000 })
+                .build();
+
+        clock.dataOut().connect(sink.dataIn());
+
+        assertFalse(clock.isUsingPrecisionLoop());
+        assertFalse(clock.metrics().isPresent());
+
+        clock.start();
+        Thread.sleep(200);
+        clock.stop();
+
+        assertTrue(ticks.size() >= 10);
+    }
+
+    /**
+     * Test: 20261016120001000005
+     *
+     * <p>
+     * Method: <code>withPrecisionLoop</code>
+     * </p>
+     *
+     * <p>
+     * Case: The ticks are evenly spaced and the jitter is recorded.
+     * </p>
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void test20261016120001000005 ()
+            throws InterruptedException
+    {
+        final Stage stage = Cascade.newStage();
+        final List<Instant> ticks = new CopyOnWriteArrayList<>();
+        final Processor<Instant> sink = Processor.fromConsumerScript(stage, (Instant x) -> ticks.add(x));
+
+        final Oscillator clock = Oscillator
+                .newOscillator()
+                .withWaveformTable(new long[]{ 100_000 })
+                .withPrecisionLoop()
+                .withMaxBurst(Integer.MAX_VALUE)
+                .build();
+
+        clock.dataOut().connect(sink.dataIn());
+
+        assertTrue(clock.isUsingPrecisionLoop());
+        assertEquals(0, clock.metrics().get().sampleCount());
+        assertEquals(Duration.ZERO, clock.metrics().get().maxJitter());
+
+        clock.start();
+        Thread.sleep(200);
+        clock.stop();
+        Thread.sleep(100);
+
+        final long count = clock.tickCount();
+        assertTrue(count >= 100);
+        assertEquals(count, clock.metrics().get().sampleCount());
+        assertTrue(clock.metrics().get().jitter(50).compareTo(clock.metrics().get().maxJitter()) <= 0);
+
+        /**
+         * The timestamps are derived from the schedule, rather than the wall-clock.
+         */
+        for (int i = 1; i < 10; i++)
+        {
+            assertEquals(Duration.ofNanos(100_000), Duration.between(ticks.get(i - 1), ticks.get(i)));
+        }
+
+        /**
+         * The loop stops promptly.
+         */
+        Thread.sleep(50);
+        assertEquals(count, clock.tickCount());
+    }
+
+    /**
+     * Test: 20261016120001000006
+     *
+     * <p>
+     * Method: <code>withPrecisionLoop</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Configurations.
+     * </p>
+     */
+    @Test
+    public void test20261016120001000006 ()
+    {
+        try
+        {
+            Oscillator.newOscillator().withPrecisionLoop(Duration.ZERO);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("spinThreshold <= 0", ex.getMessage());
+        }
+
+        try
+        {
+            Oscillator.newOscillator().withMaxBurst(0);
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("limit < 1", ex.getMessage());
+        }
+
+        try
+        {
+            Oscillator
+                    .newOscillator()
+                    .withPrecisionLoop()
+                    .poweredBy(TickScheduler.instance())
+                    .build();
+            fail();
+        }
+        catch (IllegalStateException ex)
+        {
+            assertEquals("Precision Loop Requires Dedicated Thread", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test: 20261017104418250731
+     *
+     * <p>
+     * Method: <code>withPrecisionLoop</code>
+     * </p>
+     *
+     * <p>
+     * Case: After a pause, the missed ticks are skipped, rather than sent in a burst.
+     * </p>
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void test20261017104418250731 ()
+            throws InterruptedException
+    {
+        final Duration period = Duration.ofNanos(100_000);
+
+        /**
+         * Simulate a long pause (100ms) of the ticking thread, which misses about 1000 ticks.
+         */
+        final LongFunction<Duration> waveform = x ->
+        {
+            if (x == 10)
+            {
+                LockSupport.parkNanos(Duration.ofMillis(100).toNanos());
+            }
+
+            return period;
+        };
+
+        final Oscillator clock = Oscillator
+                .newOscillator()
+                .withWaveform(waveform)
+                .withPrecisionLoop()
+                .withMaxBurst(3)
+                .build();
+
+        clock.start();
+        tester.awaitTrue(() -> clock.missedTickCount() >= 500);
+        final long ticksAfterPause = clock.tickCount();
+        clock.stop();
+
+        assertTrue(ticksAfterPause < 500);
+    }
+
+    /**
+     * Test: 20261017104418250819
+     *
+     * <p>
+     * Method: <code>withPrecisionLoop</code>
+     * </p>
+     *
+     * <p>
+     * Case: If the waveform throws, then the oscillator stops.
+     * </p>
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void test20261017104418250819 ()
+            throws InterruptedException
+    {
+        final Oscillator clock = Oscillator
+                .newOscillator()
+                .withWaveform(x -> x < 5 ? Duration.ofNanos(100_000) : null)
+                .withPrecisionLoop()
+                .withMaxBurst(Integer.MAX_VALUE)
+                .build();
+
+        clock.start();
+        tester.awaitTrue(() -> clock.tickCount() >= 6);
+        Thread.sleep(50);
+        assertEquals(6, clock.tickCount());
+    }
+
+    /**
+     * Test: 20261017104418250904
+     *
+     * <p>
+     * Case: If the waveform throws, then an executor-driven oscillator stops.
+     * </p>
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void test20261017104418250904 ()
+            throws InterruptedException
+    {
+        final Oscillator clock = Oscillator
+                .newOscillator()
+                .withWaveform(x ->
+                {
+                    if (x < 2)
+                    {
+                        return Duration.ofMillis(1);
+                    }
+
+                    throw new IllegalStateException("Expected");
+                })
+                .build();
+
+        clock.start();
+        tester.awaitTrue(() -> clock.tickCount() >= 3);
+        Thread.sleep(50);
+        assertEquals(3, clock.tickCount());
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.Duration;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class RequestTowerTest
+{
+    private final AsyncTestTool tester = new AsyncTestTool();
+
+    /**
+     * Requests are of the form (destination/key).
+     * Replies are of the form (key=value).
+     */
+    private final RequestTower<String, String, String, String, String> tower = RequestTower
+            .<String, String, String, String, String>newRequestTower(tester.stage())
+            .withDestinationFunction(x -> x.substring(0, x.indexOf('/')))
+            .withRequestKeyFunction(x -> x.substring(x.indexOf('/') + 1))
+            .withReplyKeyFunction(x -> x.substring(0, x.indexOf('=')))
+            .withCorrelator((x, y) -> x + " -> " + y)
+            .withTimeout(Duration.ofMillis(200))
+            .withTries(2)
+            .withFloor("X")
+            .withFloor("Y")
+            .build();
+
+    @Before
+    public void setup ()
+    {
+        tester.connect(tower.requestOut("X"));
+        tester.connect(tower.requestOut("Y"));
+        tester.connect(tower.resultOut());
+        tester.connect(tower.droppedRequestOut());
+        tester.connect(tower.droppedReplyOut());
+    }
+
+    /**
+     * Test: 20261016190214873105
+     *
+     * <p>
+     * Case: Requests are routed to their floors and correlated with the replies.
+     * </p>
+     */
+    @Test
+    public void test20261016190214873105 ()
+    {
+        tower.requestIn().send("X/1");
+        tester.awaitEquals(tower.requestOut("X"), "X/1");
+
+        tower.requestIn().send("Y/2");
+        tester.awaitEquals(tower.requestOut("Y"), "Y/2");
+
+        assertEquals(2, tower.pendingRequestCount());
+
+        tower.replyIn().send("2=B");
+        tester.awaitEquals(tower.resultOut(), "Y/2 -> 2=B");
+
+        tower.replyIn().send("1=A");
+        tester.awaitEquals(tower.resultOut(), "X/1 -> 1=A");
+
+        tower.replyIn().send("3=C");
+        tester.awaitEquals(tower.droppedReplyOut(), "3=C");
+
+        assertEquals(0, tower.pendingRequestCount());
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016190214873192
+     *
+     * <p>
+     * Case: Retries are routed to the same floor and exhausted requests are dropped.
+     * </p>
+     */
+    @Test
+    public void test20261016190214873192 ()
+    {
+        tower.requestIn().send("Y/1");
+        tester.awaitEquals(tower.requestOut("Y"), "Y/1");
+        tester.awaitEquals(tower.requestOut("Y"), "Y/1");
+        tester.awaitEquals(tower.droppedRequestOut(), "Y/1");
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016190214873221
+     *
+     * <p>
+     * Case: Requests for non-existent floors are dropped immediately.
+     * </p>
+     */
+    @Test
+    public void test20261016190214873221 ()
+    {
+        tower.requestIn().send("Z/1");
+        tester.awaitEquals(tower.droppedRequestOut(), "Z/1");
+        assertEquals(0, tower.pendingRequestCount());
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016190214873248
+     *
+     * <p>
+     * Method: <code>put</code> and <code>remove</code>
+     * </p>
+     *
+     * <p>
+     * Case: Floors can be added and removed dynamically.
+     * </p>
+     */
+    @Test
+    public void test20261016190214873248 ()
+    {
+        assertEquals(2, tower.floors().size());
+
+        tower.put("Z");
+        tester.connect(tower.requestOut("Z"));
+        assertTrue(tower.floors().contains("Z"));
+
+        tower.requestIn().send("Z/1");
+        tester.awaitEquals(tower.requestOut("Z"), "Z/1");
+        tower.replyIn().send("1=A");
+        tester.awaitEquals(tower.resultOut(), "Z/1 -> 1=A");
+
+        tower.remove("Z");
+        assertFalse(tower.floors().contains("Z"));
+
+        try
+        {
+            tower.requestOut("Z");
+            fail();
+        }
+        catch (IllegalStateException ex)
+        {
+            assertEquals("No Such Floor", ex.getMessage());
+        }
+
+        try
+        {
+            tower.put("X");
+            fail();
+        }
+        catch (IllegalStateException ex)
+        {
+            assertEquals("Floor Already Exists", ex.getMessage());
+        }
+
+        tester.assertEmptyOutputs();
+    }
+}
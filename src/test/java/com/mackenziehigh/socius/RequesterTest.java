@@ -16,8 +16,14 @@
 package com.mackenziehigh.socius;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
@@ -407,4 +413,607 @@ public final class RequesterTest
     {
         Requester.newRequester(tester.stage()).withTries(0);
     }
+
+    /**
+     * Test: 20261016113045128813
+     *
+     * <p>
+     * Case: The timeout is cancelled, when a reply is received.
+     * </p>
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void test20261016113045128813 ()
+            throws InterruptedException
+    {
+        final ScheduledThreadPoolExecutor service = new ScheduledThreadPoolExecutor(1);
+        service.setRemoveOnCancelPolicy(true);
+
+        final Requester<IdentifierClass, RequestClass, ReplyClass, ResultClass> requesterX = Requester
+                .<IdentifierClass, RequestClass, ReplyClass, ResultClass>newRequester(tester.stage())
+                .withTries(1)
+                .withTimeout(Duration.ofHours(1))
+                .withCorrelator((RequestClass x, ReplyClass y) -> new ResultClass(x, y))
+                .withRequestKeyFunction(x -> x.id)
+                .withReplyKeyFunction(x -> x.id)
+                .withDelayedSender(DelayedSender.newDelayedSender(service))
+                .build();
+
+        final IdentifierClass id = new IdentifierClass();
+        final RequestClass request = new RequestClass(id, "Neptune");
+        final ReplyClass reply = new ReplyClass(id, "Jovian");
+        final ResultClass result = new ResultClass(request, reply);
+
+        tester.connect(requesterX.requestOut());
+        tester.connect(requesterX.resultOut());
+
+        /**
+         * Forwarding the request schedules the timeout.
+         */
+        requesterX.requestIn().send(request);
+        tester.awaitEquals(requesterX.requestOut(), request);
+        assertEquals(1, service.getQueue().size());
+
+        /**
+         * Receiving the reply cancels the timeout.
+         */
+        requesterX.replyIn().send(reply);
+        tester.awaitEquals(requesterX.resultOut(), result);
+
+        while (service.getQueue().isEmpty() == false)
+        {
+            Thread.sleep(1);
+        }
+
+        assertEquals(0, requesterX.pendingRequestCount());
+        service.shutdown();
+    }
+
+    /**
+     * Test: 20261016124511370245
+     *
+     * <p>
+     * Case: Handlers are recycled, even when timeouts race with replies.
+     * </p>
+     */
+    @Test
+    public void test20261016124511370245 ()
+    {
+        final Requester<Integer, Integer, Integer, Integer> requesterX = Requester
+                .<Integer, Integer, Integer, Integer>newRequester(tester.stage())
+                .withTries(Integer.MAX_VALUE)
+                .withTimeout(Duration.ofMillis(1))
+                .withCorrelator((x, y) -> x + y)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .build();
+
+        final Processor<Integer> echo = Processor.fromIdentityScript(tester.stage());
+        requesterX.requestOut().connect(echo.dataIn());
+        echo.dataOut().connect(requesterX.replyIn());
+        tester.connect(requesterX.resultOut());
+
+        /**
+         * Each request is sent one at a time, so that the handler of
+         * the previous request will be reused by the next request,
+         * unless a timeout of the previous request is still pending.
+         */
+        for (int i = 0; i < 1000; i++)
+        {
+            requesterX.requestIn().send(i);
+            tester.awaitEquals(requesterX.resultOut(), i + i);
+        }
+
+        tester.awaitTrue(() -> requesterX.pendingRequestCount() == 0);
+    }
+
+    /**
+     * Test: 20261016133207481120
+     *
+     * <p>
+     * Method: <code>withShards</code>
+     * </p>
+     *
+     * <p>
+     * Case: Requests and replies are correlated across multiple shards.
+     * </p>
+     */
+    @Test
+    public void test20261016133207481120 ()
+    {
+        final Requester<Integer, Integer, Integer, Integer> requesterX = Requester
+                .<Integer, Integer, Integer, Integer>newRequester(tester.stage())
+                .withTries(1)
+                .withTimeout(Duration.ofMinutes(1))
+                .withCorrelator((x, y) -> x + y)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .withShards(3)
+                .build();
+
+        assertEquals(4, requesterX.shardCount());
+
+        tester.connect(requesterX.resultOut());
+
+        for (int i = 0; i < 100; i++)
+        {
+            requesterX.requestIn().send(i);
+        }
+
+        tester.awaitTrue(() -> requesterX.pendingRequestCount() == 100);
+
+        /**
+         * Send the replies.
+         * Each result is correlated by the shard of its key; therefore,
+         * the results may arrive in any order relative to one another.
+         */
+        final Set<Integer> results = new HashSet<>();
+
+        for (int i = 0; i < 100; i++)
+        {
+            requesterX.replyIn().send(i);
+        }
+
+        for (int i = 0; i < 100; i++)
+        {
+            results.add(tester.awaitMessage(requesterX.resultOut()));
+        }
+
+        for (int i = 0; i < 100; i++)
+        {
+            assertTrue(results.contains(i + i));
+        }
+
+        assertEquals(0, requesterX.pendingRequestCount());
+    }
+
+    /**
+     * Test: 20261016133207481198
+     *
+     * <p>
+     * Method: <code>withShards</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Shard Count.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016133207481198 ()
+    {
+        Requester.newRequester(tester.stage()).withShards(0);
+    }
+
+    /**
+     * Test: 20261016141922603315
+     *
+     * <p>
+     * Method: <code>withMaxInFlight</code>
+     * </p>
+     *
+     * <p>
+     * Case: Overflow requests are queued, until in-flight requests complete.
+     * </p>
+     */
+    @Test
+    public void test20261016141922603315 ()
+    {
+        final Requester<Integer, Integer, Integer, Integer> requesterX = Requester
+                .<Integer, Integer, Integer, Integer>newRequester(tester.stage())
+                .withTries(1)
+                .withTimeout(Duration.ofMinutes(1))
+                .withCorrelator((x, y) -> x + y)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .withMaxInFlight(2)
+                .build();
+
+        assertEquals(2, requesterX.maxInFlight());
+
+        tester.connect(requesterX.requestOut());
+        tester.connect(requesterX.resultOut());
+        tester.connect(requesterX.backpressureOut());
+
+        requesterX.requestIn().send(1);
+        requesterX.requestIn().send(2);
+        requesterX.requestIn().send(3);
+
+        /**
+         * Only the first two requests are forwarded.
+         */
+        tester.awaitEquals(requesterX.requestOut(), 1);
+        tester.awaitEquals(requesterX.requestOut(), 2);
+        tester.awaitEquals(requesterX.backpressureOut(), true);
+        tester.awaitTrue(() -> requesterX.queuedRequestCount() == 1);
+        assertTrue(requesterX.isSaturated());
+        assertFalse(requesterX.offer(4));
+
+        /**
+         * Once a request completes, the queued request is forwarded.
+         */
+        requesterX.replyIn().send(1);
+        tester.awaitEquals(requesterX.resultOut(), 2);
+        tester.awaitEquals(requesterX.requestOut(), 3);
+        tester.awaitTrue(() -> requesterX.queuedRequestCount() == 0);
+
+        /**
+         * Once the requests complete, the backpressure is relieved.
+         */
+        requesterX.replyIn().send(2);
+        requesterX.replyIn().send(3);
+        tester.awaitEquals(requesterX.resultOut(), 4);
+        tester.awaitEquals(requesterX.resultOut(), 6);
+        tester.awaitEquals(requesterX.backpressureOut(), false);
+        assertFalse(requesterX.isSaturated());
+        assertTrue(requesterX.offer(5));
+        tester.awaitEquals(requesterX.requestOut(), 5);
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016141922603391
+     *
+     * <p>
+     * Method: <code>withOverflowPolicy</code>
+     * </p>
+     *
+     * <p>
+     * Case: Overflow requests are dropped.
+     * </p>
+     */
+    @Test
+    public void test20261016141922603391 ()
+    {
+        final Requester<Integer, Integer, Integer, Integer> requesterX = Requester
+                .<Integer, Integer, Integer, Integer>newRequester(tester.stage())
+                .withTries(1)
+                .withTimeout(Duration.ofMinutes(1))
+                .withCorrelator((x, y) -> x + y)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .withMaxInFlight(1)
+                .withOverflowPolicy(Requester.OverflowPolicy.DROP)
+                .build();
+
+        tester.connect(requesterX.requestOut());
+        tester.connect(requesterX.droppedRequestOut());
+        tester.connect(requesterX.backpressureOut());
+
+        requesterX.requestIn().send(1);
+        requesterX.requestIn().send(2);
+
+        tester.awaitEquals(requesterX.requestOut(), 1);
+        tester.awaitEquals(requesterX.backpressureOut(), true);
+        tester.awaitEquals(requesterX.droppedRequestOut(), 2);
+        assertEquals(0, requesterX.queuedRequestCount());
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016141922603452
+     *
+     * <p>
+     * Method: <code>withMaxInFlight</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Limit.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016141922603452 ()
+    {
+        Requester.newRequester(tester.stage()).withMaxInFlight(0);
+    }
+
+    /**
+     * Test: 20261016150418264233
+     *
+     * <p>
+     * Method: <code>metrics</code>
+     * </p>
+     *
+     * <p>
+     * Case: Latency, retries, timeouts, and drops are recorded.
+     * </p>
+     */
+    @Test
+    public void test20261016150418264233 ()
+    {
+        assertFalse(requester.isMetricsEnabled());
+        assertFalse(requester.metrics().isPresent());
+
+        final Requester<Integer, Integer, Integer, Integer> requesterX = Requester
+                .<Integer, Integer, Integer, Integer>newRequester(tester.stage())
+                .withTries(2)
+                .withTimeout(Duration.ofMillis(TIMEOUT_MILLIS))
+                .withCorrelator((x, y) -> x + y)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .withMetrics()
+                .build();
+
+        assertTrue(requesterX.isMetricsEnabled());
+
+        tester.connect(requesterX.requestOut());
+        tester.connect(requesterX.resultOut());
+        tester.connect(requesterX.droppedRequestOut());
+        tester.connect(requesterX.droppedReplyOut());
+
+        /**
+         * Request (1) will be replied to immediately.
+         * Request (2) will be replied to after a retry.
+         * Request (3) will be dropped after a retry.
+         */
+        requesterX.requestIn().send(1);
+        requesterX.requestIn().send(2);
+        requesterX.requestIn().send(3);
+        tester.awaitEquals(requesterX.requestOut(), 1);
+        tester.awaitEquals(requesterX.requestOut(), 2);
+        tester.awaitEquals(requesterX.requestOut(), 3);
+        requesterX.replyIn().send(1);
+        tester.awaitEquals(requesterX.resultOut(), 2);
+        tester.awaitEquals(requesterX.requestOut(), 2);
+        tester.awaitEquals(requesterX.requestOut(), 3);
+        requesterX.replyIn().send(2);
+        tester.awaitEquals(requesterX.resultOut(), 4);
+        tester.awaitEquals(requesterX.droppedRequestOut(), 3);
+
+        /**
+         * Reply (4) does not correspond to any request.
+         */
+        requesterX.replyIn().send(4);
+        tester.awaitEquals(requesterX.droppedReplyOut(), 4);
+
+        final Requester.Metrics metrics = requesterX.metrics().get();
+        assertEquals(5, metrics.sendCount());
+        assertEquals(2, metrics.completedCount());
+        assertEquals(1, metrics.exhaustedCount());
+        assertEquals(1, metrics.droppedRequestCount());
+        assertEquals(1, metrics.droppedReplyCount());
+        assertEquals(3, metrics.timeoutCount());
+        assertEquals(0.6, metrics.timeoutRate(), 0.001);
+        assertArrayEquals(new long[]
+        {
+            1, 2
+        }, metrics.retryHistogram());
+        assertTrue(metrics.latency(100).compareTo(Duration.ofMillis(TIMEOUT_MILLIS)) >= 0);
+        assertTrue(metrics.latency(0).compareTo(metrics.latency(100)) <= 0);
+    }
+
+    /**
+     * Test: 20261016160127312289
+     *
+     * <p>
+     * Method: <code>withRetryPolicy</code>
+     * </p>
+     *
+     * <p>
+     * Case: Each retry waits according to the policy.
+     * </p>
+     */
+    @Test
+    public void test20261016160127312289 ()
+    {
+        final List<Integer> attempts = new CopyOnWriteArrayList<>();
+
+        final Requester<Integer, Integer, Integer, Integer> requesterX = Requester
+                .<Integer, Integer, Integer, Integer>newRequester(tester.stage())
+                .withTries(3)
+                .withRetryPolicy(attempt ->
+                {
+                    attempts.add(attempt);
+                    return Duration.ofMillis(10 * attempt);
+                })
+                .withCorrelator((x, y) -> x + y)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .build();
+
+        tester.connect(requesterX.requestOut());
+        tester.connect(requesterX.droppedRequestOut());
+
+        requesterX.requestIn().send(1);
+        tester.awaitEquals(requesterX.requestOut(), 1);
+        tester.awaitEquals(requesterX.requestOut(), 1);
+        tester.awaitEquals(requesterX.requestOut(), 1);
+        tester.awaitEquals(requesterX.droppedRequestOut(), 1);
+        assertEquals(Arrays.asList(1, 2, 3), attempts);
+    }
+
+    /**
+     * Test: 20261016163845027741
+     *
+     * <p>
+     * Method: <code>withHedging</code>
+     * </p>
+     *
+     * <p>
+     * Case: A duplicate request is sent, when a reply is slower than usual.
+     * </p>
+     */
+    @Test
+    public void test20261016163845027741 ()
+    {
+        final Requester<Integer, Integer, Integer, Integer> requesterX = Requester
+                .<Integer, Integer, Integer, Integer>newRequester(tester.stage())
+                .withTries(1)
+                .withTimeout(Duration.ofMinutes(1))
+                .withCorrelator((x, y) -> x + y)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .withHedging(50)
+                .withMetrics()
+                .build();
+
+        assertTrue(requesterX.isHedging());
+        assertFalse(requester.isHedging());
+
+        /**
+         * Requests less than (1000) are replied to immediately,
+         * unless they are hedged duplicates, which are ignored.
+         * Other requests are never replied to automatically.
+         */
+        final Set<Integer> seen = new HashSet<>();
+        final Processor<Integer> slow = Processor.fromIdentityScript(tester.stage());
+        final Processor<Integer> downstream = Processor.fromConsumerScript(tester.stage(), x ->
+        {
+            if (x < 1000)
+            {
+                if (seen.add(x))
+                {
+                    requesterX.replyIn().send(x);
+                }
+            }
+            else
+            {
+                slow.accept(x);
+            }
+        });
+
+        requesterX.requestOut().connect(downstream.dataIn());
+        tester.connect(slow.dataOut());
+        tester.connect(requesterX.resultOut());
+        tester.connect(requesterX.droppedReplyOut());
+
+        /**
+         * Establish the typical round-trip latency.
+         */
+        for (int i = 0; i < 256; i++)
+        {
+            requesterX.requestIn().send(i);
+            tester.awaitEquals(requesterX.resultOut(), i + i);
+        }
+
+        /**
+         * The slow request will be hedged.
+         */
+        requesterX.requestIn().send(1000);
+        tester.awaitEquals(slow.dataOut(), 1000);
+        tester.awaitEquals(slow.dataOut(), 1000);
+
+        /**
+         * The first reply is used and the second reply is dropped.
+         */
+        requesterX.replyIn().send(1000);
+        tester.awaitEquals(requesterX.resultOut(), 2000);
+        requesterX.replyIn().send(1000);
+        tester.awaitEquals(requesterX.droppedReplyOut(), 1000);
+        tester.assertEmptyOutputs();
+
+        assertTrue(requesterX.metrics().get().hedgeCount() >= 1);
+    }
+
+    /**
+     * Test: 20261016163845027826
+     *
+     * <p>
+     * Method: <code>withHedging</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Percentile.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016163845027826 ()
+    {
+        Requester.newRequester(tester.stage()).withHedging(100);
+    }
+
+    /**
+     * Test: 20261017004418562190
+     *
+     * <p>
+     * Method: <code>withHedging</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Limit.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261017004418562190 ()
+    {
+        Requester.newRequester(tester.stage()).withHedging(95, 0);
+    }
+
+    /**
+     * Test: 20261017004418562277
+     *
+     * <p>
+     * Method: <code>withHedging</code>
+     * </p>
+     *
+     * <p>
+     * Case: Hedges are not sent, when the limit has been reached.
+     * </p>
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void test20261017004418562277 ()
+            throws InterruptedException
+    {
+        final Requester<Integer, Integer, Integer, Integer> requesterX = Requester
+                .<Integer, Integer, Integer, Integer>newRequester(tester.stage())
+                .withTries(1)
+                .withTimeout(Duration.ofMinutes(1))
+                .withCorrelator((x, y) -> x + y)
+                .withRequestKeyFunction(x -> x)
+                .withReplyKeyFunction(x -> x)
+                .withHedging(50, 0.001)
+                .withMetrics()
+                .build();
+
+        /**
+         * Requests less than (1000) are replied to immediately, but only once.
+         * Other requests are never replied to automatically.
+         */
+        final Set<Integer> seen = new HashSet<>();
+        final Processor<Integer> slow = Processor.fromIdentityScript(tester.stage());
+        final Processor<Integer> downstream = Processor.fromConsumerScript(tester.stage(), x ->
+        {
+            if (x < 1000)
+            {
+                if (seen.add(x))
+                {
+                    requesterX.replyIn().send(x);
+                }
+            }
+            else
+            {
+                slow.accept(x);
+            }
+        });
+
+        requesterX.requestOut().connect(downstream.dataIn());
+        tester.connect(slow.dataOut());
+        tester.connect(requesterX.resultOut());
+        tester.connect(requesterX.droppedReplyOut());
+
+        /**
+         * Establish the typical round-trip latency.
+         * Too few requests were sent to earn even a single hedge.
+         */
+        for (int i = 0; i < 256; i++)
+        {
+            requesterX.requestIn().send(i);
+            tester.awaitEquals(requesterX.resultOut(), i + i);
+        }
+
+        /**
+         * The slow request would be hedged, if not for the limit.
+         */
+        requesterX.requestIn().send(1000);
+        tester.awaitEquals(slow.dataOut(), 1000);
+        Thread.sleep(100);
+
+        requesterX.replyIn().send(1000);
+        tester.awaitEquals(requesterX.resultOut(), 2000);
+        tester.assertEmptyOutputs();
+
+        assertEquals(0, requesterX.metrics().get().hedgeCount());
+    }
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.Duration;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class RetryPolicyTest
+{
+    /**
+     * Test: 20261016160127311840
+     *
+     * <p>
+     * Method: <code>fixed</code>
+     * </p>
+     *
+     * <p>
+     * Case: Every attempt waits the same amount of time.
+     * </p>
+     */
+    @Test
+    public void test20261016160127311840 ()
+    {
+        final RetryPolicy policy = RetryPolicy.fixed(Duration.ofMillis(100));
+
+        assertEquals(Duration.ofMillis(100), policy.timeout(1));
+        assertEquals(Duration.ofMillis(100), policy.timeout(2));
+        assertEquals(Duration.ofMillis(100), policy.timeout(100));
+    }
+
+    /**
+     * Test: 20261016160127311925
+     *
+     * <p>
+     * Method: <code>exponential</code>
+     * </p>
+     *
+     * <p>
+     * Case: Each attempt waits longer, up to the maximum.
+     * </p>
+     */
+    @Test
+    public void test20261016160127311925 ()
+    {
+        final RetryPolicy policy = RetryPolicy.exponential(Duration.ofMillis(100), 2.0, Duration.ofSeconds(1));
+
+        assertEquals(Duration.ofMillis(100), policy.timeout(1));
+        assertEquals(Duration.ofMillis(200), policy.timeout(2));
+        assertEquals(Duration.ofMillis(400), policy.timeout(3));
+        assertEquals(Duration.ofMillis(800), policy.timeout(4));
+        assertEquals(Duration.ofSeconds(1), policy.timeout(5));
+        assertEquals(Duration.ofSeconds(1), policy.timeout(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Test: 20261016160127311998
+     *
+     * <p>
+     * Method: <code>withJitter</code>
+     * </p>
+     *
+     * <p>
+     * Case: The timeouts are randomly shortened by at most the given fraction.
+     * </p>
+     */
+    @Test
+    public void test20261016160127311998 ()
+    {
+        final RetryPolicy policy = RetryPolicy.fixed(Duration.ofMillis(100)).withJitter(0.5);
+        boolean varied = false;
+
+        for (int i = 0; i < 1000; i++)
+        {
+            final Duration timeout = policy.timeout(1);
+            assertTrue(timeout.compareTo(Duration.ofMillis(50)) >= 0);
+            assertTrue(timeout.compareTo(Duration.ofMillis(100)) <= 0);
+            varied |= !timeout.equals(policy.timeout(1));
+        }
+
+        assertTrue(varied);
+    }
+
+    /**
+     * Test: 20261016160127312063
+     *
+     * <p>
+     * Method: <code>adaptive</code>
+     * </p>
+     *
+     * <p>
+     * Case: The timeouts track the observed round-trip latency.
+     * </p>
+     */
+    @Test
+    public void test20261016160127312063 ()
+    {
+        final RetryPolicy policy = RetryPolicy.adaptive(99,
+                                                        2.0,
+                                                        2.0,
+                                                        Duration.ofSeconds(1),
+                                                        Duration.ofMillis(10),
+                                                        Duration.ofSeconds(10));
+
+        /**
+         * Until enough round-trips are observed, the initial timeout is used.
+         */
+        assertEquals(Duration.ofSeconds(1), policy.timeout(1));
+        assertEquals(Duration.ofSeconds(2), policy.timeout(2));
+
+        /**
+         * The downstream is fast, so the timeouts shorten.
+         * The p99 is about 50ms, so the timeout is about 100ms.
+         */
+        for (int i = 0; i < LatencyWindow.SAMPLE_PERIOD; i++)
+        {
+            policy.onRoundTrip(Duration.ofMillis(50).toNanos());
+        }
+
+        assertEquals(100, policy.timeout(1).toMillis(), 100 / 16);
+        assertEquals(200, policy.timeout(2).toMillis(), 200 / 16);
+
+        /**
+         * The downstream slows down, so the timeouts lengthen, up to the maximum.
+         */
+        for (int i = 0; i < LatencyWindow.SAMPLE_PERIOD * 10; i++)
+        {
+            policy.onRoundTrip(Duration.ofSeconds(30).toNanos());
+        }
+
+        assertEquals(Duration.ofSeconds(10), policy.timeout(1));
+    }
+
+    /**
+     * Test: 20261016160127312140
+     *
+     * <p>
+     * Method: <code>exponential</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Multiplier.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016160127312140 ()
+    {
+        RetryPolicy.exponential(Duration.ofMillis(100), 0.5, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Test: 20261016160127312216
+     *
+     * <p>
+     * Method: <code>withJitter</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Fraction.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016160127312216 ()
+    {
+        RetryPolicy.fixed(Duration.ofMillis(100)).withJitter(1.5);
+    }
+
+    /**
+     * Test: 20261017093307418215
+     *
+     * <p>
+     * Method: <code>adaptive</code>
+     * </p>
+     *
+     * <p>
+     * Case: The timeouts follow a change in the latency, despite a long history.
+     * </p>
+     */
+    @Test
+    public void test20261017093307418215 ()
+    {
+        final RetryPolicy policy = RetryPolicy.adaptive(50,
+                                                        2.0,
+                                                        2.0,
+                                                        Duration.ofSeconds(1),
+                                                        Duration.ofMillis(10),
+                                                        Duration.ofSeconds(10));
+
+        for (int i = 0; i < LatencyWindow.WINDOW * 20; i++)
+        {
+            policy.onRoundTrip(Duration.ofMillis(50).toNanos());
+        }
+
+        assertEquals(100, policy.timeout(1).toMillis(), 100 / 16);
+
+        /**
+         * Brownout.
+         */
+        for (int i = 0; i < LatencyWindow.WINDOW * 2; i++)
+        {
+            policy.onRoundTrip(Duration.ofMillis(200).toNanos());
+        }
+
+        assertEquals(400, policy.timeout(1).toMillis(), 400 / 16);
+
+        /**
+         * Recovery.
+         */
+        for (int i = 0; i < LatencyWindow.WINDOW * 2; i++)
+        {
+            policy.onRoundTrip(Duration.ofMillis(50).toNanos());
+        }
+
+        assertEquals(100, policy.timeout(1).toMillis(), 100 / 16);
+    }
+
+    /**
+     * Test: 20261017093307418302
+     *
+     * <p>
+     * Method: <code>adaptive</code>
+     * </p>
+     *
+     * <p>
+     * Case: Timeouts lengthen, when the initial sends time-out.
+     * </p>
+     */
+    @Test
+    public void test20261017093307418302 ()
+    {
+        final RetryPolicy policy = RetryPolicy.adaptive(50,
+                                                        2.0,
+                                                        2.0,
+                                                        Duration.ofMillis(100),
+                                                        Duration.ofMillis(10),
+                                                        Duration.ofSeconds(10)).withJitter(0);
+
+        for (int i = 0; i < LatencyWindow.SAMPLE_PERIOD; i++)
+        {
+            policy.onTimeout(policy.timeout(1).toNanos());
+        }
+
+        assertEquals(200, policy.timeout(1).toMillis(), 200 / 16);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class RingBufferTest
+{
+    /**
+     * Test: 20261016180817551024
+     *
+     * <p>
+     * Method: <code>offer</code> and <code>poll</code>
+     * </p>
+     *
+     * <p>
+     * Case: First-In-First-Out, including wrap-around.
+     * </p>
+     */
+    @Test
+    public void test20261016180817551024 ()
+    {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        assertTrue(buffer.isEmpty());
+
+        for (int round = 0; round < 3; round++)
+        {
+            assertTrue(buffer.offer(1));
+            assertTrue(buffer.offer(2));
+            assertTrue(buffer.offer(3));
+            assertTrue(buffer.offer(4));
+            assertFalse(buffer.offer(5));
+            assertEquals(4, buffer.size());
+
+            assertEquals((Integer) 1, buffer.poll());
+            assertEquals((Integer) 2, buffer.poll());
+            assertEquals((Integer) 3, buffer.poll());
+            assertEquals((Integer) 4, buffer.poll());
+            assertNull(buffer.poll());
+            assertTrue(buffer.isEmpty());
+        }
+    }
+
+    /**
+     * Test: 20261016180817551102
+     *
+     * <p>
+     * Method: <code>overwrite</code>
+     * </p>
+     *
+     * <p>
+     * Case: The oldest element is evicted, when the buffer is full.
+     * </p>
+     */
+    @Test
+    public void test20261016180817551102 ()
+    {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(2);
+        assertNull(buffer.overwrite(1));
+        assertNull(buffer.overwrite(2));
+        assertEquals((Integer) 1, buffer.overwrite(3));
+        assertEquals((Integer) 2, buffer.overwrite(4));
+        assertEquals((Integer) 3, buffer.poll());
+        assertEquals((Integer) 4, buffer.poll());
+        assertNull(buffer.poll());
+    }
+
+    /**
+     * Test: 20261016180817551137
+     *
+     * <p>
+     * Method: <code>drain</code>
+     * </p>
+     *
+     * <p>
+     * Case: At most the given number of elements are drained.
+     * </p>
+     */
+    @Test
+    public void test20261016180817551137 ()
+    {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(8);
+        Arrays.asList(1, 2, 3, 4, 5).forEach(buffer::offer);
+
+        final List<Integer> sink = new ArrayList<>();
+        assertEquals(3, buffer.drain(sink::add, 3));
+        assertEquals(Arrays.asList(1, 2, 3), sink);
+        assertEquals(2, buffer.drain(sink::add, 100));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), sink);
+        assertEquals(0, buffer.drain(sink::add, 100));
+    }
+
+    /**
+     * Test: 20261016180817551163
+     *
+     * <p>
+     * Method: <code>new</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid capacity.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016180817551163 ()
+    {
+        new RingBuffer<>(0);
+    }
+
+    /**
+     * Test: 20261017113902446187
+     *
+     * <p>
+     * Method: <code>poll</code> and <code>drain</code>
+     * </p>
+     *
+     * <p>
+     * Case: Consumed elements do not remain reachable from the buffer.
+     * </p>
+     */
+    @Test
+    public void test20261017113902446187 ()
+    {
+        final RingBuffer<Object> buffer = new RingBuffer<>(4);
+
+        Object polled = new Object();
+        Object drained = new Object();
+        final WeakReference<Object> polledRef = new WeakReference<>(polled);
+        final WeakReference<Object> drainedRef = new WeakReference<>(drained);
+
+        buffer.offer(polled);
+        buffer.offer(drained);
+        polled = null;
+        drained = null;
+
+        assertNotNull(buffer.poll());
+        assertEquals(1, buffer.drain(x -> x.hashCode(), 10));
+
+        for (int i = 0; i < 100 && (polledRef.get() != null || drainedRef.get() != null); i++)
+        {
+            System.gc();
+        }
+
+        assertNull(polledRef.get());
+        assertNull(drainedRef.get());
+    }
+
+    /**
+     * Test: 20261017113902446260
+     *
+     * <p>
+     * Method: <code>poll</code>
+     * </p>
+     *
+     * <p>
+     * Case: Concurrent consumers receive each element exactly once.
+     * </p>
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void test20261017113902446260 ()
+            throws InterruptedException
+    {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(8);
+        final int total = 10_000;
+        final int[] seen = new int[total];
+        final List<Thread> consumers = new ArrayList<>();
+        final AtomicInteger received = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++)
+        {
+            final Thread consumer = new Thread(() ->
+            {
+                while (received.get() < total)
+                {
+                    final Integer value = buffer.poll();
+
+                    if (value != null)
+                    {
+                        synchronized (seen)
+                        {
+                            ++seen[value];
+                        }
+
+                        received.incrementAndGet();
+                    }
+                    else
+                    {
+                        Thread.yield();
+                    }
+                }
+            });
+
+            consumer.start();
+            consumers.add(consumer);
+        }
+
+        for (int i = 0; i < total; i++)
+        {
+            while (buffer.offer(i) == false)
+            {
+                Thread.yield();
+            }
+        }
+
+        for (Thread consumer : consumers)
+        {
+            consumer.join();
+        }
+
+        for (int i = 0; i < total; i++)
+        {
+            assertEquals(1, seen[i]);
+        }
+    }
+}
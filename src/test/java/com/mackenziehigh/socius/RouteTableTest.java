@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class RouteTableTest
+{
+    /**
+     * A key whose hash-code is user-specified,
+     * which is useful for forcing hash collisions.
+     */
+    private static final class Key
+    {
+        private final int hash;
+
+        private final String name;
+
+        public Key (final int hash,
+                    final String name)
+        {
+            this.hash = hash;
+            this.name = name;
+        }
+
+        @Override
+        public int hashCode ()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals (final Object other)
+        {
+            return other instanceof Key && ((Key) other).name.equals(name);
+        }
+    }
+
+    /**
+     * Test: 20261016190212417520
+     *
+     * <p>
+     * Case: Basic Insertion and Removal.
+     * </p>
+     */
+    @Test
+    public void test20261016190212417520 ()
+    {
+        final RouteTable<String, Integer> empty = RouteTable.empty();
+        assertEquals(0, empty.size());
+        assertNull(empty.get("A"));
+
+        final RouteTable<String, Integer> table1 = empty.with("A", 100);
+        final RouteTable<String, Integer> table2 = table1.with("B", 200);
+        final RouteTable<String, Integer> table3 = table2.with("A", 300);
+        final RouteTable<String, Integer> table4 = table3.without("A");
+        final RouteTable<String, Integer> table5 = table4.without("B");
+
+        /**
+         * Prior versions are unaffected by updates.
+         */
+        assertNull(empty.get("A"));
+        assertEquals(1, table1.size());
+        assertEquals(100, (int) table1.get("A"));
+        assertEquals(2, table2.size());
+        assertEquals(100, (int) table2.get("A"));
+        assertEquals(200, (int) table2.get("B"));
+        assertEquals(2, table3.size());
+        assertEquals(300, (int) table3.get("A"));
+        assertEquals(1, table4.size());
+        assertNull(table4.get("A"));
+        assertEquals(200, (int) table4.get("B"));
+        assertEquals(0, table5.size());
+        assertNull(table5.get("B"));
+
+        /**
+         * Removing a non-existent key is a no-op.
+         */
+        assertSame(table5, table5.without("X"));
+    }
+
+    /**
+     * Test: 20261016190212417621
+     *
+     * <p>
+     * Case: Hash Collisions.
+     * </p>
+     */
+    @Test
+    public void test20261016190212417621 ()
+    {
+        final Key keyA = new Key(7, "A");
+        final Key keyB = new Key(7, "B");
+        final Key keyC = new Key(7, "C");
+        final Key keyD = new Key(7 + (1 << 20), "D");
+
+        RouteTable<Key, String> table = RouteTable.empty();
+        table = table.with(keyA, "a").with(keyB, "b").with(keyC, "c").with(keyD, "d");
+
+        assertEquals(4, table.size());
+        assertEquals("a", table.get(keyA));
+        assertEquals("b", table.get(keyB));
+        assertEquals("c", table.get(keyC));
+        assertEquals("d", table.get(keyD));
+        assertNull(table.get(new Key(7, "X")));
+
+        table = table.without(keyB);
+        assertEquals(3, table.size());
+        assertEquals("a", table.get(keyA));
+        assertNull(table.get(keyB));
+        assertEquals("c", table.get(keyC));
+        assertEquals("d", table.get(keyD));
+
+        table = table.without(keyA).without(keyC).without(keyD);
+        assertEquals(0, table.size());
+        assertNull(table.get(keyA));
+    }
+
+    /**
+     * Test: 20261016190212417722
+     *
+     * <p>
+     * Case: Random Operations versus <code>HashMap</code>.
+     * </p>
+     */
+    @Test
+    public void test20261016190212417722 ()
+    {
+        final Random random = new Random(20261016);
+        final Map<Integer, Integer> expected = new HashMap<>();
+        RouteTable<Integer, Integer> actual = RouteTable.empty();
+
+        for (int i = 0; i < 100_000; i++)
+        {
+            final int key = random.nextInt(5_000) * 31;
+
+            if (random.nextBoolean())
+            {
+                expected.put(key, i);
+                actual = actual.with(key, i);
+            }
+            else
+            {
+                expected.remove(key);
+                actual = actual.without(key);
+            }
+
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.get(key), actual.get(key));
+        }
+
+        for (int key = 0; key < 5_000 * 31; key++)
+        {
+            assertEquals(expected.get(key), actual.get(key));
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.mackenziehigh.socius;
 
 import com.mackenziehigh.socius.Router.Publisher;
 import com.mackenziehigh.socius.Router.Subscriber;
+import java.util.List;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
@@ -381,4 +382,348 @@ public final class RouterTest
         tester.assertEmptyOutputs();
     }
 
+    /**
+     * Test: 20261016191532190244
+     *
+     * <p>
+     * Case: Deactivated Sole Subscriber is Unsubscribed.
+     * </p>
+     */
+    @Test
+    public void test20261016191532190244 ()
+    {
+        final Publisher<String, Integer> pub = router.newPublisher("Z");
+        final Subscriber<String, Integer> sub = router.newSubscriber("Z");
+        tester.connect(sub.dataOut());
+
+        pub.accept(100);
+        tester.awaitEquals(sub.dataOut(), 100);
+        tester.awaitEquals(router.sinkAll(), 100);
+
+        /**
+         * Since the only subscriber is now deactivated,
+         * the message is routed to the dead-sink instead.
+         */
+        sub.deactivate();
+        pub.accept(200);
+        tester.awaitEquals(router.sinkDead(), 200);
+        tester.awaitEquals(router.sinkAll(), 200);
+
+        /**
+         * Reactivation restores the subscription.
+         */
+        sub.activate();
+        pub.accept(300);
+        tester.awaitEquals(sub.dataOut(), 300);
+        tester.awaitEquals(router.sinkAll(), 300);
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016193018447201
+     *
+     * <p>
+     * Method: <code>synchronizePerKey</code>
+     * </p>
+     *
+     * <p>
+     * Case: Basic Per-Key Synchronous Throughput.
+     * </p>
+     */
+    @Test
+    public void test20261016193018447201 ()
+    {
+        assertFalse(router.isSynchronousPerKey());
+        router.synchronizePerKey(3);
+        assertTrue(router.isSynchronousPerKey());
+        assertFalse(router.isSynchronous());
+
+        P5.dataIn().send(500);
+        tester.awaitEquals(router.sinkDead(), 500);
+
+        P3.dataIn().send(300);
+        P4.dataIn().send(400);
+        tester.awaitSteadyState();
+
+        final Integer first = tester.awaitMessage(S3.dataOut());
+        final Integer second = first == 300 ? 400 : 300;
+        tester.awaitEquals(S3.dataOut(), second);
+        tester.awaitEquals(S4.dataOut(), first);
+        tester.awaitEquals(S4.dataOut(), second);
+        tester.awaitEquals(S5.dataOut(), first);
+        tester.awaitEquals(S5.dataOut(), second);
+
+        P1.dataIn().send(100);
+        tester.awaitEquals(S1.dataOut(), 100);
+        tester.awaitEquals(S2.dataOut(), 100);
+        tester.awaitEquals(S5.dataOut(), 100);
+
+        tester.awaitEquals(router.sinkAll(), 500);
+        tester.awaitEquals(router.sinkAll(), first);
+        tester.awaitEquals(router.sinkAll(), second);
+        tester.awaitEquals(router.sinkAll(), 100);
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016193018447302
+     *
+     * <p>
+     * Method: <code>synchronizePerKey</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Concurrency.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016193018447302 ()
+    {
+        router.synchronizePerKey(0);
+    }
+
+    /**
+     * Test: 20261016193018447403
+     *
+     * <p>
+     * Method: <code>synchronizePerKey</code>
+     * </p>
+     *
+     * <p>
+     * Case: Already Synchronized Per Key.
+     * </p>
+     */
+    @Test (expected = IllegalStateException.class)
+    public void test20261016193018447403 ()
+    {
+        router.synchronizePerKey(2);
+        router.synchronizePerKey(2);
+    }
+
+    /**
+     * Test: 20261016200127336801
+     *
+     * <p>
+     * Method: <code>newTopicRouter</code>
+     * </p>
+     *
+     * <p>
+     * Case: Wildcard Subscriptions.
+     * </p>
+     */
+    @Test
+    public void test20261016200127336801 ()
+    {
+        assertFalse(router.isTopicRouter());
+
+        final Router<String, Integer> topics = Router.newTopicRouter(tester.stage());
+        assertTrue(topics.isTopicRouter());
+
+        final Subscriber<String, Integer> exact = topics.newSubscriber("orders.eu.fr");
+        final Subscriber<String, Integer> single = topics.newSubscriber("orders.eu.*");
+        final Subscriber<String, Integer> multi = topics.newSubscriber("orders.#", "orders.eu.*");
+        tester.connect(exact.dataOut());
+        tester.connect(single.dataOut());
+        tester.connect(multi.dataOut());
+        tester.connect(topics.sinkDead());
+
+        topics.send("orders.eu.fr", 100);
+        tester.awaitEquals(exact.dataOut(), 100);
+        tester.awaitEquals(single.dataOut(), 100);
+        tester.awaitEquals(multi.dataOut(), 100);
+
+        topics.send("orders.eu.de", 200);
+        tester.awaitEquals(single.dataOut(), 200);
+        tester.awaitEquals(multi.dataOut(), 200);
+
+        topics.send("orders.us.ny", 300);
+        tester.awaitEquals(multi.dataOut(), 300);
+
+        topics.send("invoices.eu.fr", 400);
+        tester.awaitEquals(topics.sinkDead(), 400);
+
+        /**
+         * Unsubscribing invalidates the cached matches.
+         */
+        multi.deactivate();
+        topics.send("orders.us.ny", 500);
+        tester.awaitEquals(topics.sinkDead(), 500);
+        tester.assertEmptyOutputs();
+
+        /**
+         * Multi-level wildcards must be the last level, as in MQTT.
+         */
+        try
+        {
+            topics.newSubscriber("orders.#.fr");
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("multi-level wildcard is not last", ex.getMessage());
+        }
+    }
+
+    /**
+     * Test: 20261016202841590311
+     *
+     * <p>
+     * Method: <code>sendBatch</code>
+     * </p>
+     *
+     * <p>
+     * Case: Messages are grouped by key, in order.
+     * </p>
+     */
+    @Test
+    public void test20261016202841590311 ()
+    {
+        router.sendBatch(List.of(-100, +200, -300, 400, +500), x -> x < 0 ? "A" : (x == 400 ? "C" : "B"));
+
+        tester.awaitEquals(S1.dataOut(), -100);
+        tester.awaitEquals(S1.dataOut(), -300);
+        tester.awaitEquals(S2.dataOut(), -100);
+        tester.awaitEquals(S2.dataOut(), -300);
+        tester.awaitEquals(S3.dataOut(), +200);
+        tester.awaitEquals(S3.dataOut(), +500);
+        tester.awaitEquals(S4.dataOut(), +200);
+        tester.awaitEquals(S4.dataOut(), +500);
+        tester.awaitEquals(S5.dataOut(), -100);
+        tester.awaitEquals(S5.dataOut(), -300);
+        tester.awaitEquals(S5.dataOut(), +200);
+        tester.awaitEquals(S5.dataOut(), +500);
+        tester.awaitEquals(router.sinkDead(), 400);
+
+        /**
+         * The all-sink receives the messages in their original order,
+         * just as if they were sent individually.
+         */
+        tester.awaitEquals(router.sinkAll(), -100);
+        tester.awaitEquals(router.sinkAll(), +200);
+        tester.awaitEquals(router.sinkAll(), -300);
+        tester.awaitEquals(router.sinkAll(), 400);
+        tester.awaitEquals(router.sinkAll(), +500);
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261017121508337094
+     *
+     * <p>
+     * Method: <code>sendBatch</code>
+     * </p>
+     *
+     * <p>
+     * Case: The all-sink receives a burst in its original order, when synchronized.
+     * </p>
+     */
+    @Test
+    public void test20261017121508337094 ()
+    {
+        router.synchronize();
+        router.sendBatch(List.of(-100, +200, -300, 400, +500), x -> x < 0 ? "A" : (x == 400 ? "C" : "B"));
+
+        tester.awaitEquals(router.sinkAll(), -100);
+        tester.awaitEquals(router.sinkAll(), +200);
+        tester.awaitEquals(router.sinkAll(), -300);
+        tester.awaitEquals(router.sinkAll(), 400);
+        tester.awaitEquals(router.sinkAll(), +500);
+    }
+
+    /**
+     * Test: 20261016202841590412
+     *
+     * <p>
+     * Method: <code>Publisher.batchIn</code>
+     * </p>
+     *
+     * <p>
+     * Case: Batches from active and inactive publishers and to inactive subscribers.
+     * </p>
+     */
+    @Test
+    public void test20261016202841590412 ()
+    {
+        P1.batchIn().send(List.of(100, 200));
+        tester.awaitEquals(S1.dataOut(), 100);
+        tester.awaitEquals(S1.dataOut(), 200);
+        tester.awaitEquals(S2.dataOut(), 100);
+        tester.awaitEquals(S2.dataOut(), 200);
+        tester.awaitEquals(S5.dataOut(), 100);
+        tester.awaitEquals(S5.dataOut(), 200);
+        tester.awaitEquals(router.sinkAll(), 100);
+        tester.awaitEquals(router.sinkAll(), 200);
+
+        /**
+         * Batches from inactive publishers are dropped.
+         */
+        P1.deactivate();
+        P1.batchIn().send(List.of(300, 400));
+        tester.awaitSteadyState();
+
+        /**
+         * Batches are not forwarded by inactive subscribers,
+         * which is the same as for individual messages.
+         */
+        P1.activate();
+        S1.deactivate();
+        P1.batchIn().send(List.of(500));
+        tester.awaitEquals(S2.dataOut(), 500);
+        tester.awaitEquals(S5.dataOut(), 500);
+        tester.awaitEquals(router.sinkAll(), 500);
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016205517063128
+     *
+     * <p>
+     * Method: <code>enableMetrics</code>
+     * </p>
+     *
+     * <p>
+     * Case: Delivery Statistics.
+     * </p>
+     */
+    @Test
+    public void test20261016205517063128 ()
+    {
+        assertFalse(router.isMetricsEnabled());
+        assertFalse(router.metrics().isPresent());
+
+        router.enableMetrics();
+        assertTrue(router.isMetricsEnabled());
+
+        router.send("A", 100);
+        router.send("A", 200);
+        router.send("B", 300);
+        router.send("C", 400);
+        router.sendBatch(List.of(500, 600, 700), x -> "A");
+        tester.awaitSteadyState();
+
+        final Router.Metrics<String> metrics = router.metrics().get();
+
+        assertEquals(7, metrics.publishCount());
+        assertEquals(5L, (long) metrics.publishCounts().get("A"));
+        assertEquals(1L, (long) metrics.publishCounts().get("B"));
+        assertEquals(1L, (long) metrics.publishCounts().get("C"));
+
+        assertEquals(1, metrics.deadLetterCount());
+        assertEquals(1L, (long) metrics.deadLetterCounts().get("C"));
+        assertFalse(metrics.deadLetterCounts().containsKey("A"));
+        assertEquals(1.0 / 7.0, metrics.deadLetterRate(), 0.0001);
+
+        /**
+         * Key (A) has three subscribers, key (B) has three subscribers,
+         * and key (C) has zero subscribers.
+         */
+        final long[] histogram = metrics.fanoutHistogram();
+        assertEquals(1, histogram[0]);
+        assertEquals(0, histogram[1]);
+        assertEquals(6, histogram[2]);
+
+        assertEquals(List.of("A"), metrics.hottestKeys(1));
+        assertEquals(3, metrics.hottestKeys(10).size());
+        assertEquals("A", metrics.hottestKeys(10).get(0));
+    }
 }
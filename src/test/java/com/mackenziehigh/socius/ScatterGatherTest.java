@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class ScatterGatherTest
+{
+    private final AsyncTestTool tester = new AsyncTestTool();
+
+    private final ScatterGather<String, String, String, String> gatherer = ScatterGather
+            .<String, String, String, String>newScatterGather(tester.stage())
+            .withRequestKeyFunction(x -> x)
+            .withReplyKeyFunction(x -> x.substring(0, x.indexOf(':')))
+            .withExpectedReplies(3)
+            .withDeadline(Duration.ofMillis(300))
+            .withAggregator((String x, List<String> y) -> x + "=" + String.join(",", y))
+            .build();
+
+    @Before
+    public void setup ()
+    {
+        tester.connect(gatherer.requestOut());
+        tester.connect(gatherer.resultOut());
+        tester.connect(gatherer.droppedRequestOut());
+        tester.connect(gatherer.droppedReplyOut());
+    }
+
+    /**
+     * Test: 20261016171503922114
+     *
+     * <p>
+     * Case: All of the expected replies are received.
+     * </p>
+     */
+    @Test
+    public void test20261016171503922114 ()
+    {
+        gatherer.requestIn().send("A");
+        tester.awaitEquals(gatherer.requestOut(), "A");
+        assertEquals(1, gatherer.pendingRequestCount());
+
+        gatherer.replyIn().send("A:1");
+        gatherer.replyIn().send("A:2");
+        gatherer.replyIn().send("A:3");
+        tester.awaitEquals(gatherer.resultOut(), "A=A:1,A:2,A:3");
+        assertEquals(0, gatherer.pendingRequestCount());
+
+        /**
+         * Late replies are dropped.
+         */
+        gatherer.replyIn().send("A:4");
+        tester.awaitEquals(gatherer.droppedReplyOut(), "A:4");
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016171503922203
+     *
+     * <p>
+     * Case: The deadline expires after some of the replies are received.
+     * </p>
+     */
+    @Test
+    public void test20261016171503922203 ()
+    {
+        gatherer.requestIn().send("A");
+        tester.awaitEquals(gatherer.requestOut(), "A");
+
+        gatherer.replyIn().send("A:1");
+        tester.awaitEquals(gatherer.resultOut(), "A=A:1");
+        assertEquals(0, gatherer.pendingRequestCount());
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016171503922287
+     *
+     * <p>
+     * Case: The deadline expires before any of the replies are received.
+     * </p>
+     */
+    @Test
+    public void test20261016171503922287 ()
+    {
+        gatherer.requestIn().send("A");
+        tester.awaitEquals(gatherer.requestOut(), "A");
+        tester.awaitEquals(gatherer.droppedRequestOut(), "A");
+        assertEquals(0, gatherer.pendingRequestCount());
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016171503922350
+     *
+     * <p>
+     * Case: Duplicate requests are dropped and gathers are reused.
+     * </p>
+     */
+    @Test
+    public void test20261016171503922350 ()
+    {
+        gatherer.requestIn().send("A");
+        gatherer.requestIn().send("A");
+        tester.awaitEquals(gatherer.requestOut(), "A");
+        tester.awaitEquals(gatherer.droppedRequestOut(), "A");
+
+        for (String reply : Arrays.asList("A:1", "A:2", "A:3"))
+        {
+            gatherer.replyIn().send(reply);
+        }
+
+        tester.awaitEquals(gatherer.resultOut(), "A=A:1,A:2,A:3");
+
+        /**
+         * The same key can be used again, once the prior request completes.
+         */
+        gatherer.requestIn().send("A");
+        tester.awaitEquals(gatherer.requestOut(), "A");
+
+        for (String reply : Arrays.asList("A:4", "A:5", "A:6"))
+        {
+            gatherer.replyIn().send(reply);
+        }
+
+        tester.awaitEquals(gatherer.resultOut(), "A=A:4,A:5,A:6");
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016171503922418
+     *
+     * <p>
+     * Method: <code>withExpectedReplies</code>
+     * </p>
+     *
+     * <p>
+     * Case: Invalid Count.
+     * </p>
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void test20261016171503922418 ()
+    {
+        ScatterGather.newScatterGather(tester.stage()).withExpectedReplies(0);
+    }
+}
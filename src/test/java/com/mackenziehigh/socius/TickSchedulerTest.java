@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class TickSchedulerTest
+{
+    private final AsyncTestTool tester = new AsyncTestTool();
+
+    private final ScheduledExecutorService service = Executors.newScheduledThreadPool(1);
+
+    private final TickScheduler scheduler = TickScheduler.newTickScheduler(service, Duration.ofMillis(1));
+
+    @After
+    public void destroy ()
+    {
+        service.shutdownNow();
+    }
+
+    /**
+     * Test: 20261016203318092417
+     *
+     * <p>
+     * Case: Clocks with the same period share a single periodic task.
+     * </p>
+     */
+    @Test
+    public void test20261016203318092417 ()
+    {
+        final List<Clock> clocks = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++)
+        {
+            final Clock clock = Clock.newClock().withPeriod(Duration.ofMillis(10)).poweredBy(scheduler).build();
+            assertTrue(clock.isUsingTickScheduler());
+            clocks.add(clock);
+        }
+
+        final Clock slow = Clock
+                .newClock()
+                .withDelay(Duration.ofMillis(30))
+                .withPeriod(Duration.ofMillis(25))
+                .poweredBy(scheduler)
+                .build();
+
+        clocks.forEach(x -> x.start());
+        slow.start();
+
+        assertEquals(2, scheduler.periodicTaskCount());
+        assertEquals(101, scheduler.subscriberCount());
+
+        tester.awaitTrue(() -> clocks.stream().allMatch(x -> x.tickCount() >= 2));
+        tester.awaitTrue(() -> slow.tickCount() >= 1);
+        assertTrue(slow.isTicking());
+
+        clocks.forEach(x -> x.stop());
+        assertEquals(1, scheduler.periodicTaskCount());
+        assertEquals(1, scheduler.subscriberCount());
+        assertFalse(clocks.get(0).isTicking());
+
+        slow.stop();
+        assertEquals(0, scheduler.periodicTaskCount());
+        assertEquals(0, scheduler.subscriberCount());
+    }
+
+    /**
+     * Test: 20261016203318092506
+     *
+     * <p>
+     * Case: Ticks from a shared periodic task are delivered to the clock output.
+     * </p>
+     */
+    @Test
+    public void test20261016203318092506 ()
+    {
+        final Clock clock = Clock.newClock().withPeriod(Duration.ofMillis(5)).poweredBy(scheduler).build();
+        tester.connect(clock.dataOut());
+        clock.start();
+
+        final Instant tick1 = tester.awaitMessage(clock.dataOut());
+        final Instant tick2 = tester.awaitMessage(clock.dataOut());
+        assertFalse(tick2.isBefore(tick1));
+        clock.stop();
+    }
+
+    /**
+     * Test: 20261016203318092541
+     *
+     * <p>
+     * Case: Oscillators share the timing-wheel of the scheduler.
+     * </p>
+     */
+    @Test
+    public void test20261016203318092541 ()
+    {
+        final Oscillator oscillator = Oscillator
+                .newOscillator()
+                .withWaveform(x -> Duration.ofMillis(2 * x))
+                .poweredBy(scheduler)
+                .build();
+        assertTrue(oscillator.isUsingTickScheduler());
+        assertEquals(Duration.ofMillis(1), scheduler.resolution());
+
+        oscillator.start();
+        tester.awaitTrue(() -> oscillator.tickCount() >= 5);
+        oscillator.stop();
+    }
+
+    /**
+     * Test: 20261016203318092577
+     *
+     * <p>
+     * Case: A missed-tick policy cannot be combined with a tick-scheduler.
+     * </p>
+     */
+    @Test (expected = IllegalStateException.class)
+    public void test20261016203318092577 ()
+    {
+        Clock.newClock().withMissedTickPolicy(Clock.MissedTickPolicy.SKIP).poweredBy(scheduler).build();
+    }
+
+    /**
+     * Test: 20261017101522604118
+     *
+     * <p>
+     * Case: A clock whose period is a multiple of an existing period shares the periodic task.
+     * </p>
+     */
+    @Test
+    public void test20261017101522604118 ()
+    {
+        final Clock fast = Clock.newClock().withPeriod(Duration.ofMillis(10)).poweredBy(scheduler).build();
+        final Clock slow = Clock.newClock().withPeriod(Duration.ofMillis(40)).poweredBy(scheduler).build();
+
+        fast.start();
+        slow.start();
+
+        assertEquals(1, scheduler.periodicTaskCount());
+        assertEquals(2, scheduler.subscriberCount());
+
+        tester.awaitTrue(() -> slow.tickCount() >= 4);
+        assertTrue(fast.tickCount() >= 10);
+
+        /**
+         * The slow clock remains on the shared task, after the fast clock stops.
+         */
+        fast.stop();
+        assertEquals(1, scheduler.periodicTaskCount());
+        slow.stop();
+        assertEquals(0, scheduler.periodicTaskCount());
+    }
+
+    /**
+     * Test: 20261017101522604203
+     *
+     * <p>
+     * Case: The first tick is not delayed by the period.
+     * </p>
+     */
+    @Test
+    public void test20261017101522604203 ()
+    {
+        final Clock clock = Clock.newClock().withPeriod(Duration.ofHours(1)).poweredBy(scheduler).build();
+        tester.connect(clock.dataOut());
+
+        clock.start();
+        tester.awaitMessage(clock.dataOut());
+        assertEquals(1, clock.tickCount());
+        clock.stop();
+    }
+
+    /**
+     * Test: 20261017101522604280
+     *
+     * <p>
+     * Case: A subscriber that throws does not prevent the other subscribers from ticking.
+     * </p>
+     */
+    @Test
+    public void test20261017101522604280 ()
+    {
+        final List<Instant> ticks = new CopyOnWriteArrayList<>();
+
+        scheduler.subscribe(Duration.ofMillis(5), Duration.ZERO, x ->
+        {
+            throw new IllegalStateException("Expected");
+        });
+
+        scheduler.subscribe(Duration.ofMillis(5), Duration.ZERO, ticks::add);
+
+        tester.awaitTrue(() -> ticks.size() >= 5);
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class TopicTableTest
+{
+    private TopicTable<String> table = TopicTable.empty(String[]::new);
+
+    private void add (final String pattern,
+                      final String value)
+    {
+        final String[] values = table.get(pattern);
+        final String[] copy = Arrays.copyOf(values, values.length + 1);
+        copy[values.length] = value;
+        table = table.with(pattern, copy);
+    }
+
+    private Set<String> match (final String topic)
+    {
+        return new HashSet<>(Arrays.asList(table.match(topic)));
+    }
+
+    /**
+     * Test: 20261016195403118520
+     *
+     * <p>
+     * Case: Exact Patterns.
+     * </p>
+     */
+    @Test
+    public void test20261016195403118520 ()
+    {
+        add("orders.eu.fr", "A");
+        add("orders.eu.fr", "B");
+        add("orders.eu", "C");
+
+        assertEquals(Set.of("A", "B"), match("orders.eu.fr"));
+        assertEquals(Set.of("C"), match("orders.eu"));
+        assertEquals(Set.of(), match("orders"));
+        assertEquals(Set.of(), match("orders.eu.de"));
+        assertEquals(Set.of(), match("orders.eu.fr.paris"));
+
+        assertEquals(2, table.get("orders.eu.fr").length);
+        assertEquals(0, table.get("orders.eu.de").length);
+    }
+
+    /**
+     * Test: 20261016195403118621
+     *
+     * <p>
+     * Case: Single-Level Wildcards.
+     * </p>
+     */
+    @Test
+    public void test20261016195403118621 ()
+    {
+        add("orders.eu.*", "A");
+        add("orders.*.fr", "B");
+        add("*", "C");
+
+        assertEquals(Set.of("A", "B"), match("orders.eu.fr"));
+        assertEquals(Set.of("A"), match("orders.eu.de"));
+        assertEquals(Set.of("B"), match("orders.us.fr"));
+        assertEquals(Set.of(), match("orders.eu"));
+        assertEquals(Set.of(), match("orders.eu.fr.paris"));
+        assertEquals(Set.of("C"), match("orders"));
+    }
+
+    /**
+     * Test: 20261016195403118722
+     *
+     * <p>
+     * Case: Multi-Level Wildcards.
+     * </p>
+     */
+    @Test
+    public void test20261016195403118722 ()
+    {
+        add("orders.#", "A");
+        add("orders.*.#", "B");
+        add("#", "C");
+
+        assertEquals(Set.of("A", "C"), match("orders"));
+        assertEquals(Set.of("A", "B", "C"), match("orders.eu"));
+        assertEquals(Set.of("A", "B", "C"), match("orders.eu.fr.paris"));
+        assertEquals(Set.of("C"), match("invoices.eu"));
+    }
+
+    /**
+     * Test: 20261016231907455130
+     *
+     * <p>
+     * Case: Multi-Level Wildcards must be the last level.
+     * </p>
+     */
+    @Test
+    public void test20261016231907455130 ()
+    {
+        try
+        {
+            add("orders.#.paris", "A");
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("multi-level wildcard is not last", ex.getMessage());
+        }
+
+        try
+        {
+            add("#.#", "A");
+            fail();
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assertEquals("multi-level wildcard is not last", ex.getMessage());
+        }
+
+        /**
+         * A wildcard character that is only part of a level is not a wildcard.
+         */
+        add("orders.#eu.paris", "B");
+        assertEquals(Set.of("B"), match("orders.#eu.paris"));
+    }
+
+    /**
+     * Test: 20261016195403118823
+     *
+     * <p>
+     * Case: Overlapping patterns yield distinct values.
+     * </p>
+     */
+    @Test
+    public void test20261016195403118823 ()
+    {
+        add("orders.eu.fr", "A");
+        add("orders.*.fr", "A");
+        add("orders.#", "A");
+
+        assertEquals(1, table.match("orders.eu.fr").length);
+    }
+
+    /**
+     * Test: 20261016195403118924
+     *
+     * <p>
+     * Case: Match results are cached per version.
+     * </p>
+     */
+    @Test
+    public void test20261016195403118924 ()
+    {
+        add("orders.*", "A");
+
+        final String[] first = table.match("orders.eu");
+        assertSame(first, table.match("orders.eu"));
+
+        /**
+         * Updates produce a new version without the stale cache.
+         */
+        add("orders.eu", "B");
+        assertNotSame(first, table.match("orders.eu"));
+        assertEquals(Set.of("A", "B"), match("orders.eu"));
+        assertEquals(1, first.length);
+    }
+
+    /**
+     * Test: 20261016233514782046
+     *
+     * <p>
+     * Case: Identical results are interned and the cache keeps working after it fills up.
+     * </p>
+     */
+    @Test
+    public void test20261016233514782046 ()
+    {
+        add("orders.*", "A");
+
+        assertSame(table.match("orders.eu"), table.match("orders.us"));
+
+        for (int i = 0; i <= TopicTable.CACHE_LIMIT; i++)
+        {
+            table.match("orders." + i);
+        }
+
+        /**
+         * The cache was cleared, rather than frozen, when it filled up.
+         */
+        final String[] recent = table.match("orders.recent");
+        assertSame(recent, table.match("orders.recent"));
+        assertEquals(Set.of("A"), match("orders.recent"));
+    }
+
+    /**
+     * Test: 20261016195403119025
+     *
+     * <p>
+     * Case: Removal and Pruning.
+     * </p>
+     */
+    @Test
+    public void test20261016195403119025 ()
+    {
+        add("orders.eu.fr", "A");
+        add("orders.eu", "B");
+
+        table = table.with("orders.eu.fr", new String[0]);
+        assertEquals(Set.of(), match("orders.eu.fr"));
+        assertEquals(Set.of("B"), match("orders.eu"));
+
+        table = table.with("orders.eu", new String[0]);
+        assertEquals(Set.of(), match("orders.eu"));
+        assertEquals(0, table.get("orders").length);
+    }
+}
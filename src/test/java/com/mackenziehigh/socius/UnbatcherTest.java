@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 Michael Mackenzie High
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mackenziehigh.socius;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ */
+public final class UnbatcherTest
+{
+    private final AsyncTestTool tester = new AsyncTestTool();
+
+    private final Unbatcher<String> unbatcher = Unbatcher.newUnbatcher(tester.stage());
+
+    @Before
+    public void setup ()
+    {
+        tester.connect(unbatcher.dataOut());
+        tester.connect(unbatcher.recycleOut());
+    }
+
+    /**
+     * Test: 20261016180542117306
+     *
+     * <p>
+     * Case: Random-access batches are split in order and then recycled.
+     * </p>
+     */
+    @Test
+    public void test20261016180542117306 ()
+    {
+        final List<String> batch = Arrays.asList("A", "B", "C");
+        unbatcher.dataIn().send(batch);
+
+        tester.awaitEquals(unbatcher.dataOut(), "A");
+        tester.awaitEquals(unbatcher.dataOut(), "B");
+        tester.awaitEquals(unbatcher.dataOut(), "C");
+        tester.awaitEquals(unbatcher.recycleOut(), batch);
+        tester.assertEmptyOutputs();
+    }
+
+    /**
+     * Test: 20261016180542117389
+     *
+     * <p>
+     * Case: Sequential batches are split in order and then recycled.
+     * </p>
+     */
+    @Test
+    public void test20261016180542117389 ()
+    {
+        final List<String> batch = new LinkedList<>(Arrays.asList("A", "B"));
+        unbatcher.dataIn().send(batch);
+
+        tester.awaitEquals(unbatcher.dataOut(), "A");
+        tester.awaitEquals(unbatcher.dataOut(), "B");
+        tester.awaitEquals(unbatcher.recycleOut(), batch);
+        tester.assertEmptyOutputs();
+    }
+}